@@ -0,0 +1,45 @@
+package gameoflife.benchmark;
+
+import gameoflife.model.Engine;
+import gameoflife.model.RandomSource;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fills engines with reproducible random boards, so every benchmark run starts with the same cells.
+ */
+final class BoardSeeder {
+    static final long SEED = 42;
+
+    private BoardSeeder() {
+    }
+
+    /**
+     * Sets the given share of cells to a random live type between 1 and <code>types</code>. The engine gets a random
+     * source with the same seed, so random decisions while ticking are repeatable as well.
+     *
+     * @param engine  engine to fill
+     * @param density share of live cells between 0 and 1
+     * @param types   amount of used live cell types
+     */
+    static void seed(Engine engine, double density, int types) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        engine.setRandom(new RandomSource(SEED));
+
+        for (int y = 0; y < engine.getHeight(); y++)
+            for (int x = 0; x < engine.getWidth(); x++)
+                if (random.nextDouble() < density)
+                    engine.setCell(x, y, 1 + random.nextInt(types));
+    }
+
+    /**
+     * Parses a board size of the form <code>WIDTHxHEIGHT</code>.
+     *
+     * @param size board size
+     * @return width and height
+     */
+    static int[] parseSize(String size) {
+        String[] parts = size.split("x");
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+}
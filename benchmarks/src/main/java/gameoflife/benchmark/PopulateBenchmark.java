@@ -0,0 +1,44 @@
+package gameoflife.benchmark;
+
+import gameoflife.model.Engine;
+import gameoflife.model.EngineType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time of a single <code>Engine.populate()</code> call on an empty board, filling the given share of
+ * cells like the populate button of the application does with 5%.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PopulateBenchmark {
+    @Param({"140x100", "1024x1024", "4096x4096"})
+    public String size;
+
+    @Param({"0.05", "0.25", "0.5"})
+    public double density;
+
+    @Param({"MULTI_TYPE"})
+    public EngineType engine;
+
+    private Engine simulation;
+    private int amount;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        int[] dimensions = BoardSeeder.parseSize(size);
+        simulation = engine.create(dimensions[0], dimensions[1]);
+        amount = (int) (dimensions[0] * (long) dimensions[1] * density);
+    }
+
+    @Benchmark
+    public Engine populate() {
+        simulation.populate(amount);
+        return simulation;
+    }
+}
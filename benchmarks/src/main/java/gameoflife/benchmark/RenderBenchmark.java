@@ -0,0 +1,61 @@
+package gameoflife.benchmark;
+
+import gameoflife.model.BoardSnapshot;
+import gameoflife.model.Engine;
+import gameoflife.model.EngineType;
+import gameoflife.view.LifePanel;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures painting boards with <code>LifePanel</code>, two consecutive generations are painted alternately so every
+ * invocation updates the raster of the changed cells and draws the scaled image.
+ * The layout has the form <code>WIDTHxHEIGHT@CELLSIZE</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class RenderBenchmark {
+    @Param({"140x100@10", "1024x1024@1", "4096x4096@1"})
+    public String layout;
+
+    @Param({"0.05", "0.5"})
+    public double density;
+
+    private LifePanel lifePanel;
+    private BoardSnapshot[] boards;
+    private int next;
+    private BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = layout.split("@");
+        int[] dimensions = BoardSeeder.parseSize(parts[0]);
+        int cellDisplaySize = Integer.parseInt(parts[1]);
+
+        Engine simulation = EngineType.MULTI_TYPE.create(dimensions[0], dimensions[1]);
+        BoardSeeder.seed(simulation, density, 5);
+        boards = new BoardSnapshot[2];
+        boards[0] = simulation.getBoard();
+        simulation.tick();
+        boards[1] = simulation.getBoard();
+        lifePanel = new LifePanel(dimensions[0], dimensions[1], cellDisplaySize);
+        image = new BufferedImage(dimensions[0] * cellDisplaySize, dimensions[1] * cellDisplaySize,
+                BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        Graphics2D graphics2D = image.createGraphics();
+        lifePanel.paintBoard(graphics2D, boards[next]);
+        next ^= 1;
+        graphics2D.dispose();
+        return image;
+    }
+}
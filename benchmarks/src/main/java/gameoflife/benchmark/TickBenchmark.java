@@ -0,0 +1,50 @@
+package gameoflife.benchmark;
+
+import gameoflife.model.Engine;
+import gameoflife.model.EngineType;
+import gameoflife.model.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generations per second of <code>Engine.tick()</code> across board sizes, densities and cell type counts.
+ * The board keeps evolving between invocations, like it does in the application.
+ * <code>Simulation</code> is measured with its scalar kernel, <code>VectorTickBenchmark</code> compares it with the
+ * Vector API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class TickBenchmark {
+    @Param({"140x100", "1024x1024", "4096x4096", "8192x8192"})
+    public String size;
+
+    @Param({"0.05", "0.25", "0.5"})
+    public double density;
+
+    @Param({"1", "5", "255"})
+    public int types;
+
+    @Param({"MULTI_TYPE"})
+    public EngineType engine;
+
+    private Engine simulation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] dimensions = BoardSeeder.parseSize(size);
+        simulation = engine.create(dimensions[0], dimensions[1], types);
+        if (simulation instanceof Simulation)
+            ((Simulation) simulation).setVectorized(false);
+        BoardSeeder.seed(simulation, density, types);
+    }
+
+    @Benchmark
+    public void tick() {
+        simulation.tick();
+    }
+}
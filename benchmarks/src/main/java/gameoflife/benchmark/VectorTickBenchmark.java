@@ -0,0 +1,48 @@
+package gameoflife.benchmark;
+
+import gameoflife.model.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares generations per second of <code>Simulation</code> with and without the kernel based on the Vector API.
+ * The forked JVM gets the incubator module, so it needs Java 16 or newer and the application built with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+public class VectorTickBenchmark {
+    @Param({"1024x1024", "4096x4096"})
+    public String size;
+
+    @Param({"0.25"})
+    public double density;
+
+    @Param({"1", "5", "255"})
+    public int types;
+
+    @Param({"true", "false"})
+    public boolean vectorized;
+
+    private Simulation simulation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (vectorized && !Simulation.isVectorAvailable())
+            throw new IllegalStateException("Vector API not available, build the application with Java 16 or newer");
+
+        int[] dimensions = BoardSeeder.parseSize(size);
+        simulation = new Simulation(dimensions[0], dimensions[1], types);
+        simulation.setVectorized(vectorized);
+        BoardSeeder.seed(simulation, density, types);
+    }
+
+    @Benchmark
+    public void tick() {
+        simulation.tick();
+    }
+}
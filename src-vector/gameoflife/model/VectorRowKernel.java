@@ -0,0 +1,114 @@
+package gameoflife.model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <code>RowKernel</code> based on the Vector API, computes as many cells at once as fit into the widest vector of
+ * the processor, 16 to 64 cells.
+ * The eight neighbours are loaded as vectors shifted by one cell and turned into 1 for live and 0 for dead cells
+ * without comparisons, then summed up. The rule is applied by comparing the counts with every amount of neighbours
+ * listed in the rule.
+ * Cells behind the last full vector are computed one by one.
+ */
+final class VectorRowKernel implements RowKernel {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean computeSegment(byte[] cells, byte[] nextCells, int above, int row, int below, int from, int to,
+                                  int bornMask, int survivingMask) {
+        ByteVector zero = ByteVector.zero(SPECIES);
+        boolean changed = false;
+        int x = from;
+
+        for (int bound = from + SPECIES.loopBound(to - from); x < bound; x += SPECIES.length()) {
+            ByteVector neighbours = countRow(cells, above + x)
+                    .add(isAlive(cells, row + x - 1)).add(isAlive(cells, row + x + 1))
+                    .add(countRow(cells, below + x));
+
+            ByteVector current = ByteVector.fromArray(SPECIES, cells, row + x);
+            VectorMask<Byte> alive = current.compare(VectorOperators.NE, 0);
+            VectorMask<Byte> surviving = matches(neighbours, survivingMask).and(alive);
+            VectorMask<Byte> born = matches(neighbours, bornMask).andNot(alive);
+
+            ByteVector next = zero.blend(current, surviving).blend((byte) 1, born);
+            next.intoArray(nextCells, row + x);
+            changed |= next.compare(VectorOperators.NE, current).anyTrue();
+        }
+
+        for (; x < to; x++) {
+            int neighbours = isAlive(cells[above + x - 1]) + isAlive(cells[above + x]) + isAlive(cells[above + x + 1])
+                    + isAlive(cells[row + x - 1]) + isAlive(cells[row + x + 1])
+                    + isAlive(cells[below + x - 1]) + isAlive(cells[below + x]) + isAlive(cells[below + x + 1]);
+
+            byte current = cells[row + x];
+            byte next = 0;
+            if (current != 0 && (survivingMask >>> neighbours & 1) != 0)
+                next = current;
+            else if (current == 0 && (bornMask >>> neighbours & 1) != 0)
+                next = 1;
+
+            nextCells[row + x] = next;
+            changed |= next != current;
+        }
+
+        return changed;
+    }
+
+    @Override
+    public int getLanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Loads a vector of cells and returns 1 for every live cell and 0 for every dead cell. Only 0 has no sign bit in
+     * both the type and its negation.
+     *
+     * @param cells cells of the board
+     * @param index index of the first cell
+     * @return 1 for live cells, 0 for dead cells
+     */
+    private static ByteVector isAlive(byte[] cells, int index) {
+        ByteVector types = ByteVector.fromArray(SPECIES, cells, index);
+        return types.or(types.neg()).lanewise(VectorOperators.LSHR, 7);
+    }
+
+    /**
+     * Returns the amount of live cells among each cell and its left and right neighbour.
+     *
+     * @param cells cells of the board
+     * @param index index of the first cell
+     * @return 0 to 3 for each cell
+     */
+    private static ByteVector countRow(byte[] cells, int index) {
+        return isAlive(cells, index - 1).add(isAlive(cells, index)).add(isAlive(cells, index + 1));
+    }
+
+    /**
+     * Returns 1 for a live cell and 0 for a dead cell.
+     *
+     * @param cell type of the cell
+     * @return 1 if the cell is alive
+     */
+    private static int isAlive(byte cell) {
+        return cell != 0 ? 1 : 0;
+    }
+
+    /**
+     * Returns which counts of neighbours are listed in the given mask of a rule.
+     *
+     * @param neighbours amount of live neighbours of each cell
+     * @param mask       bit n is set if n neighbours are listed
+     * @return set for every cell with a listed amount of neighbours
+     */
+    private static VectorMask<Byte> matches(ByteVector neighbours, int mask) {
+        VectorMask<Byte> matches = SPECIES.maskAll(false);
+        for (int amount = 0; amount <= 8; amount++)
+            if ((mask >>> amount & 1) != 0)
+                matches = matches.or(neighbours.compare(VectorOperators.EQ, (byte) amount));
+
+        return matches;
+    }
+}
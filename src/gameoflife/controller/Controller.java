@@ -1,35 +1,67 @@
 package gameoflife.controller;
 
+import gameoflife.model.BoardFile;
+import gameoflife.model.BoardSnapshot;
 import gameoflife.model.Model;
+import gameoflife.model.PatternWriter;
+import gameoflife.model.RecordingReader;
+import gameoflife.model.RecordingWriter;
+import gameoflife.model.Rule;
+import gameoflife.model.TickScheduler;
 import gameoflife.view.View;
 
 import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interacts between <code>Model</code> and <code>View</code>.
+ * Generations are computed by a <code>TickScheduler</code> at the simulation FPS, while <code>View</code> displays the
+ * latest computed generation at the paint FPS. While recording, a <code>Recorder</code> receives every generation
+ * from <code>Model</code> and writes it in the background. In replay mode, generations of a recording file are
+ * displayed at the simulation FPS instead of computed ones.
  */
 public class Controller {
+    private static final int ENCODER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int ENCODER_QUEUE_CAPACITY = 16;
+    private static final int KEYFRAME_INTERVAL = 100;
+    private static final String RECORDING_PATH = "recorded/";
+    private static final String SAVE_PATH = "saved/";
+    private static final String PATTERN_PATH = "patterns/";
+
     final private Model model;
     final private View view;
+    final private TickScheduler scheduler;
     int cellDisplaySize;
     boolean isMousePressed;
-    private double lastTime;
-    private int fps;
+    private long lastTime;
+    private long lastGeneration;
     private int simulationFPS;
     private int paintFPS;
 
     private boolean isPaintMode;
     private boolean isRecording;
+    private Recorder recorder;
+    private long droppedBeforeRecording;
+    private boolean isReplayMode;
+    private RecordingReader replay;
+    private long nextReplayTime;
 
     /**
-     * Creates a new <code>Controller</code>, initializes <code>Model</code> and <code>View</code> before calling the model to start the calculation.
+     * Creates a new <code>Controller</code>, initializes <code>Model</code> and <code>View</code> before starting the
+     * scheduler computing generations.
      *
      * @param windowTitle
      * @param width
      * @param height
      * @param cellDisplaySize
+     * @param cellTypes       amount of live cell types
      */
-    public Controller(String windowTitle, int width, int height, int cellDisplaySize) {
+    public Controller(String windowTitle, int width, int height, int cellDisplaySize, int cellTypes) {
         lastTime = System.nanoTime();
         paintFPS = 60;
         simulationFPS = 8;
@@ -37,41 +69,50 @@ public class Controller {
         isPaintMode = false;
         isRecording = false;
         this.cellDisplaySize = cellDisplaySize;
-        model = new Model(this, width, height);
+        model = new Model(width, height, cellTypes);
+        scheduler = new TickScheduler(model, simulationFPS);
         view = new View(this, windowTitle, width, height, cellDisplaySize);
         initView();
-        model.compute();
+        scheduler.resume();
     }
 
     /**
      * Run <code>View</code> in AWT Event dispatcher thread and show the frame.
      */
     private void initView() {
+        view.setCellTypes(model.getCellTypes());
         view.setText();
         SwingUtilities.invokeLater(view::show);
     }
 
     /**
-     * Gets called when a new board is available and then sends this board to <code>View</code>.
-     *
-     * @param board 2D-Array
-     */
-    public void updateBoard(int[][] board) {
-        view.updateBoard(board);
-    }
-
-    /**
-     * Calls the <code>Model</code> to start the computation of a new board.
+     * Gets called at the paint FPS and sends the latest computed board to <code>View</code>.
+     * Generations computed in between are skipped. About twice a second the achieved simulation FPS and the recording
+     * throughput get updated.
      */
     public void requestBoard() {
         if (isPaintMode())
             view.updateBoard(model.getBoard());
+        else if (isReplayMode)
+            replayNextGeneration();
         else {
-            if (isRecording)
-                view.saveImage("PNG", "recorded/", System.nanoTime() + ".png");
-            fps = (int) Math.round(1000000000 / -(lastTime - (lastTime = System.nanoTime())));
-            view.setReaFPSLabel(fps);
-            model.compute();
+            BoardSnapshot board = model.getLatestBoard();
+            view.updateBoard(board);
+
+            long now = System.nanoTime();
+            if (now - lastTime >= 500_000_000L) {
+                long generation = model.getGeneration();
+                view.setReaFPSLabel((int) Math.round((generation - lastGeneration) * 1e9 / (now - lastTime)));
+                lastGeneration = generation;
+                lastTime = now;
+
+                if (isRecording) {
+                    // generations dropped by the model never reach the recorder, so they count as skipped too
+                    RecordingStats stats = recorder.getStats();
+                    long dropped = model.getComputeStats().getDropped() - droppedBeforeRecording;
+                    view.setRecordingLabel(stats.getFramesPerSecond(), stats.getSkipped() + dropped);
+                }
+            }
         }
     }
 
@@ -81,7 +122,13 @@ public class Controller {
      * After that, it tells <code>View</code> to update the texts of the buttons.
      */
     public void paintButtonPressed() {
+        if (isReplayMode)
+            stopReplay();
         isPaintMode = !isPaintMode;
+        if (isPaintMode)
+            scheduler.pause();
+        else
+            scheduler.resume();
         view.setText();
     }
 
@@ -118,23 +165,24 @@ public class Controller {
 
     /**
      * If is in paint mode, call the model to set the cell on the given coordinates to the type that is selected in the UI.
-     * Coordinate of the mouse cursor gets divided by the display size of a cell to get the coordinate in the 2D-Array.
+     * Coordinate of the mouse cursor gets mapped through the zoom and position of the view to get the coordinate in the
+     * 2D-Array.
      *
      * @param x x-coordinate of the mouse cursor
      * @param y y-coordinate of the mouse cursor
      */
     private void setCell(int x, int y) {
         if (isPaintMode())
-            model.setCell(x / cellDisplaySize, y / cellDisplaySize, view.getSelectedPaintType());
+            model.setCell(view.getCellX(x), view.getCellY(y), view.getSelectedPaintType());
     }
 
     /**
-     * Changes the goal of the simulation FPS, but not lower than 1.
+     * Changes the goal of the simulation FPS, 0 means as fast as possible.
      */
     public void changeFPS(int value) {
         simulationFPS = value;
-        if (simulationFPS < 1) simulationFPS = 1;
-        view.updateSimulationFPS();
+        if (simulationFPS < 0) simulationFPS = 0;
+        scheduler.setTargetRate(simulationFPS);
     }
 
     /**
@@ -176,13 +224,288 @@ public class Controller {
 
     /**
      * If is not recording, start recording mode and vice versa.
+     * Recorded generations are written as PNG images into the "recorded" directory. When the recording stops, the
+     * queued generations are written in the background.
      * Change text of record button accordingly.
      */
     public void recordButtonPressed() {
-        isRecording = !isRecording;
+        if (isRecording) {
+            model.removeListener(recorder);
+            Recorder finishedRecorder = recorder;
+            CompletableFuture.runAsync(() -> {
+                try {
+                    finishedRecorder.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+            recorder = null;
+            isRecording = false;
+        } else {
+            try {
+                recorder = createRecorder(view.getSelectedOutputFormat());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            droppedBeforeRecording = model.getComputeStats().getDropped();
+            if (recorder.isLossless())
+                model.addLosslessListener(recorder);
+            else
+                model.addListener(recorder);
+            isRecording = true;
+        }
+
         view.setRecordButtonText();
     }
 
+    /**
+     * Creates a recorder writing into the "recorded" directory in the given format.
+     * Recording files and GIFs need the generations in order, so they are written by a single encoder thread. They
+     * also need every generation, so they are lossless and slow down the simulation if the encoder falls behind.
+     *
+     * @param format format of the recorded generations
+     * @return new recorder
+     * @throws IOException if the directory or the file can't be created
+     */
+    private Recorder createRecorder(OutputFormat format) throws IOException {
+        return switch (format) {
+            case PNG -> new Recorder(new PngFrameWriter(RECORDING_PATH, cellDisplaySize), ENCODER_THREADS,
+                    ENCODER_QUEUE_CAPACITY, false);
+            case RECORDING -> {
+                Path directory = Files.createDirectories(Paths.get(RECORDING_PATH));
+                Path file = directory.resolve(System.currentTimeMillis() + ".golr");
+                yield new Recorder(new RecordingWriter(file, KEYFRAME_INTERVAL), 1, ENCODER_QUEUE_CAPACITY, true);
+            }
+            case GIF -> {
+                Path directory = Files.createDirectories(Paths.get(RECORDING_PATH));
+                Path file = directory.resolve(System.currentTimeMillis() + ".gif");
+                // the GIF plays at the set FPS, as fast as possible is played at 50 FPS
+                int delay = simulationFPS > 0 ? Math.max(1, Math.round(100f / simulationFPS)) : 2;
+                yield new Recorder(new GifFrameWriter(file, cellDisplaySize, delay,
+                        model.getCellTypes()), 1, ENCODER_QUEUE_CAPACITY, true);
+            }
+        };
+    }
+
+    /**
+     * If is not in replay mode, let the user choose a recording file and display its generations instead of computing
+     * new ones. Otherwise stop the replay and continue the simulation.
+     */
+    public void replayButtonPressed() {
+        if (isReplayMode) {
+            stopReplay();
+            view.setText();
+            return;
+        }
+
+        File file = view.chooseRecording(RECORDING_PATH);
+        if (file == null)
+            return;
+
+        try {
+            replay = new RecordingReader(file.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (replay.getWidth() != view.getWidthCells() || replay.getHeight() != view.getHeightCells()) {
+            System.err.println("recording has a different board size: " + replay.getWidth() + " x "
+                    + replay.getHeight());
+            stopReplay();
+            return;
+        }
+
+        if (isPaintMode)
+            paintButtonPressed();
+        scheduler.pause();
+        isReplayMode = true;
+        nextReplayTime = System.nanoTime();
+        view.setReplayRange(replay.getFirstGeneration(), replay.getLastGeneration());
+        view.setText();
+    }
+
+    /**
+     * Closes the recording file and continues the simulation unless paint mode is active.
+     */
+    private void stopReplay() {
+        try {
+            replay.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        replay = null;
+
+        if (isReplayMode) {
+            isReplayMode = false;
+            if (!isPaintMode)
+                scheduler.resume();
+        }
+    }
+
+    /**
+     * Displays the next generation of the recording if it is due according to the simulation FPS.
+     * The last generation stays displayed when the end of the recording is reached.
+     */
+    private void replayNextGeneration() {
+        long now = System.nanoTime();
+        if (now < nextReplayTime)
+            return;
+        nextReplayTime = simulationFPS > 0 ? now + 1_000_000_000L / simulationFPS : now;
+
+        try {
+            BoardSnapshot board = replay.next();
+            if (board != null) {
+                view.updateBoard(board);
+                view.setReplayPosition(board.getGeneration());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            stopReplay();
+            view.setText();
+        }
+    }
+
+    /**
+     * Gets called when the user moves the replay slider, displays the closest recorded generation.
+     *
+     * @param generation selected generation
+     */
+    public void replaySliderMoved(long generation) {
+        if (!isReplayMode)
+            return;
+
+        try {
+            view.updateBoard(replay.seek(generation));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lets the user choose a file and saves the board of the simulation into it on a background thread, so the
+     * simulation continues while the file is written. During a replay the paused simulation gets saved.
+     */
+    public void saveButtonPressed() {
+        File file = view.chooseBoardFile(SAVE_PATH, true);
+        if (file == null)
+            return;
+
+        BoardSnapshot board = isPaintMode ? model.getBoard() : model.getLatestBoard();
+        int cellTypes = model.getCellTypes();
+        CompletableFuture.runAsync(() -> {
+            try {
+                BoardFile.write(file.toPath(), board, cellTypes);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Lets the user choose a saved board and replaces the current board by it. Stops the replay if it is running.
+     */
+    public void loadButtonPressed() {
+        File file = view.chooseBoardFile(SAVE_PATH, false);
+        if (file == null)
+            return;
+
+        BoardFile saved;
+        try {
+            saved = BoardFile.read(file.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (saved.getBoard().getWidth() != view.getWidthCells()
+                || saved.getBoard().getHeight() != view.getHeightCells()) {
+            System.err.println("saved board has a different size: " + saved.getBoard().getWidth() + " x "
+                    + saved.getBoard().getHeight());
+            return;
+        }
+
+        if (isReplayMode) {
+            stopReplay();
+            view.setText();
+        }
+        model.load(saved);
+        view.setCellTypes(model.getCellTypes());
+        lastGeneration = model.getGeneration();
+        view.updateBoard(model.getBoard());
+    }
+
+    /**
+     * Lets the user choose a pattern file and stamps it onto the board with its top left corner, or its origin for
+     * Life 1.06, at the cell shown in the top left corner of the board. In paint mode all cells get the selected type,
+     * otherwise the pattern keeps its types. The file is read on a background thread, so large pattern collections
+     * don't block the window.
+     * Stops the replay if it is running.
+     */
+    public void importButtonPressed() {
+        File file = view.choosePatternFile(PATTERN_PATH, false);
+        if (file == null)
+            return;
+
+        if (isReplayMode) {
+            stopReplay();
+            view.setText();
+        }
+        int offsetX = view.getCellX(0);
+        int offsetY = view.getCellY(0);
+        int type = isPaintMode ? view.getSelectedPaintType() : 0;
+        CompletableFuture.runAsync(() -> {
+            try {
+                model.importPattern(file.toPath(), offsetX, offsetY, type);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Lets the user choose a file and writes the board into it as run length encoded pattern on a background thread.
+     * During a replay the paused simulation gets exported.
+     */
+    public void exportButtonPressed() {
+        File file = view.choosePatternFile(PATTERN_PATH, true);
+        if (file == null)
+            return;
+
+        BoardSnapshot board = isPaintMode ? model.getBoard() : model.getLatestBoard();
+        Rule rule = model.getRule();
+        CompletableFuture.runAsync(() -> {
+            try {
+                PatternWriter.writeRle(file.toPath(), board, rule);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Calls <code>Model</code> to use the rule entered or selected by the user. An invalid rule is reported and the
+     * current rule is shown again.
+     *
+     * @param text name of a preset or rulestring like <code>B36/S23</code>
+     */
+    public void ruleChanged(String text) {
+        try {
+            model.setRule(Rule.parse(text));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+        view.setRule(model.getRule());
+    }
+
+    /**
+     * Returns the boolean that states if program is in replay mode.
+     *
+     * @return if program is in replay mode
+     */
+    public boolean isReplayMode() {
+        return isReplayMode;
+    }
+
     /**
      * Returns the boolean that states if program is in recorc mode.
      *
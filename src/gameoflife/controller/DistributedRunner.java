@@ -0,0 +1,357 @@
+package gameoflife.controller;
+
+import gameoflife.model.BoardFile;
+import gameoflife.model.BoardSnapshot;
+import gameoflife.model.Engine;
+import gameoflife.model.EngineType;
+import gameoflife.model.PatternReader;
+import gameoflife.model.Rule;
+import gameoflife.model.Simulation;
+import gameoflife.model.StripCoordinator;
+import gameoflife.model.WorkerStats;
+import gameoflife.view.FrameWindow;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a given amount of generations of a board split into strips across several worker processes.
+ * The workers are started as JVMs on the same machine and connect over loopback, or are started by hand with
+ * <code>--worker</code> if <code>--spawn off</code> is given. The board is populated at random, or a saved board or a
+ * pattern is read by the coordinator and split into strips. Downsampled frames of the whole board can be shown in a
+ * window while computing. At the end, statistics about the final board, the achieved speed and the tick and halo
+ * exchange latencies of every worker are printed.
+ */
+public class DistributedRunner {
+    private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+    private static final long MANUAL_CONNECT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private int width;
+    private int height;
+    private long generations;
+    private double density;
+    private Rule rule;
+    private int cellTypes;
+    private Long seed;
+    private int workers;
+    private int port;
+    private boolean isSpawning;
+    private String workerHeap;
+    private int workerTimeout;
+    private long frameInterval;
+    private int downsample;
+    private boolean isWindowShown;
+    private int cellDisplaySize;
+    private String loadPath;
+    private String patternPath;
+    private int patternX;
+    private int patternY;
+    private int patternType;
+
+    /**
+     * Creates a new <code>DistributedRunner</code> with default settings.
+     */
+    public DistributedRunner() {
+        width = 1024;
+        height = 1024;
+        generations = 1000;
+        density = 0.05;
+        rule = Rule.CONWAY;
+        cellTypes = Simulation.DEFAULT_CELL_TYPES;
+        workers = 2;
+        port = 0;
+        isSpawning = true;
+        workerTimeout = 600;
+        frameInterval = 0;
+        downsample = 1;
+        cellDisplaySize = 1;
+    }
+
+    /**
+     * Returns the text describing the command line options.
+     *
+     * @return usage text
+     */
+    public static String getUsage() {
+        return String.join(System.lineSeparator(),
+                "Usage: java -jar GameOfLife.jar --distributed [options]",
+                "  --width <cells>          length of x-axis of board (default 1024)",
+                "  --height <cells>         length of y-axis of board (default 1024)",
+                "  --generations <amount>   amount of generations to compute (default 1000)",
+                "  --density <share>        share of cells populated at the start (default 0.05)",
+                "  --types <amount>         live cell types, 1 to 255 (default 5)",
+                "  --rule <rule>            rulestring like B36/S23 or name like HighLife (default B3/S23)",
+                "  --seed <number>          seed of all random numbers, equal seeds give equal runs (default: random)",
+                "  --workers <amount>       amount of worker processes, each computes a strip of rows (default 2)",
+                "  --port <port>            port of the coordinator on loopback, 0 chooses a free port (default 0)",
+                "  --spawn <on|off>         start the workers as JVMs on this machine (default on)",
+                "  --worker-heap <size>     maximum heap of a started worker, like 2g (default: JVM default)",
+                "  --worker-timeout <s>     seconds to wait for a worker to finish a batch, 0 waits forever"
+                        + " (default 600)",
+                "  --frame-every <n>        gather a frame every n generations, 0 only at the end (default 0)",
+                "  --downsample <factor>    combine squares of factor x factor cells into one cell of a frame"
+                        + " (default 1)",
+                "  --window                 show the frames in a window",
+                "  --cell-size <pixels>     size of a cell of a frame in the window (default 1)",
+                "  --load <file>            start with a saved board instead of a random one",
+                "  --pattern <file>         start with an RLE, .cells or Life 1.06 pattern instead of a random board",
+                "  --pattern-at <x>,<y>     position of the top left corner of the pattern, of its origin for"
+                        + " Life 1.06 (default 0,0)",
+                "  --pattern-type <type>    type of all cells of the pattern, 0 keeps its types (default 0)",
+                "Workers started by hand: java -cp GameOfLife.jar gameoflife.controller.Runner --worker <host>:<port>");
+    }
+
+    /**
+     * Reads the settings from the command line options.
+     *
+     * @param args command line options, the option <code>--distributed</code> is ignored
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    public void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--distributed"))
+                continue;
+            if (option.equals("--window")) {
+                isWindowShown = true;
+                continue;
+            }
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("missing value for " + option);
+
+            String value = args[++i];
+            switch (option) {
+                case "--width" -> width = HeadlessRunner.parsePositive(option, value);
+                case "--height" -> height = HeadlessRunner.parsePositive(option, value);
+                case "--generations" -> generations = Long.parseLong(value);
+                case "--density" -> density = Double.parseDouble(value);
+                case "--types" -> cellTypes = HeadlessRunner.parsePositive(option, value);
+                case "--rule" -> rule = Rule.parse(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--workers" -> workers = HeadlessRunner.parsePositive(option, value);
+                case "--port" -> port = Integer.parseInt(value);
+                case "--spawn" -> isSpawning = HeadlessRunner.parseSwitch(option, value);
+                case "--worker-heap" -> workerHeap = value;
+                case "--worker-timeout" -> workerTimeout = Integer.parseInt(value);
+                case "--frame-every" -> frameInterval = Long.parseLong(value);
+                case "--downsample" -> downsample = HeadlessRunner.parsePositive(option, value);
+                case "--cell-size" -> cellDisplaySize = HeadlessRunner.parsePositive(option, value);
+                case "--load" -> loadPath = value;
+                case "--pattern" -> patternPath = value;
+                case "--pattern-at" -> {
+                    int[] position = HeadlessRunner.parsePosition(option, value);
+                    patternX = position[0];
+                    patternY = position[1];
+                }
+                case "--pattern-type" -> patternType = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+
+        if (generations < 0 || density < 0 || density > 1 || frameInterval < 0 || port < 0 || port > 65535
+                || cellTypes > Simulation.MAX_CELL_TYPES || workerTimeout < 0 || workerTimeout > 2_000_000
+                || patternType < 0)
+            throw new IllegalArgumentException("generations, density, frame interval, port, types, worker timeout "
+                    + "or pattern type out of range");
+        if (loadPath == null && height / downsample < workers)
+            throw new IllegalArgumentException("--height must be at least --workers times --downsample");
+    }
+
+    /**
+     * Returns if the frames are shown in a window, which needs a display.
+     *
+     * @return true if a window is shown
+     */
+    public boolean isWindowShown() {
+        return isWindowShown;
+    }
+
+    /**
+     * Starts the workers, computes all generations and prints the statistics. The workers are stopped at the end.
+     *
+     * @throws IOException if the workers can't be started or a connection fails
+     */
+    public void run() throws IOException {
+        long seed = this.seed != null ? this.seed : new SplittableRandom().nextLong();
+        BoardSnapshot board = readBoard();
+        StripCoordinator coordinator = new StripCoordinator(width, height, cellTypes, rule, workers, downsample);
+        if (board != null)
+            coordinator.setBoard(board);
+        coordinator.setReadTimeout((int) TimeUnit.SECONDS.toMillis(workerTimeout));
+        List<Process> processes = new ArrayList<>();
+
+        try {
+            InetSocketAddress address = coordinator.listen(port);
+            String workerAddress = address.getHostString() + ":" + address.getPort();
+            if (isSpawning)
+                for (int worker = 0; worker < workers; worker++)
+                    processes.add(startWorker(workerAddress));
+            else
+                System.out.println("waiting for " + workers + " workers on " + workerAddress);
+
+            coordinator.connectWorkers(seed, density, isSpawning ? CONNECT_TIMEOUT : MANUAL_CONNECT_TIMEOUT);
+
+            FrameWindow window = null;
+            if (isWindowShown) {
+                window = new FrameWindow("Game Of Life", coordinator.getFrameWidth(), coordinator.getFrameHeight(),
+                        cellDisplaySize);
+                coordinator.addListener(window::updateBoard);
+            }
+
+            long computeTime = compute(coordinator, window);
+            printStatistics(coordinator, computeTime);
+        } finally {
+            coordinator.close();
+            stopWorkers(processes);
+        }
+    }
+
+    /**
+     * Reads the saved board or the pattern the workers start with. A saved board sets the size of the board and
+     * raises the amount of live cell types to the types it was saved with.
+     *
+     * @return board to split into strips, null if the board is populated at random
+     * @throws IOException if the file can't be read or isn't a saved board or pattern
+     */
+    private BoardSnapshot readBoard() throws IOException {
+        if (loadPath != null) {
+            BoardFile file = BoardFile.read(Paths.get(loadPath));
+            width = file.getBoard().getWidth();
+            height = file.getBoard().getHeight();
+            cellTypes = Math.max(cellTypes, Math.min(file.getCellTypes(), Simulation.MAX_CELL_TYPES));
+            return file.getBoard();
+        }
+
+        if (patternPath == null)
+            return null;
+
+        // the sparse engine only stores the cells of the pattern until the board is split, cells beyond the borders
+        // wrap around the torus like in Model.importPattern()
+        Engine engine = EngineType.SPARSE.create(width, height, cellTypes);
+        PatternReader.read(Paths.get(patternPath), (x, y, type) -> engine.setCell(
+                Math.floorMod((long) patternX + x, width), Math.floorMod((long) patternY + y, height),
+                patternType > 0 ? patternType : Math.min(type, cellTypes)));
+        return engine.getBoard();
+    }
+
+    /**
+     * Starts a worker JVM with the class path of this JVM, its output goes to the output of this JVM. The worker gets
+     * the Vector API if this JVM has it.
+     *
+     * @param address address of the coordinator as <code>host:port</code>
+     * @return process of the worker
+     * @throws IOException if the JVM can't be started
+     */
+    private Process startWorker(String address) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (workerHeap != null)
+            command.add("-Xmx" + workerHeap);
+        if (Simulation.isVectorAvailable())
+            command.add("--add-modules=jdk.incubator.vector");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Runner.class.getName());
+        command.add("--worker");
+        command.add(address);
+
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    /**
+     * Waits a few seconds for the workers to end after they got stopped, workers which don't end get killed.
+     *
+     * @param processes processes of the workers
+     */
+    private static void stopWorkers(List<Process> processes) {
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS))
+                    process.destroy();
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Computes all generations in batches between the frames. The last batch always gathers a frame, which also
+     * counts the live cells.
+     *
+     * @param coordinator coordinator of the workers
+     * @param window      window showing the frames, null if no window is shown
+     * @return time spent computing generations and gathering frames in nanoseconds
+     * @throws IOException if a connection fails
+     */
+    private long compute(StripCoordinator coordinator, FrameWindow window) throws IOException {
+        long start = System.nanoTime();
+        if (generations == 0)
+            coordinator.run(0, true);
+
+        for (long generation = 0; generation < generations; ) {
+            long batch = frameInterval > 0 ? Math.min(frameInterval, generations - generation)
+                    : generations - generation;
+            batch = Math.min(batch, Integer.MAX_VALUE);
+            generation += batch;
+
+            boolean isFrameRequested = frameInterval > 0 || generation == generations;
+            coordinator.run((int) batch, isFrameRequested);
+            if (window != null && isFrameRequested)
+                window.setStatus(getStatus(coordinator));
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Returns the generation, the live cells and the slowest worker as status text of the window.
+     *
+     * @param coordinator coordinator of the workers
+     * @return status text
+     */
+    private static String getStatus(StripCoordinator coordinator) {
+        double maxTick = 0;
+        double maxExchange = 0;
+        for (WorkerStats stats : coordinator.getWorkerStats()) {
+            maxTick = Math.max(maxTick, stats.getMeanTickNanos());
+            maxExchange = Math.max(maxExchange, stats.getMeanExchangeNanos());
+        }
+
+        return String.format(Locale.ROOT, "generation %d, live cells %d, slowest worker: tick %.3f ms, "
+                + "exchange %.3f ms", coordinator.getGeneration(), coordinator.getLiveCells(), maxTick / 1e6,
+                maxExchange / 1e6);
+    }
+
+    /**
+     * Prints the amount of live cells, the achieved generations and cells per second and the latencies of every
+     * worker.
+     *
+     * @param coordinator coordinator of the workers
+     * @param computeTime time spent computing generations in nanoseconds
+     */
+    private void printStatistics(StripCoordinator coordinator, long computeTime) {
+        double seconds = computeTime / 1e9;
+        double generationsPerSecond = seconds > 0 ? generations / seconds : 0;
+
+        System.out.printf(Locale.ROOT, "board:                 %d x %d (%d workers, %s)%n", width, height, workers,
+                rule);
+        System.out.printf(Locale.ROOT, "generations:           %d%n", coordinator.getGeneration());
+        System.out.printf(Locale.ROOT, "live cells:            %d%n", coordinator.getLiveCells());
+        System.out.printf(Locale.ROOT, "time:                  %.3f s%n", seconds);
+        System.out.printf(Locale.ROOT, "generations/second:    %.1f%n", generationsPerSecond);
+        System.out.printf(Locale.ROOT, "cells/second:          %.4g%n", generationsPerSecond * width * height);
+        System.out.printf(Locale.ROOT, "worker  rows                  tick mean / max (ms)    "
+                + "exchange mean / max (ms)%n");
+        for (WorkerStats stats : coordinator.getWorkerStats())
+            System.out.printf(Locale.ROOT, "  %-4d  %-20s  %9.3f / %-9.3f     %9.3f / %.3f%n", stats.getIndex(),
+                    stats.getFirstRow() + "-" + (stats.getEndRow() - 1), stats.getMeanTickNanos() / 1e6,
+                    stats.getMaxTickNanos() / 1e6, stats.getMeanExchangeNanos() / 1e6,
+                    stats.getMaxExchangeNanos() / 1e6);
+    }
+}
@@ -0,0 +1,242 @@
+package gameoflife.controller;
+
+import gameoflife.model.BoardSnapshot;
+import gameoflife.model.FrameWriter;
+import gameoflife.view.ColorBox;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams generations into an animated GIF which loops forever.
+ * Frames use the colours of <code>ColorBox</code> as palette with one entry per cell type, the index of a pixel is the
+ * type of its cell. Each frame only contains the rectangle of cells which changed since the previous frame, unchanged
+ * generations extend the display time of the previous frame.
+ * <p>
+ * Frames are written to the file as soon as the next changed generation arrives, so memory doesn't grow with the
+ * amount of generations. Generations have to be written in order, so the writer must only be used by one thread at a
+ * time.
+ */
+public class GifFrameWriter implements FrameWriter {
+    private static final String METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+    private final ImageOutputStream output;
+    private final ImageWriter writer;
+    private final IndexColorModel colorModel;
+    private final int cellDisplaySize;
+    private final int delay;
+    private int width;
+    private int height;
+    private byte[] previousCells;
+    private BufferedImage pendingImage;
+    private int pendingX;
+    private int pendingY;
+    private int pendingDelay;
+    private boolean isFirstFrameWritten;
+
+    /**
+     * Creates a new GIF file, an existing file gets replaced.
+     *
+     * @param path            path of the file
+     * @param cellDisplaySize size of a cell in pixels
+     * @param delay           display time of a generation in hundredths of a second
+     * @param cellTypes       amount of live cell types, the palette has one more entry for dead cells
+     * @throws IOException if the file can't be created
+     */
+    public GifFrameWriter(Path path, int cellDisplaySize, int delay, int cellTypes) throws IOException {
+        this.cellDisplaySize = cellDisplaySize;
+        this.delay = Math.max(1, delay);
+        colorModel = createColorModel(Math.min(255, cellTypes));
+        writer = ImageIO.getImageWritersByFormatName("gif").next();
+        Files.deleteIfExists(path);
+        output = ImageIO.createImageOutputStream(path.toFile());
+        if (output == null)
+            throw new IOException("can't create " + path);
+        writer.setOutput(output);
+        writer.prepareWriteSequence(null);
+    }
+
+    /**
+     * Creates the palette from the colours of <code>ColorBox</code>.
+     *
+     * @param cellTypes amount of live cell types
+     * @return colour model with one entry per cell type
+     */
+    private static IndexColorModel createColorModel(int cellTypes) {
+        int colors = cellTypes + 1;
+        byte[] red = new byte[colors];
+        byte[] green = new byte[colors];
+        byte[] blue = new byte[colors];
+        for (int i = 0; i < colors; i++) {
+            Color color = ColorBox.getColor(i);
+            red[i] = (byte) color.getRed();
+            green[i] = (byte) color.getGreen();
+            blue[i] = (byte) color.getBlue();
+        }
+
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(colors - 1));
+        return new IndexColorModel(bits, colors, red, green, blue);
+    }
+
+    /**
+     * Adds a generation. The first generation also sets the size of the image, all further generations must have the
+     * same size.
+     *
+     * @param board snapshot of the generation
+     * @throws IOException if the previous frame can't be written
+     */
+    @Override
+    public void write(BoardSnapshot board) throws IOException {
+        if (previousCells == null) {
+            width = board.getWidth();
+            height = board.getHeight();
+            previousCells = new byte[width * height];
+        } else if (board.getWidth() != width || board.getHeight() != height)
+            throw new IOException("size of the board changed while recording");
+
+        // bounding box of the changed cells, the first frame always covers the whole board
+        int startX = 0;
+        int startY = 0;
+        int endX = width;
+        int endY = height;
+        if (pendingImage != null || isFirstFrameWritten) {
+            startX = width;
+            startY = height;
+            endX = 0;
+            endY = 0;
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    if (toIndex(board.getCell(x, y)) != previousCells[y * width + x]) {
+                        startX = Math.min(startX, x);
+                        endX = Math.max(endX, x + 1);
+                        startY = Math.min(startY, y);
+                        endY = y + 1;
+                    }
+
+            if (startX >= endX) {
+                pendingDelay += delay;
+                return;
+            }
+        }
+
+        writePending();
+        pendingImage = render(board, startX, startY, endX, endY);
+        pendingX = startX * cellDisplaySize;
+        pendingY = startY * cellDisplaySize;
+        pendingDelay = delay;
+    }
+
+    /**
+     * Returns the palette index of a cell type, types without colour are displayed as dead cells.
+     *
+     * @param type type of the cell
+     * @return index in the palette
+     */
+    private byte toIndex(int type) {
+        return (byte) (type < colorModel.getMapSize() ? type : 0);
+    }
+
+    /**
+     * Renders the given rectangle of cells into an indexed image and remembers the cells as displayed.
+     *
+     * @param board  board to render
+     * @param startX first column
+     * @param startY first row
+     * @param endX   column behind the last column
+     * @param endY   row behind the last row
+     * @return rendered image
+     */
+    private BufferedImage render(BoardSnapshot board, int startX, int startY, int endX, int endY) {
+        int imageWidth = (endX - startX) * cellDisplaySize;
+        BufferedImage image = new BufferedImage(imageWidth, (endY - startY) * cellDisplaySize,
+                BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+        for (int y = startY; y < endY; y++)
+            for (int x = startX; x < endX; x++) {
+                byte index = toIndex(board.getCell(x, y));
+                previousCells[y * width + x] = index;
+
+                int firstPixelY = (y - startY) * cellDisplaySize;
+                for (int pixelY = firstPixelY; pixelY < firstPixelY + cellDisplaySize; pixelY++) {
+                    int offset = pixelY * imageWidth + (x - startX) * cellDisplaySize;
+                    for (int pixelX = 0; pixelX < cellDisplaySize; pixelX++)
+                        pixels[offset + pixelX] = index;
+                }
+            }
+
+        return image;
+    }
+
+    /**
+     * Writes the frame which waits for its final display time.
+     *
+     * @throws IOException if the frame can't be written
+     */
+    private void writePending() throws IOException {
+        if (pendingImage == null)
+            return;
+
+        IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(pendingImage), null);
+        IIOMetadataNode root = new IIOMetadataNode(METADATA_FORMAT);
+
+        IIOMetadataNode descriptor = new IIOMetadataNode("ImageDescriptor");
+        descriptor.setAttribute("imageLeftPosition", String.valueOf(pendingX));
+        descriptor.setAttribute("imageTopPosition", String.valueOf(pendingY));
+        descriptor.setAttribute("imageWidth", String.valueOf(pendingImage.getWidth()));
+        descriptor.setAttribute("imageHeight", String.valueOf(pendingImage.getHeight()));
+        descriptor.setAttribute("interlaceFlag", "FALSE");
+        root.appendChild(descriptor);
+
+        // the GIF format stores the display time in 16 bits
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "doNotDispose");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(Math.min(0xFFFF, pendingDelay)));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        if (!isFirstFrameWritten) {
+            IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{1, 0, 0});
+            extensions.appendChild(loop);
+            root.appendChild(extensions);
+        }
+
+        metadata.mergeTree(METADATA_FORMAT, root);
+        writer.writeToSequence(new IIOImage(pendingImage, null, metadata), null);
+        pendingImage = null;
+        isFirstFrameWritten = true;
+    }
+
+    /**
+     * Writes the last frame and finishes the file.
+     *
+     * @throws IOException if the file can't be finished
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writePending();
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package gameoflife.controller;
+
+import gameoflife.model.BoardFile;
+import gameoflife.model.BoardSnapshot;
+import gameoflife.model.Checkpointer;
+import gameoflife.model.EngineType;
+import gameoflife.model.Model;
+import gameoflife.model.PatternWriter;
+import gameoflife.model.Rule;
+import gameoflife.model.Simulation;
+import gameoflife.view.BoardImage;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Runs a given amount of generations as fast as possible without a window, for example on servers without a display.
+ * The board gets seeded randomly, loaded from a saved board or stamped from a pattern file, optionally snapshots are
+ * written as PNG images and all generations are streamed into an animated GIF. Checkpoints of the board can be saved
+ * in the background while computing. At the end, statistics about the final board and the achieved speed are printed
+ * and the board can be exported as pattern.
+ */
+public class HeadlessRunner {
+    private int width;
+    private int height;
+    private long generations;
+    private double density;
+    private EngineType engineType;
+    private int threads;
+    private int tileSize;
+    private long snapshotInterval;
+    private String outputPath;
+    private int cellDisplaySize;
+    private String gifPath;
+    private int gifDelay;
+    private String loadPath;
+    private String checkpointPath;
+    private long checkpointInterval;
+    private String patternPath;
+    private int patternX;
+    private int patternY;
+    private int patternType;
+    private String exportPath;
+    private Long seed;
+    private Rule rule;
+    private int cellTypes;
+    private boolean vectorized;
+    private int stepExponent;
+
+    /**
+     * Creates a new <code>HeadlessRunner</code> with the default settings of the application.
+     */
+    public HeadlessRunner() {
+        width = 140;
+        height = 100;
+        generations = 1000;
+        density = 0.05;
+        engineType = EngineType.MULTI_TYPE;
+        threads = Runtime.getRuntime().availableProcessors();
+        tileSize = 64;
+        snapshotInterval = 0;
+        outputPath = "headless/";
+        cellDisplaySize = 1;
+        gifDelay = 5;
+        rule = Rule.CONWAY;
+        cellTypes = Simulation.DEFAULT_CELL_TYPES;
+        vectorized = true;
+    }
+
+    /**
+     * Returns the text describing the command line options.
+     *
+     * @return usage text
+     */
+    public static String getUsage() {
+        return String.join(System.lineSeparator(),
+                "Usage: java -jar GameOfLife.jar --headless [options]",
+                "  --width <cells>          length of x-axis of board (default 140)",
+                "  --height <cells>         length of y-axis of board (default 100)",
+                "  --generations <amount>   amount of generations to compute (default 1000)",
+                "  --density <share>        share of cells populated at the start (default 0.05)",
+                "  --engine <type>          MULTI_TYPE, BINARY, HASHLIFE or SPARSE (default MULTI_TYPE)",
+                "  --types <amount>         live cell types of MULTI_TYPE and SPARSE, 1 to 255 (default 5)",
+                "  --rule <rule>            rulestring like B36/S23 or name like HighLife (default B3/S23)",
+                "  --threads <amount>       worker threads of MULTI_TYPE (default: available processors)",
+                "  --tile-size <cells>      tile size of MULTI_TYPE (default 64)",
+                "  --vector <on|off>        Vector API kernel of MULTI_TYPE, needs --add-modules jdk.incubator.vector"
+                        + " (default on)",
+                "  --step-exponent <k>      advance HASHLIFE by up to 2^k generations at once, 0 to 62 (default 0)",
+                "  --snapshot-every <n>     write a PNG every n generations, 0 disables snapshots (default 0)",
+                "  --output <path>          directory of the snapshots (default headless/)",
+                "  --cell-size <pixels>     size of a cell in the snapshots and the GIF (default 1)",
+                "  --gif <file>             stream every generation into an animated GIF",
+                "  --gif-delay <n>          display time of a generation in the GIF in 1/100 s (default 5)",
+                "  --load <file>            start with a saved board instead of a random one",
+                "  --checkpoint <file>      save the board into this file at the end and every checkpoint interval",
+                "  --checkpoint-every <n>   save a checkpoint every n generations, 0 only at the end (default 0)",
+                "  --pattern <file>         start with an RLE, .cells or Life 1.06 pattern instead of a random board",
+                "  --pattern-at <x>,<y>     position of the top left corner of the pattern, of its origin for"
+                        + " Life 1.06 (default 0,0)",
+                "  --pattern-type <type>    type of all cells of the pattern, 0 keeps its types (default 0)",
+                "  --export <file>          write the final board as RLE pattern",
+                "  --seed <number>          seed of all random numbers, equal seeds give equal runs (default: random)");
+    }
+
+    /**
+     * Reads the settings from the command line options.
+     *
+     * @param args command line options, the option <code>--headless</code> is ignored
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    public void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--headless"))
+                continue;
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("missing value for " + option);
+
+            String value = args[++i];
+            switch (option) {
+                case "--width" -> width = parsePositive(option, value);
+                case "--height" -> height = parsePositive(option, value);
+                case "--generations" -> generations = Long.parseLong(value);
+                case "--density" -> density = Double.parseDouble(value);
+                case "--engine" -> engineType = EngineType.valueOf(value.toUpperCase(Locale.ROOT));
+                case "--rule" -> rule = Rule.parse(value);
+                case "--types" -> cellTypes = parsePositive(option, value);
+                case "--threads" -> threads = parsePositive(option, value);
+                case "--tile-size" -> tileSize = parsePositive(option, value);
+                case "--vector" -> vectorized = parseSwitch(option, value);
+                case "--step-exponent" -> stepExponent = Integer.parseInt(value);
+                case "--snapshot-every" -> snapshotInterval = Long.parseLong(value);
+                case "--output" -> outputPath = value.endsWith("/") ? value : value + "/";
+                case "--cell-size" -> cellDisplaySize = parsePositive(option, value);
+                case "--gif" -> gifPath = value;
+                case "--gif-delay" -> gifDelay = parsePositive(option, value);
+                case "--load" -> loadPath = value;
+                case "--checkpoint" -> checkpointPath = value;
+                case "--checkpoint-every" -> checkpointInterval = Long.parseLong(value);
+                case "--pattern" -> patternPath = value;
+                case "--pattern-at" -> {
+                    int[] position = parsePosition(option, value);
+                    patternX = position[0];
+                    patternY = position[1];
+                }
+                case "--pattern-type" -> patternType = Integer.parseInt(value);
+                case "--export" -> exportPath = value;
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+
+        if (generations < 0 || density < 0 || density > 1 || snapshotInterval < 0 || checkpointInterval < 0
+                || patternType < 0 || cellTypes > Simulation.MAX_CELL_TYPES || stepExponent < 0 || stepExponent > 62)
+            throw new IllegalArgumentException("generations, density, interval, pattern type, types or step exponent"
+                    + " out of range");
+        if (rule.isBorn(0) && (engineType == EngineType.HASHLIFE || engineType == EngineType.SPARSE))
+            throw new IllegalArgumentException("rules with B0 need the engine MULTI_TYPE or BINARY");
+    }
+
+    /**
+     * Parses the position of the pattern, given as x- and y-coordinate separated by a comma.
+     *
+     * @param option name of the option
+     * @param value  value of the option
+     * @return x- and y-coordinate
+     */
+    static int[] parsePosition(String option, String value) {
+        int comma = value.indexOf(',');
+        if (comma < 0)
+            throw new IllegalArgumentException(option + " needs <x>,<y>");
+        return new int[]{Integer.parseInt(value.substring(0, comma).trim()),
+                Integer.parseInt(value.substring(comma + 1).trim())};
+    }
+
+    /**
+     * Parses a value which has to be <code>on</code> or <code>off</code>.
+     *
+     * @param option name of the option
+     * @param value  value of the option
+     * @return true for <code>on</code>
+     */
+    static boolean parseSwitch(String option, String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "on" -> true;
+            case "off" -> false;
+            default -> throw new IllegalArgumentException(option + " must be on or off");
+        };
+    }
+
+    /**
+     * Parses a value which has to be at least 1.
+     *
+     * @param option name of the option
+     * @param value  value of the option
+     * @return parsed value
+     */
+    static int parsePositive(String option, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < 1)
+            throw new IllegalArgumentException(option + " must be at least 1");
+        return parsed;
+    }
+
+    /**
+     * Seeds the board, computes all generations and prints the statistics.
+     * Time spent for writing snapshots and the GIF isn't included in the measured speed.
+     *
+     * @throws IOException if a snapshot, the GIF or the pattern can't be read or written
+     */
+    public void run() throws IOException {
+        BoardFile file = null;
+        if (loadPath != null) {
+            file = BoardFile.read(Paths.get(loadPath));
+            width = file.getBoard().getWidth();
+            height = file.getBoard().getHeight();
+        }
+
+        Model model = new Model(width, height, cellTypes);
+        model.setRule(rule);
+        model.setEngine(engineType);
+        model.setParallelism(threads, tileSize);
+        model.setVectorized(vectorized);
+        if (seed != null)
+            model.setSeed(seed);
+
+        if (file != null)
+            model.load(file);
+        else if (patternPath != null)
+            model.importPattern(Paths.get(patternPath), patternX, patternY, patternType);
+        else
+            model.populate((int) Math.min(Integer.MAX_VALUE, Math.round((double) width * height * density)));
+
+        GifFrameWriter gif = gifPath != null ? new GifFrameWriter(Paths.get(gifPath), cellDisplaySize, gifDelay,
+                model.getCellTypes()) : null;
+        Checkpointer checkpointer = checkpointPath != null ? new Checkpointer(Paths.get(checkpointPath)) : null;
+        try {
+            long computeTime = compute(model, gif, checkpointer);
+            BoardSnapshot board = model.getBoard();
+            if (checkpointer != null)
+                checkpointer.submit(board, model.getCellTypes());
+            printStatistics(board, computeTime, model.isVectorized());
+            if (exportPath != null)
+                PatternWriter.writeRle(Paths.get(exportPath), board, rule);
+        } finally {
+            if (gif != null)
+                gif.close();
+            if (checkpointer != null)
+                checkpointer.close();
+        }
+    }
+
+    /**
+     * Computes all generations, writes the snapshots, adds every generation to the GIF and hands over checkpoints.
+     * Checkpoints are written on their own thread, computing only waits for the copy of the board.
+     *
+     * @param model        model to compute
+     * @param gif          writer of the GIF, null if no GIF is written
+     * @param checkpointer writer of the checkpoints, null if no checkpoints are saved
+     * @return time spent computing generations in nanoseconds
+     * @throws IOException if a snapshot or the GIF can't be written
+     */
+    private long compute(Model model, GifFrameWriter gif, Checkpointer checkpointer) throws IOException {
+        if (snapshotInterval > 0)
+            writeSnapshot(model.getBoard());
+        if (gif != null)
+            gif.write(model.getBoard());
+
+        long computeTime = 0;
+        for (long generation = 0; generation < generations; ) {
+            // run until the next generation which has to be written
+            long batch = gif != null ? 1 : generations - generation;
+            if (snapshotInterval > 0)
+                batch = Math.min(batch, snapshotInterval - generation % snapshotInterval);
+            if (checkpointer != null && checkpointInterval > 0)
+                batch = Math.min(batch, checkpointInterval - generation % checkpointInterval);
+
+            long start = System.nanoTime();
+            advance(model, batch);
+            computeTime += System.nanoTime() - start;
+            generation += batch;
+
+            if (snapshotInterval > 0 && (generation % snapshotInterval == 0 || generation == generations))
+                writeSnapshot(model.getBoard());
+            if (gif != null)
+                gif.write(model.getBoard());
+            if (checkpointer != null && checkpointInterval > 0 && generation % checkpointInterval == 0
+                    && generation < generations)
+                checkpointer.submit(model.getBoard(), model.getCellTypes());
+        }
+
+        return computeTime;
+    }
+
+    /**
+     * Advances the model by the given amount of generations in steps of at most 2^<code>stepExponent</code>
+     * generations. Every step is the largest power of 2 which doesn't pass the amount.
+     *
+     * @param model       model to compute
+     * @param generations amount of generations to advance
+     */
+    private void advance(Model model, long generations) {
+        while (generations > 0) {
+            int exponent = Math.min(stepExponent, 63 - Long.numberOfLeadingZeros(generations));
+            if (exponent == 0)
+                model.tick();
+            else
+                model.advance(exponent);
+            generations -= 1L << exponent;
+        }
+    }
+
+    /**
+     * Writes the board as PNG image into the output directory, named after its generation.
+     *
+     * @param board board to write
+     * @throws IOException if the image can't be written
+     */
+    private void writeSnapshot(BoardSnapshot board) throws IOException {
+        File directory = new File(outputPath);
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("can't create directory " + outputPath);
+
+        String filename = String.format("%010d.png", board.getGeneration());
+        ImageIO.write(BoardImage.render(board, cellDisplaySize), "PNG", new File(directory, filename));
+    }
+
+    /**
+     * Prints the amount of live cells of each type and the achieved generations and cells per second.
+     *
+     * @param board       final board
+     * @param computeTime time spent computing generations in nanoseconds
+     * @param vectorized  true if the Vector API was used
+     */
+    private void printStatistics(BoardSnapshot board, long computeTime, boolean vectorized) {
+        long[] types = new long[256];
+        for (int y = 0; y < board.getHeight(); y++)
+            for (int x = 0; x < board.getWidth(); x++)
+                types[board.getCell(x, y)]++;
+
+        long liveCells = board.getWidth() * (long) board.getHeight() - types[0];
+        double seconds = computeTime / 1e9;
+        double generationsPerSecond = seconds > 0 ? generations / seconds : 0;
+
+        System.out.printf(Locale.ROOT, "board:                 %d x %d (%s, %s)%n", width, height, engineType, rule);
+        if (engineType == EngineType.MULTI_TYPE)
+            System.out.printf(Locale.ROOT, "kernel:                %s%n", vectorized ? "Vector API" : "scalar");
+        System.out.printf(Locale.ROOT, "generations:           %d%n", board.getGeneration());
+        System.out.printf(Locale.ROOT, "live cells:            %d%n", liveCells);
+        for (int type = 1; type < types.length; type++)
+            if (types[type] > 0)
+                System.out.printf(Locale.ROOT, "  type %-3d             %d%n", type, types[type]);
+        System.out.printf(Locale.ROOT, "time:                  %.3f s%n", seconds);
+        System.out.printf(Locale.ROOT, "generations/second:    %.1f%n", generationsPerSecond);
+        System.out.printf(Locale.ROOT, "cells/second:          %.4g%n", generationsPerSecond * width * height);
+    }
+}
@@ -0,0 +1,37 @@
+package gameoflife.controller;
+
+/**
+ * Formats in which generations can be recorded.
+ */
+public enum OutputFormat {
+    /**
+     * Every generation as PNG image, written by <code>PngFrameWriter</code>.
+     */
+    PNG("PNG"),
+
+    /**
+     * All generations in one file of keyframes and deltas, written by <code>RecordingWriter</code> and replayable.
+     */
+    RECORDING("Recording"),
+
+    /**
+     * All generations as one animated GIF, written by <code>GifFrameWriter</code>.
+     */
+    GIF("GIF");
+
+    private final String label;
+
+    OutputFormat(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of the format as shown in the user interface.
+     *
+     * @return name of the format
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,44 @@
+package gameoflife.controller;
+
+import gameoflife.model.BoardSnapshot;
+import gameoflife.model.FrameWriter;
+import gameoflife.view.BoardImage;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes every generation as PNG image into a directory, named after its generation.
+ * Images are rendered from the snapshots, so the window doesn't need to be visible. Can be used by several encoder
+ * threads at once.
+ */
+public class PngFrameWriter implements FrameWriter {
+    private final File directory;
+    private final int cellDisplaySize;
+
+    /**
+     * Creates a new writer, the directory gets created if it doesn't exist.
+     *
+     * @param path            directory of the images
+     * @param cellDisplaySize size of a cell in pixels
+     * @throws IOException if the directory can't be created
+     */
+    public PngFrameWriter(String path, int cellDisplaySize) throws IOException {
+        directory = new File(path);
+        this.cellDisplaySize = cellDisplaySize;
+
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("can't create directory " + path);
+    }
+
+    @Override
+    public void write(BoardSnapshot board) throws IOException {
+        String filename = String.format("%010d.png", board.getGeneration());
+        ImageIO.write(BoardImage.render(board, cellDisplaySize), "PNG", new File(directory, filename));
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,144 @@
+package gameoflife.controller;
+
+import gameoflife.model.Board;
+import gameoflife.model.BoardListener;
+import gameoflife.model.BoardSnapshot;
+import gameoflife.model.FrameWriter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records generations by handing them to a <code>FrameWriter</code> on a pool of background encoder threads.
+ * Is registered as listener of <code>Model</code>, so it gets the snapshots directly instead of capturing the screen.
+ * <p>
+ * Generations wait in a bounded queue for a free encoder. If the queue is full, the generation is skipped and counted,
+ * so the simulation and the window are never slowed down by writing. A lossless recorder waits for free space instead,
+ * it has to be registered with <code>Model.addLosslessListener</code>, so the simulation waits for it as well.
+ */
+public class Recorder implements BoardListener {
+    private final FrameWriter writer;
+    private final boolean isLossless;
+    private final ThreadPoolExecutor encoders;
+    private final long startTime;
+    private final AtomicLong received;
+    private final AtomicLong written;
+    private final AtomicLong skipped;
+    private final AtomicLong failed;
+
+    /**
+     * Creates a new <code>Recorder</code> and starts its encoder threads.
+     *
+     * @param writer        writer of the generations
+     * @param threads       amount of encoder threads, has to be 1 if the writer needs the generations in order
+     * @param queueCapacity amount of generations which may wait for an encoder
+     * @param isLossless    true to wait for a free encoder instead of skipping generations
+     */
+    public Recorder(FrameWriter writer, int threads, int queueCapacity, boolean isLossless) {
+        this.writer = writer;
+        this.isLossless = isLossless;
+        encoders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "encoder");
+            thread.setDaemon(true);
+            return thread;
+        }, isLossless ? Recorder::waitForEncoder : new ThreadPoolExecutor.AbortPolicy());
+        startTime = System.nanoTime();
+        received = new AtomicLong();
+        written = new AtomicLong();
+        skipped = new AtomicLong();
+        failed = new AtomicLong();
+    }
+
+    /**
+     * Puts a generation into the full queue of the encoders as soon as an encoder takes the next one.
+     *
+     * @param task     task writing the generation
+     * @param encoders executor of the encoders
+     * @throws RejectedExecutionException if the recorder is closed or the waiting thread gets interrupted
+     */
+    private static void waitForEncoder(Runnable task, ThreadPoolExecutor encoders) {
+        if (encoders.isShutdown())
+            throw new RejectedExecutionException("recorder is closed");
+
+        try {
+            encoders.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    /**
+     * Returns if the recorder waits for a free encoder instead of skipping generations.
+     *
+     * @return true if no generation gets skipped while the recorder is open
+     */
+    public boolean isLossless() {
+        return isLossless;
+    }
+
+    /**
+     * Hands a generation to the encoders, skips it if the queue is full or the recorder is closed. A lossless recorder
+     * waits until an encoder is free.
+     *
+     * @param board snapshot of the generation
+     */
+    @Override
+    public void updateBoard(Board board) {
+        if (!(board instanceof BoardSnapshot))
+            return;
+
+        BoardSnapshot snapshot = (BoardSnapshot) board;
+        received.incrementAndGet();
+        try {
+            encoders.execute(() -> encode(snapshot));
+        } catch (RejectedExecutionException e) {
+            skipped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes a generation on an encoder thread.
+     *
+     * @param board snapshot of the generation
+     */
+    private void encode(BoardSnapshot board) {
+        try {
+            writer.write(board);
+            written.incrementAndGet();
+        } catch (IOException e) {
+            if (failed.getAndIncrement() == 0)
+                e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the current counters of the recording.
+     *
+     * @return statistics of received, written and skipped generations
+     */
+    public RecordingStats getStats() {
+        return new RecordingStats(received.get(), written.get(), skipped.get(), failed.get(),
+                encoders.getQueue().size(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Writes the queued generations, then closes the writer. Generations received afterwards are skipped.
+     *
+     * @throws IOException if the writer can't be closed
+     */
+    public void close() throws IOException {
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,94 @@
+package gameoflife.controller;
+
+import java.util.Locale;
+
+/**
+ * Counters of a <code>Recorder</code> at a specific time.
+ */
+public final class RecordingStats {
+    private final long received;
+    private final long written;
+    private final long skipped;
+    private final long failed;
+    private final int queued;
+    private final long elapsedTime;
+
+    /**
+     * Creates new statistics.
+     *
+     * @param received    amount of generations handed to the recorder
+     * @param written     amount of generations written
+     * @param skipped     amount of generations skipped because all encoders were busy and the queue was full
+     * @param failed      amount of generations which couldn't be written
+     * @param queued      amount of generations waiting for an encoder
+     * @param elapsedTime time since the recording started in nanoseconds
+     */
+    RecordingStats(long received, long written, long skipped, long failed, int queued, long elapsedTime) {
+        this.received = received;
+        this.written = written;
+        this.skipped = skipped;
+        this.failed = failed;
+        this.queued = queued;
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Returns the amount of generations handed to the recorder.
+     *
+     * @return amount of received generations
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * Returns the amount of generations written.
+     *
+     * @return amount of written generations
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Returns the amount of generations skipped because all encoders were busy and the queue was full.
+     *
+     * @return amount of skipped generations
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the amount of generations which couldn't be written.
+     *
+     * @return amount of failed generations
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the amount of generations waiting for an encoder.
+     *
+     * @return amount of queued generations
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Returns the average amount of generations written per second since the recording started.
+     *
+     * @return written generations per second
+     */
+    public double getFramesPerSecond() {
+        return elapsedTime > 0 ? written * 1e9 / elapsedTime : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "received %d, written %d (%.1f/s), skipped %d, failed %d, queued %d",
+                received, written, getFramesPerSecond(), skipped, failed, queued);
+    }
+}
@@ -1,5 +1,11 @@
 package gameoflife.controller;
 
+import gameoflife.model.StripWorker;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
 /**
  * Project is based on the Model–view–controller (MVC) pattern, <code>Controller</code> gets initialized here.
  */
@@ -7,16 +13,112 @@ public class Runner {
 
     /**
      * Initializes <code>Controller</code>.
-     * The window title, the size of the board and the display size of a cell gets defined here.
+     * The window title, the size of the board, the display size of a cell and the amount of cell types get defined
+     * here.
+     * With the option <code>--headless</code> no window is created, <code>HeadlessRunner</code> computes the
+     * generations instead. <code>--distributed</code> splits the board across worker processes with
+     * <code>DistributedRunner</code>, <code>--worker</code> runs such a worker.
      *
-     * @param args an array of command-line arguments for the application, not used
+     * @param args an array of command-line arguments for the application, only used without a window
      */
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--headless")) {
+            runHeadless(args);
+            return;
+        }
+        if (Arrays.asList(args).contains("--distributed")) {
+            runDistributed(args);
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--worker")) {
+            runWorker(args[1]);
+            return;
+        }
+
         String windowTitle = "Game Of Life";
         int width = 140;
         int height = 100;
         int cellDisplaySize = 10;
+        int cellTypes = 5;
+
+        new Controller(windowTitle, width, height, cellDisplaySize, cellTypes);
+    }
+
+    /**
+     * Parses the command-line arguments and starts <code>HeadlessRunner</code>.
+     * Exits with status 1 if the arguments are invalid or the run fails.
+     *
+     * @param args an array of command-line arguments for the application
+     */
+    private static void runHeadless(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        HeadlessRunner runner = new HeadlessRunner();
+
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(HeadlessRunner.getUsage());
+            System.exit(1);
+        }
+
+        try {
+            runner.run();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses the command-line arguments and starts <code>DistributedRunner</code>.
+     * Exits with status 1 if the arguments are invalid or the run fails.
+     *
+     * @param args an array of command-line arguments for the application
+     */
+    private static void runDistributed(String[] args) {
+        DistributedRunner runner = new DistributedRunner();
+
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(DistributedRunner.getUsage());
+            System.exit(1);
+        }
+
+        if (!runner.isWindowShown())
+            System.setProperty("java.awt.headless", "true");
+
+        try {
+            runner.run();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs a worker of a distributed simulation until its coordinator stops it.
+     * Exits with status 1 if the address is invalid or a connection fails.
+     *
+     * @param address address of the coordinator as <code>host:port</code>
+     */
+    private static void runWorker(String address) {
+        System.setProperty("java.awt.headless", "true");
+        int colon = address.lastIndexOf(':');
 
-        new Controller(windowTitle, width, height, cellDisplaySize);
+        try {
+            if (colon < 0)
+                throw new IllegalArgumentException("--worker needs <host>:<port>");
+            int port = Integer.parseInt(address.substring(colon + 1));
+            new StripWorker(new InetSocketAddress(address.substring(0, colon), port)).run();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,327 @@
+package gameoflife.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The Logic of Game of Life and other life-like rules with only one live cell type.
+ * Every row of the board is stored as bits in <code>long</code> words, so 64 cells are computed at once: the eight
+ * neighbours of each bit are summed up with bitwise adders and the rule is applied to the resulting bit planes.
+ * The board wraps around its borders like the one of <code>Simulation</code>.
+ */
+public class BinarySimulation implements Engine {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final int lastBit;
+    private final long lastWordMask;
+    private long[] board;
+    private long[] nextBoard;
+    private long generation;
+    private RandomSource random;
+    private int birth;
+    private int survival;
+    private boolean isConway;
+
+    /**
+     * Creates a new engine with an empty board of the given size.
+     *
+     * @param width  length of x-axis of board
+     * @param height length of y-axis of board
+     */
+    public BinarySimulation(int width, int height) {
+        this.width = width;
+        this.height = height;
+        wordsPerRow = (width + 63) >>> 6;
+        lastBit = (width - 1) & 63;
+        lastWordMask = -1L >>> (63 - lastBit);
+        board = new long[wordsPerRow * height];
+        nextBoard = new long[wordsPerRow * height];
+        random = new RandomSource();
+        setRule(Rule.CONWAY);
+    }
+
+    /**
+     * Computes the next generation row by row into the second buffer and swaps both buffers afterwards.
+     */
+    @Override
+    public void tick() {
+        for (int y = 0; y < height; y++) {
+            int up = (y == 0 ? height - 1 : y - 1) * wordsPerRow;
+            int down = (y == height - 1 ? 0 : y + 1) * wordsPerRow;
+            computeRow(up, y * wordsPerRow, down);
+        }
+
+        long[] swap = board;
+        board = nextBoard;
+        nextBoard = swap;
+        generation++;
+    }
+
+    /**
+     * Computes the next generation of one row, given the offsets of the row and the rows above and below it.
+     *
+     * @param up     offset of the row above
+     * @param center offset of the row to compute
+     * @param down   offset of the row below
+     */
+    private void computeRow(int up, int center, int down) {
+        int last = wordsPerRow - 1;
+
+        for (int word = 0; word < wordsPerRow; word++) {
+            long n = board[up + word];
+            long c = board[center + word];
+            long s = board[down + word];
+
+            long nw = west(up, word, n);
+            long ne = east(up, word, n);
+            long w = west(center, word, c);
+            long e = east(center, word, c);
+            long sw = west(down, word, s);
+            long se = east(down, word, s);
+
+            // first level: two full adders and one half adder
+            long sum1 = nw ^ n ^ ne;
+            long carry1 = (nw & n) | (ne & (nw ^ n));
+            long sum2 = sw ^ s ^ se;
+            long carry2 = (sw & s) | (se & (sw ^ s));
+            long sum3 = w ^ e;
+            long carry3 = w & e;
+
+            // bit 0 of the neighbour count
+            long bit0 = sum1 ^ sum2 ^ sum3;
+            long carry4 = (sum1 & sum2) | (sum3 & (sum1 ^ sum2));
+
+            // bit 1 and the carries into bit 2
+            long sum5 = carry1 ^ carry2 ^ carry3;
+            long carry5 = (carry1 & carry2) | (carry3 & (carry1 ^ carry2));
+            long bit1 = sum5 ^ carry4;
+            long carry6 = sum5 & carry4;
+
+            long next;
+            if (isConway) {
+                // any of bit 2 and bit 3 set means more than three neighbours
+                long tooMany = carry5 | carry6;
+
+                // alive with two or three neighbours, or dead with three neighbours
+                next = bit1 & ~tooMany & (bit0 | c);
+            } else
+                next = applyRule(c, bit0, bit1, carry5 ^ carry6, carry5 & carry6);
+            if (word == last)
+                next &= lastWordMask;
+            nextBoard[center + word] = next;
+        }
+    }
+
+    /**
+     * Applies any rule to 64 cells at once. For every neighbour count of the rule, the cells whose count bits match it
+     * are selected and added to the births or survivals.
+     *
+     * @param alive cells of the word
+     * @param bit0  bit 0 of the neighbour counts
+     * @param bit1  bit 1 of the neighbour counts
+     * @param bit2  bit 2 of the neighbour counts
+     * @param bit3  bit 3 of the neighbour counts
+     * @return next generation of the cells
+     */
+    private long applyRule(long alive, long bit0, long bit1, long bit2, long bit3) {
+        long born = 0;
+        long surviving = 0;
+
+        for (int neighbours = 0; neighbours <= 8; neighbours++) {
+            if (((birth | survival) >>> neighbours & 1) == 0)
+                continue;
+
+            long matches = ((neighbours & 1) != 0 ? bit0 : ~bit0) & ((neighbours & 2) != 0 ? bit1 : ~bit1)
+                    & ((neighbours & 4) != 0 ? bit2 : ~bit2) & ((neighbours & 8) != 0 ? bit3 : ~bit3);
+            if ((birth >>> neighbours & 1) != 0)
+                born |= matches;
+            if ((survival >>> neighbours & 1) != 0)
+                surviving |= matches;
+        }
+
+        return alive & surviving | ~alive & born;
+    }
+
+    /**
+     * Shifts the cells of a word one cell to the east, so every bit contains its west neighbour.
+     * The west neighbour of the first cell of a row is the last cell of the row.
+     *
+     * @param row   offset of the row
+     * @param word  index of the word in the row
+     * @param value cells of the word
+     * @return west neighbours of the cells
+     */
+    private long west(int row, int word, long value) {
+        long carry = word == 0
+                ? board[row + wordsPerRow - 1] >>> lastBit & 1
+                : board[row + word - 1] >>> 63;
+
+        return value << 1 | carry;
+    }
+
+    /**
+     * Shifts the cells of a word one cell to the west, so every bit contains its east neighbour.
+     * The east neighbour of the last cell of a row is the first cell of the row.
+     *
+     * @param row   offset of the row
+     * @param word  index of the word in the row
+     * @param value cells of the word
+     * @return east neighbours of the cells
+     */
+    private long east(int row, int word, long value) {
+        long carry = word == wordsPerRow - 1
+                ? (board[row] & 1) << lastBit
+                : board[row + word + 1] << 63;
+
+        return value >>> 1 | carry;
+    }
+
+    @Override
+    public BoardSnapshot getBoard() {
+        byte[] cells = new byte[width * height];
+
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                cells[y * width + x] = (byte) (board[y * wordsPerRow + (x >>> 6)] >>> x & 1);
+
+        return new BoardSnapshot(width, height, generation, cells);
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Populates the board with live cells at random positions, every dead cell has the same chance to become alive.
+     * If given amount exceeds the amount of dead cells, latter is used.
+     * <p>
+     * Like <code>Simulation</code>, every row gets a share of the amount in proportion to its dead cells and picks its
+     * cells with a partial shuffle of its dead cells, see <code>DeadCellSampler</code>.
+     *
+     * @param amount amount of cells to populate
+     */
+    @Override
+    public void populate(int amount) {
+        int[] deadCells = new int[height];
+        for (int y = 0; y < height; y++) {
+            int liveCells = 0;
+            for (int word = 0; word < wordsPerRow; word++)
+                liveCells += Long.bitCount(board[y * wordsPerRow + word]);
+            deadCells[y] = width - liveCells;
+        }
+
+        int[] shares = DeadCellSampler.getShares(deadCells, amount, random);
+        SplittableRandom rowRandom = null;
+        int[] candidates = new int[width];
+        for (int y = 0; y < height; y++) {
+            if (shares[y] == 0)
+                continue;
+            if (rowRandom == null)
+                rowRandom = random.split();
+
+            int dead = 0;
+            for (int x = 0; x < width; x++)
+                if (!isAlive(x, y))
+                    candidates[dead++] = x;
+
+            int row = y * wordsPerRow;
+            DeadCellSampler.select(candidates, dead, shares[y], rowRandom,
+                    x -> board[row + (x >>> 6)] |= 1L << x);
+        }
+    }
+
+    /**
+     * Returns if the cell at the given coordinates is alive.
+     *
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return true if the cell is alive
+     */
+    private boolean isAlive(int x, int y) {
+        return (board[y * wordsPerRow + (x >>> 6)] >>> x & 1) != 0;
+    }
+
+    /**
+     * Sets the rule. Game of Life keeps its own shortcut, other rules are evaluated on the bit planes of the neighbour
+     * counts.
+     *
+     * @param rule new rule
+     */
+    @Override
+    public void setRule(Rule rule) {
+        birth = rule.getBirthMask();
+        survival = rule.getSurvivalMask();
+        isConway = rule.equals(Rule.CONWAY);
+    }
+
+    /**
+     * Sets the source of random numbers, which are only used for populating. Generations don't depend on them.
+     *
+     * @param random source of random numbers
+     */
+    @Override
+    public void setRandom(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Replaces all cells by the cells of the given board, every type above 0 becomes a live cell.
+     *
+     * @param board      board to copy, has to be of the same size
+     * @param generation generation of the board
+     */
+    @Override
+    public void setBoard(Board board, long generation) {
+        if (board.getWidth() != width || board.getHeight() != height)
+            throw new IllegalArgumentException("board has a different size");
+
+        Arrays.fill(this.board, 0);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (board.getCell(x, y) > 0)
+                    this.board[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+
+        this.generation = generation;
+    }
+
+    /**
+     * Sets cell at given coordinates to live if the type is above 0, otherwise to dead.
+     * Coordinates get checked if they fit in the board.
+     *
+     * @param x    x-coordinate of the cell
+     * @param y    y-coordinate of the cell
+     * @param type type of the cell
+     */
+    @Override
+    public void setCell(int x, int y, int type) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return;
+
+        if (type > 0)
+            board[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+        else
+            board[y * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+    }
+
+    /**
+     * Returns 1, all live cells have the same type.
+     *
+     * @return amount of live cell types
+     */
+    @Override
+    public int getCellTypes() {
+        return 1;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,30 @@
+package gameoflife.model;
+
+/**
+ * Read-only view of a board of cells. A value of 0 means a dead cell, every value above is a live cell type.
+ */
+public interface Board {
+
+    /**
+     * Returns the length of the x-axis of the board.
+     *
+     * @return width of the board
+     */
+    int getWidth();
+
+    /**
+     * Returns the length of the y-axis of the board.
+     *
+     * @return height of the board
+     */
+    int getHeight();
+
+    /**
+     * Returns the type of the cell at the given coordinates.
+     *
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return type of the cell
+     */
+    int getCell(int x, int y);
+}
@@ -0,0 +1,144 @@
+package gameoflife.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saved board in a file. The cells are transferred between the file and the cell array of the snapshot in large
+ * blocks through a <code>FileChannel</code>, without passing through streams.
+ * <p>
+ * The file isn't memory-mapped, since a mapping stays alive until it gets garbage collected and keeps the file locked
+ * on Windows, so a checkpoint couldn't replace it. Loading therefore copies the cells into the snapshot, and boards are
+ * limited to the size of a Java array. <code>Model.load()</code> hands the array of the snapshot over to a
+ * <code>Simulation</code>, which uses it as its board instead of copying it again.
+ * <p>
+ * The file starts with a header of the magic number, the version, width, height, the amount of live cell types and
+ * the generation. The cells follow row by row, one byte per cell.
+ */
+public final class BoardFile {
+    private static final int MAGIC = 0x474F4C42;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private BoardSnapshot board;
+    private final int cellTypes;
+
+    /**
+     * Creates a saved board.
+     *
+     * @param board     cells and generation of the board
+     * @param cellTypes amount of live cell types
+     */
+    private BoardFile(BoardSnapshot board, int cellTypes) {
+        this.board = board;
+        this.cellTypes = cellTypes;
+    }
+
+    /**
+     * Returns the saved cells and generation.
+     *
+     * @return snapshot of the saved board
+     * @throws IllegalStateException if the board was already handed over to an engine
+     */
+    public BoardSnapshot getBoard() {
+        if (board == null)
+            throw new IllegalStateException("saved board was handed over to an engine");
+        return board;
+    }
+
+    /**
+     * Hands the saved board over to an engine which changes its cells, afterwards the file no longer holds a board.
+     *
+     * @return snapshot of the saved board, its cell array is no longer shared
+     * @throws IllegalStateException if the board was already handed over to an engine
+     */
+    BoardSnapshot release() {
+        BoardSnapshot released = getBoard();
+        board = null;
+        return released;
+    }
+
+    /**
+     * Returns the amount of live cell types of the engine which saved the board.
+     *
+     * @return amount of live cell types
+     */
+    public int getCellTypes() {
+        return cellTypes;
+    }
+
+    /**
+     * Writes the board into the given file, an existing file gets replaced. The file is forced to the storage device
+     * before this method returns.
+     *
+     * @param path      path of the file
+     * @param board     board to save
+     * @param cellTypes amount of live cell types of the engine
+     * @throws IOException if the file can't be written
+     */
+    public static void write(Path path, BoardSnapshot board, int cellTypes) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(board.getWidth()).putInt(board.getHeight()).putInt(cellTypes)
+                .putInt(0).putLong(board.getGeneration());
+        header.flip();
+        ByteBuffer cells = ByteBuffer.wrap(board.getCells());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining())
+                channel.write(header);
+            while (cells.hasRemaining())
+                channel.write(cells);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a board from the given file.
+     *
+     * @param path path of the file
+     * @return saved board
+     * @throws IOException if the file can't be read or isn't a saved board
+     */
+    public static BoardFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE)
+                throw new IOException("not a saved board: " + path);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException("not a saved board of a supported version: " + path);
+            int width = header.getInt();
+            int height = header.getInt();
+            int cellTypes = header.getInt();
+            header.getInt();
+            long generation = header.getLong();
+            if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE - 8
+                    || size != HEADER_SIZE + (long) width * height)
+                throw new IOException("size of the saved board doesn't match the file: " + path);
+
+            byte[] cells = new byte[width * height];
+            readFully(channel, ByteBuffer.wrap(cells));
+            return new BoardFile(new BoardSnapshot(width, height, generation, cells), cellTypes);
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full.
+     *
+     * @param channel channel to read from
+     * @param buffer  buffer to fill
+     * @throws IOException if the file ends before the buffer is full or can't be read
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            if (channel.read(buffer) < 0)
+                throw new EOFException("saved board ends early");
+    }
+}
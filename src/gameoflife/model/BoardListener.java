@@ -0,0 +1,14 @@
+package gameoflife.model;
+
+/**
+ * Gets notified by <code>Model</code> when a new board was computed.
+ */
+public interface BoardListener {
+
+    /**
+     * Gets called when a new board is available.
+     *
+     * @param board snapshot of the new board
+     */
+    void updateBoard(Board board);
+}
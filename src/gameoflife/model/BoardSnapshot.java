@@ -0,0 +1,130 @@
+package gameoflife.model;
+
+/**
+ * Immutable copy of a board at a specific generation.
+ * Is handed to listeners, so they can keep it while <code>Simulation</code> continues to compute new generations.
+ * <p>
+ * If the engine tracks changes, the snapshot also knows when each tile of the board changed the last time. This allows
+ * listeners to find the tiles which differ from an older snapshot without comparing all cells.
+ */
+public final class BoardSnapshot implements Board {
+    private final int width;
+    private final int height;
+    private final long generation;
+    private final byte[] cells;
+    private final Object source;
+    private final long version;
+    private final int tileSize;
+    private final long[] tileVersions;
+
+    /**
+     * Creates an empty snapshot where every cell is dead.
+     *
+     * @param width  length of x-axis of board
+     * @param height length of y-axis of board
+     */
+    public BoardSnapshot(int width, int height) {
+        this(width, height, 0, new byte[width * height]);
+    }
+
+    /**
+     * Creates a snapshot of the given cells. The array gets owned by the snapshot and must not be changed afterwards.
+     *
+     * @param width      length of x-axis of board
+     * @param height     length of y-axis of board
+     * @param generation generation the cells belong to
+     * @param cells      cells stored row by row, one byte per cell
+     */
+    BoardSnapshot(int width, int height, long generation, byte[] cells) {
+        this(width, height, generation, cells, null, 0, Math.max(1, Math.max(width, height)), null);
+    }
+
+    /**
+     * Creates a snapshot of the given cells including information about changed tiles.
+     * The arrays get owned by the snapshot and must not be changed afterwards.
+     *
+     * @param width        length of x-axis of board
+     * @param height       length of y-axis of board
+     * @param generation   generation the cells belong to
+     * @param cells        cells stored row by row, one byte per cell
+     * @param source       engine the snapshot was taken from
+     * @param version      counter of changes of the engine at the time of the snapshot
+     * @param tileSize     edge length of a tile in cells
+     * @param tileVersions counter of changes of the engine at the last change of each tile, stored row by row
+     */
+    BoardSnapshot(int width, int height, long generation, byte[] cells, Object source, long version, int tileSize,
+                  long[] tileVersions) {
+        this.width = width;
+        this.height = height;
+        this.generation = generation;
+        this.cells = cells;
+        this.source = source;
+        this.version = version;
+        this.tileSize = tileSize;
+        this.tileVersions = tileVersions;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getCell(int x, int y) {
+        return cells[y * width + x] & 0xFF;
+    }
+
+    /**
+     * Returns the cells stored row by row, one byte per cell. The array is shared and must not be changed.
+     *
+     * @return cells of the snapshot
+     */
+    byte[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Returns the generation of the board this snapshot was taken from.
+     *
+     * @return number of computed generations
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the edge length of the tiles used for tracking changes.
+     *
+     * @return edge length of a tile in cells
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Checks if the given tile differs between this and the given snapshot of the same engine.
+     * If the change can't be determined, for example because the snapshots come from different engines, the tile is
+     * treated as changed.
+     *
+     * @param tileX    x-coordinate of the tile
+     * @param tileY    y-coordinate of the tile
+     * @param previous snapshot to compare with, usually an older one, may be null
+     * @return true if the tile might contain different cells than in <code>previous</code>
+     */
+    public boolean isTileChanged(int tileX, int tileY, BoardSnapshot previous) {
+        if (previous == null || tileVersions == null || previous.source != source || previous.tileSize != tileSize)
+            return true;
+
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tile = tileY * tilesX + tileX;
+        // previous may also be the newer board, for example when going back to an older board
+        if (previous.version > version)
+            return previous.tileVersions[tile] > version;
+        return tileVersions[tile] > previous.version;
+    }
+}
@@ -0,0 +1,70 @@
+package gameoflife.model;
+
+/**
+ * Mutable storage for the cells of a board.
+ * Cells are stored row by row in one flat byte array, one byte per cell, which keeps the neighbours of a cell close
+ * together in memory and needs a quarter of the memory of an <code>int</code> per cell.
+ */
+public final class CellGrid implements Board {
+    private final int width;
+    private final int height;
+    final byte[] cells;
+
+    /**
+     * Creates a new grid where every cell is dead.
+     *
+     * @param width  length of x-axis of board
+     * @param height length of y-axis of board
+     */
+    public CellGrid(int width, int height) {
+        this(width, height, new byte[Math.multiplyExact(width, height)]);
+    }
+
+    /**
+     * Creates a grid around the given cells, the array is used directly.
+     *
+     * @param width  length of x-axis of board
+     * @param height length of y-axis of board
+     * @param cells  cells stored row by row
+     */
+    CellGrid(int width, int height, byte[] cells) {
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getCell(int x, int y) {
+        return cells[y * width + x] & 0xFF;
+    }
+
+    /**
+     * Sets the cell at the given coordinates to the given type.
+     *
+     * @param x    x-coordinate of the cell
+     * @param y    y-coordinate of the cell
+     * @param type type of the cell, between 0 and 255
+     */
+    public void setCell(int x, int y, int type) {
+        cells[y * width + x] = (byte) type;
+    }
+
+    /**
+     * Copies all cells of this grid into a new array.
+     *
+     * @return copy of the cells stored row by row
+     */
+    byte[] copyCells() {
+        return cells.clone();
+    }
+}
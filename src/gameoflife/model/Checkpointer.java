@@ -0,0 +1,146 @@
+package gameoflife.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves boards into a <code>BoardFile</code> on a background thread, so the thread computing generations only needs
+ * to hand over a snapshot.
+ * <p>
+ * At most one checkpoint is written at a time. A board handed over meanwhile waits, a newer board replaces it. Each
+ * checkpoint is written into a temporary file first and then moved over the previous one, so an interrupted write
+ * never destroys the last complete checkpoint. If a checkpoint can't be written, the error is thrown by the next call
+ * of <code>submit()</code> or <code>close()</code>.
+ */
+public class Checkpointer implements Closeable {
+    private final Path path;
+    private final Path temporaryPath;
+    private final ExecutorService executor;
+    private BoardSnapshot pending;
+    private int pendingCellTypes;
+    private boolean isWriting;
+    private long written;
+    private long replaced;
+    private IOException lastError;
+
+    /**
+     * Creates a new <code>Checkpointer</code> writing into the given file.
+     *
+     * @param path path of the checkpoint
+     */
+    public Checkpointer(Path path) {
+        this.path = path;
+        temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Hands over a board to save, returns immediately.
+     *
+     * @param board     board to save
+     * @param cellTypes amount of live cell types of the engine
+     * @throws IOException if a previous checkpoint couldn't be written, the board is not saved then
+     */
+    public synchronized void submit(BoardSnapshot board, int cellTypes) throws IOException {
+        throwLastError();
+        if (pending != null)
+            replaced++;
+        pending = board;
+        pendingCellTypes = cellTypes;
+
+        if (!isWriting) {
+            isWriting = true;
+            executor.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Writes boards until no board waits anymore.
+     */
+    private void writePending() {
+        while (true) {
+            BoardSnapshot board;
+            int cellTypes;
+            synchronized (this) {
+                board = pending;
+                cellTypes = pendingCellTypes;
+                pending = null;
+                if (board == null) {
+                    isWriting = false;
+                    return;
+                }
+            }
+
+            try {
+                BoardFile.write(temporaryPath, board, cellTypes);
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                synchronized (this) {
+                    written++;
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    lastError = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of checkpoints written.
+     *
+     * @return amount of written checkpoints
+     */
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    /**
+     * Returns the amount of boards which were replaced by a newer board before they were written.
+     *
+     * @return amount of replaced boards
+     */
+    public synchronized long getReplaced() {
+        return replaced;
+    }
+
+    /**
+     * Writes the waiting board and stops the thread.
+     *
+     * @throws IOException if a checkpoint couldn't be written since the last call of <code>submit()</code>
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            throwLastError();
+        }
+    }
+
+    /**
+     * Throws the error of the latest failed checkpoint once.
+     *
+     * @throws IOException if a checkpoint couldn't be written since the last call
+     */
+    private void throwLastError() throws IOException {
+        IOException error = lastError;
+        lastError = null;
+        if (error != null)
+            throw error;
+    }
+}
@@ -0,0 +1,68 @@
+package gameoflife.model;
+
+/**
+ * Counters of the queue of generations which <code>Model</code> sends to its listeners, at a specific time.
+ * Can be used to choose the capacity of the queue of computed generations.
+ */
+public final class ComputeStats {
+    private final long delivered;
+    private final long dropped;
+    private final int queued;
+    private final int maxQueued;
+
+    /**
+     * Creates new statistics.
+     *
+     * @param delivered amount of generations sent to listeners
+     * @param dropped   amount of generations dropped because the queue was full
+     * @param queued    amount of generations currently waiting for delivery
+     * @param maxQueued highest amount of generations waiting for delivery at the same time
+     */
+    ComputeStats(long delivered, long dropped, int queued, int maxQueued) {
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.queued = queued;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Returns the amount of generations sent to listeners.
+     *
+     * @return amount of delivered generations
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Returns the amount of generations dropped because the queue of computed generations was full.
+     *
+     * @return amount of dropped generations
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the amount of generations waiting for delivery to listeners.
+     *
+     * @return amount of queued generations
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Returns the highest amount of generations which waited for delivery at the same time.
+     *
+     * @return maximum amount of queued generations
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    @Override
+    public String toString() {
+        return "delivered " + delivered + ", dropped " + dropped + ", queued " + queued + " (max " + maxQueued + ")";
+    }
+}
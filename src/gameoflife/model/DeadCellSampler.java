@@ -0,0 +1,72 @@
+package gameoflife.model;
+
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Picks random dead cells for populating a board without rejection sampling, every dead cell has the same chance to
+ * become alive and random numbers are only drawn for placed cells.
+ * <p>
+ * The board is split into regions, like tiles or rows. <code>getShares()</code> spreads the amount of new cells over
+ * the regions in proportion to their dead cells, then <code>select()</code> picks the cells inside each region.
+ */
+final class DeadCellSampler {
+
+    private DeadCellSampler() {
+    }
+
+    /**
+     * Splits the amount of new cells into shares of the regions in proportion to their dead cells. The shares are
+     * rounded up or down by systematic sampling: a single random offset decides the rounding of all shares, so the
+     * chance of each dead cell stays the same and the shares add up exactly.
+     * If the amount exceeds the amount of dead cells, latter is used.
+     *
+     * @param deadCells amount of dead cells of each region
+     * @param amount    amount of cells to populate
+     * @param random    source of the random offset, no number is drawn if nothing gets populated
+     * @return amount of cells to populate in each region
+     */
+    static int[] getShares(int[] deadCells, long amount, RandomSource random) {
+        int[] shares = new int[deadCells.length];
+        long freeSpace = 0;
+        for (int dead : deadCells)
+            freeSpace += dead;
+
+        // can't create more life than free space exists
+        long toCreate = Math.min(amount, freeSpace);
+        if (toCreate <= 0)
+            return shares;
+
+        long offset = random.nextLong(freeSpace);
+        long counted = 0;
+        long assigned = 0;
+        for (int region = 0; region < deadCells.length; region++) {
+            counted += deadCells[region];
+            long target = (counted * toCreate + offset) / freeSpace;
+            shares[region] = (int) (target - assigned);
+            assigned = target;
+        }
+
+        return shares;
+    }
+
+    /**
+     * Picks a uniform random selection of the given amount of candidates with a partial Fisher-Yates shuffle and
+     * passes each picked candidate to the action right after it was picked.
+     *
+     * @param candidates dead cells of a region, the first <code>count</code> entries are used and get reordered
+     * @param count      amount of candidates
+     * @param amount     amount of candidates to pick, at most <code>count</code>
+     * @param random     generator of the region
+     * @param action     called with each picked candidate
+     */
+    static void select(int[] candidates, int count, int amount, SplittableRandom random, IntConsumer action) {
+        for (int i = 0; i < amount; i++) {
+            int selected = i + random.nextInt(count - i);
+            int candidate = candidates[selected];
+            candidates[selected] = candidates[i];
+            candidates[i] = candidate;
+            action.accept(candidate);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package gameoflife.model;
+
+/**
+ * Common interface of the different implementations of Game Of Life.
+ * An engine owns the board, computes new generations of it and hands out read-only snapshots.
+ */
+public interface Engine {
+
+    /**
+     * Computes the next generation of the board.
+     */
+    void tick();
+
+    /**
+     * Computes the next generation of the board and returns a snapshot of it.
+     *
+     * @return snapshot of the next generation
+     */
+    default BoardSnapshot compute() {
+        tick();
+        return getBoard();
+    }
+
+    /**
+     * Returns a snapshot of the current generation, which isn't affected by following generations.
+     *
+     * @return snapshot of the board
+     */
+    BoardSnapshot getBoard();
+
+    /**
+     * Returns the amount of generations computed so far.
+     *
+     * @return current generation
+     */
+    long getGeneration();
+
+    /**
+     * Populates the board with the given amount of live cells.
+     *
+     * @param amount amount of cells to populate
+     */
+    void populate(int amount);
+
+    /**
+     * Sets the rule which decides about births and survival of cells.
+     *
+     * @param rule new rule
+     * @throws IllegalArgumentException if the engine doesn't support the rule
+     */
+    void setRule(Rule rule);
+
+    /**
+     * Sets the source of all random decisions of the engine, engines with the same source and board compute the same
+     * generations.
+     *
+     * @param random source of random numbers
+     */
+    void setRandom(RandomSource random);
+
+    /**
+     * Replaces all cells by the cells of the given board and continues counting at the given generation.
+     *
+     * @param board      board to copy, has to be of the same size
+     * @param generation generation of the board
+     * @throws IllegalArgumentException if the board has a different size
+     */
+    void setBoard(Board board, long generation);
+
+    /**
+     * Sets cell at given coordinates to given type, coordinates outside of the board are ignored.
+     *
+     * @param x    x-coordinate of the cell
+     * @param y    y-coordinate of the cell
+     * @param type type of the cell
+     */
+    void setCell(int x, int y, int type);
+
+    /**
+     * Returns the amount of live cell types, the types of live cells range from 1 to this amount.
+     *
+     * @return amount of live cell types
+     */
+    int getCellTypes();
+
+    /**
+     * Returns the length of the x-axis of the board.
+     *
+     * @return width of the board
+     */
+    int getWidth();
+
+    /**
+     * Returns the length of the y-axis of the board.
+     *
+     * @return height of the board
+     */
+    int getHeight();
+
+    /**
+     * Releases the threads of the engine. Is called when the engine gets replaced, the engine isn't used afterwards.
+     */
+    default void shutdown() {
+    }
+}
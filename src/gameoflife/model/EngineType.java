@@ -0,0 +1,55 @@
+package gameoflife.model;
+
+/**
+ * Available implementations of <code>Engine</code>.
+ */
+public enum EngineType {
+    /**
+     * <code>Simulation</code>, supports multiple live cell types.
+     */
+    MULTI_TYPE,
+    /**
+     * <code>BinarySimulation</code>, only knows dead and live cells but is a lot faster.
+     */
+    BINARY,
+    /**
+     * <code>HashLifeSimulation</code>, only knows dead and live cells on an unbounded plane, fast for repetitive
+     * patterns.
+     */
+    HASHLIFE,
+    /**
+     * <code>SparseSimulation</code>, supports multiple live cell types on an unbounded plane and only stores live
+     * cells.
+     */
+    SPARSE;
+
+    /**
+     * Creates a new engine of this type with an empty board and the default amount of live cell types.
+     *
+     * @param width  length of x-axis of board
+     * @param height length of y-axis of board
+     * @return new engine
+     */
+    public Engine create(int width, int height) {
+        return create(width, height, Simulation.DEFAULT_CELL_TYPES);
+    }
+
+    /**
+     * Creates a new engine of this type with an empty board. Engines which only know dead and live cells ignore the
+     * amount of live cell types.
+     *
+     * @param width     length of x-axis of board
+     * @param height    length of y-axis of board
+     * @param cellTypes amount of live cell types
+     * @return new engine
+     * @throws IllegalArgumentException if the amount of cell types is out of range
+     */
+    public Engine create(int width, int height, int cellTypes) {
+        return switch (this) {
+            case MULTI_TYPE -> new Simulation(width, height, cellTypes);
+            case BINARY -> new BinarySimulation(width, height);
+            case HASHLIFE -> new HashLifeSimulation(width, height);
+            case SPARSE -> new SparseSimulation(width, height, cellTypes);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package gameoflife.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes recorded generations, for example as images or into a recording file.
+ * Writers which need the generations in order, for example because they store differences, have to be used with a
+ * single encoder thread.
+ */
+public interface FrameWriter extends Closeable {
+
+    /**
+     * Writes a generation.
+     *
+     * @param board snapshot of the generation
+     * @throws IOException if the generation can't be written
+     */
+    void write(BoardSnapshot board) throws IOException;
+}
@@ -0,0 +1,100 @@
+package gameoflife.model;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Exchanges the halo rows of a <code>StripSimulation</code> with the workers of the strips above and below.
+ * Both connections are non-blocking and served by one selector, so all four rows are sent and received at the same
+ * time. Neither worker waits for the other one to read before it sends, so rows wider than the socket buffers can't
+ * block both sides.
+ */
+final class HaloExchange implements Closeable {
+    private final SocketChannel up;
+    private final SocketChannel down;
+    private final Selector selector;
+    private final SelectionKey upKey;
+    private final SelectionKey downKey;
+
+    /**
+     * Creates a new exchange over the given connections, which get switched to non-blocking mode.
+     *
+     * @param up   connection to the worker of the strip above
+     * @param down connection to the worker of the strip below
+     * @throws IOException if the selector can't be opened
+     */
+    HaloExchange(SocketChannel up, SocketChannel down) throws IOException {
+        this.up = up;
+        this.down = down;
+        selector = Selector.open();
+        up.configureBlocking(false);
+        down.configureBlocking(false);
+        upKey = up.register(selector, 0);
+        downKey = down.register(selector, 0);
+    }
+
+    /**
+     * Sends the first row up and the last row down and receives the halo rows, returns when all rows are complete.
+     *
+     * @param toUp     first row of the strip
+     * @param toDown   last row of the strip
+     * @param fromUp   halo row above the strip
+     * @param fromDown halo row below the strip
+     * @throws IOException if a connection fails or gets closed by a neighbour
+     */
+    void exchange(ByteBuffer toUp, ByteBuffer toDown, ByteBuffer fromUp, ByteBuffer fromDown) throws IOException {
+        // most rows fit into the socket buffers, so the selector is only needed if a neighbour is behind
+        transfer(up, toUp, fromUp);
+        transfer(down, toDown, fromDown);
+
+        while (toUp.hasRemaining() || fromUp.hasRemaining() || toDown.hasRemaining() || fromDown.hasRemaining()) {
+            upKey.interestOps(getInterest(toUp, fromUp));
+            downKey.interestOps(getInterest(toDown, fromDown));
+            selector.select();
+            selector.selectedKeys().clear();
+
+            transfer(up, toUp, fromUp);
+            transfer(down, toDown, fromDown);
+        }
+    }
+
+    /**
+     * Writes and reads as much as possible without blocking.
+     *
+     * @param channel  connection to a neighbour
+     * @param outgoing row to send
+     * @param incoming row to receive
+     * @throws IOException if the connection fails or got closed
+     */
+    private static void transfer(SocketChannel channel, ByteBuffer outgoing, ByteBuffer incoming)
+            throws IOException {
+        if (outgoing.hasRemaining())
+            channel.write(outgoing);
+        if (incoming.hasRemaining() && channel.read(incoming) < 0)
+            throw new EOFException("neighbour closed the connection");
+    }
+
+    /**
+     * Returns the operations a connection has to wait for.
+     *
+     * @param outgoing row to send
+     * @param incoming row to receive
+     * @return interest set of the selection key
+     */
+    private static int getInterest(ByteBuffer outgoing, ByteBuffer incoming) {
+        int interest = outgoing.hasRemaining() ? SelectionKey.OP_WRITE : 0;
+        return incoming.hasRemaining() ? interest | SelectionKey.OP_READ : interest;
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+        up.close();
+        down.close();
+    }
+}
@@ -0,0 +1,671 @@
+package gameoflife.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The Logic of Game of Life and other life-like rules implemented with the HashLife algorithm.
+ * The universe is a quadtree of canonical nodes, equal squares are stored only once and the result of advancing a
+ * node is remembered in the node. Repetitive patterns therefore can be advanced by 2^k generations in a single call.
+ * <p>
+ * Only dead and live cells are known, every type above 0 is a live cell. The universe is an unbounded plane, the
+ * board handed out by <code>getBoard()</code> is the window between (0, 0) and (width, height).
+ * Memory is bounded by a maximum amount of cached nodes, if it is exceeded, nodes which can't be reached from the
+ * current universe any more are removed from the cache.
+ */
+public class HashLifeSimulation implements Engine {
+    private static final Node DEAD = new Node(0, 0);
+    private static final Node ALIVE = new Node(1, 1);
+    private static final int[] CONWAY_RESULTS = createBaseResults(Rule.CONWAY);
+
+    private final int width;
+    private final int height;
+    private Node[] buckets;
+    private int nodeCount;
+    private int nextId;
+    private int maxNodes;
+    private Node[] emptyNodes;
+    private Node root;
+    private long generation;
+    private RandomSource random;
+    private int[] baseResults;
+
+    /**
+     * Creates a new engine with an empty universe.
+     *
+     * @param width  length of x-axis of the displayed window
+     * @param height length of y-axis of the displayed window
+     */
+    public HashLifeSimulation(int width, int height) {
+        this.width = width;
+        this.height = height;
+        buckets = new Node[1 << 16];
+        nextId = 2;
+        maxNodes = 4_000_000;
+        emptyNodes = new Node[] {DEAD};
+        root = empty(3);
+        random = new RandomSource();
+        baseResults = CONWAY_RESULTS;
+    }
+
+    /**
+     * Creates a new engine containing the live cells of the given board, for example one created by
+     * <code>Simulation</code>.
+     *
+     * @param board board to copy, its size becomes the size of the displayed window
+     */
+    public HashLifeSimulation(Board board) {
+        this(board.getWidth(), board.getHeight());
+
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (board.getCell(x, y) > 0)
+                    setCell(x, y, 1);
+    }
+
+    /**
+     * Sets the maximum amount of nodes kept in the cache before unreachable nodes get removed.
+     *
+     * @param maxNodes maximum amount of cached nodes
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = Math.max(1024, maxNodes);
+    }
+
+    /**
+     * Returns the amount of nodes currently kept in the cache.
+     *
+     * @return amount of cached nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Computes the next generation of the universe.
+     */
+    @Override
+    public void tick() {
+        advance(0);
+    }
+
+    /**
+     * Advances the universe by 2^<code>exponent</code> generations at once.
+     *
+     * @param exponent base 2 logarithm of the amount of generations
+     */
+    public void advance(int exponent) {
+        if (exponent < 0 || exponent > 62)
+            throw new IllegalArgumentException("exponent must be between 0 and 62: " + exponent);
+
+        // the result of a node is its center, so the pattern needs enough empty space around it
+        while (root.level < exponent + 2 || !isPadded(root))
+            root = expand(root);
+        root = step(expand(root), exponent);
+        generation += 1L << exponent;
+
+        if (nodeCount > maxNodes)
+            collectGarbage();
+    }
+
+    /**
+     * Checks if all live cells of the node are inside its inner quarter.
+     *
+     * @param node node to check
+     * @return true if the border of the node is empty
+     */
+    private boolean isPadded(Node node) {
+        return node.population == node.nw.se.se.population + node.ne.sw.sw.population
+                + node.sw.ne.ne.population + node.se.nw.nw.population;
+    }
+
+    /**
+     * Returns the center of the given node of level L as node of level L-1, advanced by 2^<code>exponent</code>
+     * generations. <code>exponent</code> must not be bigger than L-2.
+     *
+     * @param node     node of level 2 or above
+     * @param exponent base 2 logarithm of the amount of generations
+     * @return advanced center of the node
+     */
+    private Node step(Node node, int exponent) {
+        if (node.population == 0)
+            return node.nw;
+        if (node.result != null && node.resultExponent == exponent)
+            return node.result;
+
+        Node result;
+        if (node.level == 2)
+            result = stepBase(node);
+        else {
+            Node n00 = node.nw;
+            Node n01 = horizontalCenter(node.nw, node.ne);
+            Node n02 = node.ne;
+            Node n10 = verticalCenter(node.nw, node.sw);
+            Node n11 = center(node);
+            Node n12 = verticalCenter(node.ne, node.se);
+            Node n20 = node.sw;
+            Node n21 = horizontalCenter(node.sw, node.se);
+            Node n22 = node.se;
+
+            int innerExponent = exponent;
+            if (exponent == node.level - 2) {
+                // full speed: both halves of the time step are done recursively
+                innerExponent = exponent - 1;
+                n00 = step(n00, innerExponent);
+                n01 = step(n01, innerExponent);
+                n02 = step(n02, innerExponent);
+                n10 = step(n10, innerExponent);
+                n11 = step(n11, innerExponent);
+                n12 = step(n12, innerExponent);
+                n20 = step(n20, innerExponent);
+                n21 = step(n21, innerExponent);
+                n22 = step(n22, innerExponent);
+            } else {
+                // slower than full speed: the first half only takes the centers without advancing
+                n00 = center(n00);
+                n01 = center(n01);
+                n02 = center(n02);
+                n10 = center(n10);
+                n11 = center(n11);
+                n12 = center(n12);
+                n20 = center(n20);
+                n21 = center(n21);
+                n22 = center(n22);
+            }
+
+            result = join(
+                    step(join(n00, n01, n10, n11), innerExponent),
+                    step(join(n01, n02, n11, n12), innerExponent),
+                    step(join(n10, n11, n20, n21), innerExponent),
+                    step(join(n11, n12, n21, n22), innerExponent));
+        }
+
+        node.result = result;
+        node.resultExponent = exponent;
+        return result;
+    }
+
+    /**
+     * Computes the center 2x2 cells of a 4x4 node after one generation with a lookup table.
+     *
+     * @param node node of level 2
+     * @return advanced center as node of level 1
+     */
+    private Node stepBase(Node node) {
+        int bits = 0;
+        for (int y = 0; y < 4; y++)
+            for (int x = 0; x < 4; x++)
+                bits |= node.cell(x, y) << (y * 4 + x);
+
+        int result = baseResults[bits];
+        return join(leaf(result & 1), leaf(result >> 1 & 1), leaf(result >> 2 & 1), leaf(result >> 3 & 1));
+    }
+
+    /**
+     * Creates the results of all 4x4 blocks according to the given rule.
+     * The index contains the 16 cells row by row, the result the 4 center cells in the order nw, ne, sw, se.
+     *
+     * @param rule rule of the cells
+     * @return lookup table with 65536 entries
+     */
+    private static int[] createBaseResults(Rule rule) {
+        int[] results = new int[1 << 16];
+
+        for (int bits = 0; bits < results.length; bits++) {
+            int result = 0;
+            for (int i = 0; i < 4; i++) {
+                int x = 1 + (i & 1);
+                int y = 1 + (i >> 1);
+                int neighbours = 0;
+
+                for (int checkY = y - 1; checkY <= y + 1; checkY++)
+                    for (int checkX = x - 1; checkX <= x + 1; checkX++)
+                        if (checkX != x || checkY != y)
+                            neighbours += bits >> (checkY * 4 + checkX) & 1;
+
+                boolean alive = (bits >> (y * 4 + x) & 1) != 0;
+                if (alive ? rule.isSurviving(neighbours) : rule.isBorn(neighbours))
+                    result |= 1 << i;
+            }
+            results[bits] = result;
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns the node of level L-1 in the center of the given node.
+     *
+     * @param node node of level 2 or above
+     * @return center of the node
+     */
+    private Node center(Node node) {
+        return join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+    }
+
+    /**
+     * Returns the node of level L between two horizontally neighbouring nodes of level L.
+     *
+     * @param west western node
+     * @param east eastern node
+     * @return node between them
+     */
+    private Node horizontalCenter(Node west, Node east) {
+        return join(west.ne, east.nw, west.se, east.sw);
+    }
+
+    /**
+     * Returns the node of level L between two vertically neighbouring nodes of level L.
+     *
+     * @param north northern node
+     * @param south southern node
+     * @return node between them
+     */
+    private Node verticalCenter(Node north, Node south) {
+        return join(north.sw, north.se, south.nw, south.ne);
+    }
+
+    /**
+     * Returns a node twice the size of the given node with the given node in its center.
+     *
+     * @param node node to expand
+     * @return expanded node
+     */
+    private Node expand(Node node) {
+        Node border = empty(node.level - 1);
+
+        return join(
+                join(border, border, border, node.nw),
+                join(border, border, node.ne, border),
+                join(border, node.sw, border, border),
+                join(node.se, border, border, border));
+    }
+
+    /**
+     * Returns the canonical node with the given quadrants, creates it if it doesn't exist yet.
+     *
+     * @param nw north-western quadrant
+     * @param ne north-eastern quadrant
+     * @param sw south-western quadrant
+     * @param se south-eastern quadrant
+     * @return canonical node
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se) {
+        int hash = hash(nw, ne, sw, se);
+        int index = hash & (buckets.length - 1);
+
+        for (Node node = buckets[index]; node != null; node = node.next)
+            if (node.nw == nw && node.ne == ne && node.sw == sw && node.se == se)
+                return node;
+
+        Node node = new Node(nw, ne, sw, se, hash, nextId++);
+        node.next = buckets[index];
+        buckets[index] = node;
+        nodeCount++;
+
+        if (nodeCount > buckets.length - (buckets.length >> 2))
+            rehash(buckets.length << 1);
+
+        return node;
+    }
+
+    /**
+     * Mixes the ids of the quadrants to the hash of a node.
+     *
+     * @return hash of the node
+     */
+    private static int hash(Node nw, Node ne, Node sw, Node se) {
+        int hash = nw.id;
+        hash = hash * 0x9E3779B1 + ne.id;
+        hash = hash * 0x9E3779B1 + sw.id;
+        hash = hash * 0x9E3779B1 + se.id;
+        return hash ^ hash >>> 15;
+    }
+
+    /**
+     * Moves all cached nodes into a new table of the given size.
+     *
+     * @param size amount of buckets, a power of two
+     */
+    private void rehash(int size) {
+        Node[] oldBuckets = buckets;
+        buckets = new Node[size];
+
+        for (Node bucket : oldBuckets)
+            for (Node node = bucket; node != null; ) {
+                Node next = node.next;
+                insert(node);
+                node = next;
+            }
+    }
+
+    /**
+     * Adds a node to the cache without checking if it exists already.
+     *
+     * @param node node to add
+     */
+    private void insert(Node node) {
+        int index = node.hash & (buckets.length - 1);
+        node.next = buckets[index];
+        buckets[index] = node;
+    }
+
+    /**
+     * Removes all nodes from the cache which can't be reached from the universe or the empty nodes.
+     * Remembered results are kept as long as this frees enough memory, otherwise they are dropped as well.
+     */
+    private void collectGarbage() {
+        rebuildCache(true);
+        if (nodeCount > maxNodes >> 1)
+            rebuildCache(false);
+    }
+
+    /**
+     * Empties the cache and adds all nodes reachable from the universe and the empty nodes again.
+     *
+     * @param keepResults if remembered results are followed as well, otherwise they get removed
+     */
+    private void rebuildCache(boolean keepResults) {
+        Node[] oldBuckets = buckets;
+        buckets = new Node[oldBuckets.length];
+        nodeCount = 0;
+
+        // nodes which got added again are marked with the id of this run
+        int mark = nextId++;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        for (Node empty : emptyNodes)
+            stack.push(empty);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.level == 0 || node.mark == mark)
+                continue;
+
+            node.mark = mark;
+            insert(node);
+            nodeCount++;
+
+            stack.push(node.nw);
+            stack.push(node.ne);
+            stack.push(node.sw);
+            stack.push(node.se);
+            if (!keepResults)
+                node.result = null;
+            else if (node.result != null)
+                stack.push(node.result);
+        }
+    }
+
+    /**
+     * Returns the canonical node of the given level without live cells.
+     *
+     * @param level level of the node
+     * @return empty node
+     */
+    private Node empty(int level) {
+        if (level >= emptyNodes.length) {
+            Node[] nodes = Arrays.copyOf(emptyNodes, level + 1);
+            for (int i = emptyNodes.length; i <= level; i++)
+                nodes[i] = join(nodes[i - 1], nodes[i - 1], nodes[i - 1], nodes[i - 1]);
+            emptyNodes = nodes;
+        }
+
+        return emptyNodes[level];
+    }
+
+    /**
+     * Returns the leaf for a dead or live cell.
+     *
+     * @param alive 1 for a live cell, 0 for a dead cell
+     * @return leaf node
+     */
+    private static Node leaf(int alive) {
+        return alive != 0 ? ALIVE : DEAD;
+    }
+
+    /**
+     * Returns a snapshot of the window between (0, 0) and (width, height).
+     *
+     * @return snapshot of the board
+     */
+    @Override
+    public BoardSnapshot getBoard() {
+        byte[] cells = new byte[width * height];
+        long half = 1L << (root.level - 1);
+        render(root, -half, -half, cells);
+
+        return new BoardSnapshot(width, height, generation, cells);
+    }
+
+    /**
+     * Writes the live cells of a node which are inside the window into the given array.
+     *
+     * @param node  node to render
+     * @param left  x-coordinate of the western border of the node
+     * @param top   y-coordinate of the northern border of the node
+     * @param cells cells of the window stored row by row
+     */
+    private void render(Node node, long left, long top, byte[] cells) {
+        long size = 1L << node.level;
+        if (node.population == 0 || left >= width || top >= height || left + size <= 0 || top + size <= 0)
+            return;
+
+        if (node.level == 0) {
+            cells[(int) top * width + (int) left] = 1;
+            return;
+        }
+
+        long half = size >> 1;
+        render(node.nw, left, top, cells);
+        render(node.ne, left + half, top, cells);
+        render(node.sw, left, top + half, cells);
+        render(node.se, left + half, top + half, cells);
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Populates the window with live cells at random positions, every dead cell in the window has the same chance to
+     * become alive. If given amount exceeds the amount of dead cells in the window, latter is used.
+     * <p>
+     * Like <code>Simulation</code>, every row gets a share of the amount in proportion to its dead cells and picks its
+     * cells with a partial shuffle of its dead cells, see <code>DeadCellSampler</code>.
+     *
+     * @param amount amount of cells to populate
+     */
+    @Override
+    public void populate(int amount) {
+        BoardSnapshot board = getBoard();
+        int[] deadCells = new int[height];
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (board.getCell(x, y) == 0)
+                    deadCells[y]++;
+
+        int[] shares = DeadCellSampler.getShares(deadCells, amount, random);
+        SplittableRandom rowRandom = null;
+        int[] candidates = new int[width];
+        for (int y = 0; y < height; y++) {
+            if (shares[y] == 0)
+                continue;
+            if (rowRandom == null)
+                rowRandom = random.split();
+
+            int dead = 0;
+            for (int x = 0; x < width; x++)
+                if (board.getCell(x, y) == 0)
+                    candidates[dead++] = x;
+
+            int row = y;
+            DeadCellSampler.select(candidates, dead, shares[y], rowRandom, x -> setCell(x, row, 1));
+        }
+    }
+
+    /**
+     * Sets the rule and creates the lookup table of 4x4 blocks for it. Remembered results of the previous rule are
+     * removed. Rules with births from 0 neighbours aren't supported, they would fill the unbounded plane.
+     *
+     * @param rule new rule
+     * @throws IllegalArgumentException if the rule contains B0
+     */
+    @Override
+    public void setRule(Rule rule) {
+        if (rule.isBorn(0))
+            throw new IllegalArgumentException("rules with B0 aren't supported on an unbounded plane: " + rule);
+
+        baseResults = rule.equals(Rule.CONWAY) ? CONWAY_RESULTS : createBaseResults(rule);
+        rebuildCache(false);
+    }
+
+    /**
+     * Sets the source of random numbers, which are only used for populating. Generations don't depend on them.
+     *
+     * @param random source of random numbers
+     */
+    @Override
+    public void setRandom(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Removes all live cells of the universe and copies the live cells of the given board into the window, every type
+     * above 0 becomes a live cell. Cached results are kept, so known patterns stay fast.
+     *
+     * @param board      board to copy, has to be of the same size as the window
+     * @param generation generation of the board
+     */
+    @Override
+    public void setBoard(Board board, long generation) {
+        if (board.getWidth() != width || board.getHeight() != height)
+            throw new IllegalArgumentException("board has a different size");
+
+        root = empty(3);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (board.getCell(x, y) > 0)
+                    setCell(x, y, 1);
+
+        this.generation = generation;
+    }
+
+    /**
+     * Sets cell at given coordinates to live if the type is above 0, otherwise to dead.
+     * Coordinates get checked if they fit in the window.
+     *
+     * @param x    x-coordinate of the cell
+     * @param y    y-coordinate of the cell
+     * @param type type of the cell
+     */
+    @Override
+    public void setCell(int x, int y, int type) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return;
+
+        while (x >= 1L << (root.level - 1) || y >= 1L << (root.level - 1))
+            root = expand(root);
+
+        long half = 1L << (root.level - 1);
+        root = setCell(root, x + half, y + half, leaf(type > 0 ? 1 : 0));
+    }
+
+    /**
+     * Returns a copy of the node where the cell at the given coordinates is replaced by the given leaf.
+     *
+     * @param node node containing the cell
+     * @param x    x-coordinate relative to the western border of the node
+     * @param y    y-coordinate relative to the northern border of the node
+     * @param leaf new leaf of the cell
+     * @return changed node
+     */
+    private Node setCell(Node node, long x, long y, Node leaf) {
+        if (node.level == 0)
+            return leaf;
+
+        long half = 1L << (node.level - 1);
+        if (y < half) {
+            if (x < half)
+                return join(setCell(node.nw, x, y, leaf), node.ne, node.sw, node.se);
+            return join(node.nw, setCell(node.ne, x - half, y, leaf), node.sw, node.se);
+        }
+        if (x < half)
+            return join(node.nw, node.ne, setCell(node.sw, x, y - half, leaf), node.se);
+        return join(node.nw, node.ne, node.sw, setCell(node.se, x - half, y - half, leaf));
+    }
+
+    /**
+     * Returns 1, all live cells have the same type.
+     *
+     * @return amount of live cell types
+     */
+    @Override
+    public int getCellTypes() {
+        return 1;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Square of 2^level x 2^level cells, consisting of four quadrants of the level below.
+     * Nodes of level 0 are single cells.
+     */
+    private static final class Node {
+        final Node nw;
+        final Node ne;
+        final Node sw;
+        final Node se;
+        final int level;
+        final long population;
+        final int hash;
+        final int id;
+        Node next;
+        Node result;
+        int resultExponent;
+        int mark;
+
+        Node(int population, int id) {
+            nw = ne = sw = se = null;
+            level = 0;
+            this.population = population;
+            hash = id;
+            this.id = id;
+        }
+
+        Node(Node nw, Node ne, Node sw, Node se, int hash, int id) {
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            level = nw.level + 1;
+            population = nw.population + ne.population + sw.population + se.population;
+            this.hash = hash;
+            this.id = id;
+        }
+
+        /**
+         * Returns 1 if the cell at the given coordinates of a node of level 2 is alive, otherwise 0.
+         *
+         * @param x x-coordinate between 0 and 3
+         * @param y y-coordinate between 0 and 3
+         * @return state of the cell
+         */
+        int cell(int x, int y) {
+            Node quadrant = y < 2 ? (x < 2 ? nw : ne) : (x < 2 ? sw : se);
+            Node child = (y & 1) == 0 ? ((x & 1) == 0 ? quadrant.nw : quadrant.ne)
+                    : ((x & 1) == 0 ? quadrant.sw : quadrant.se);
+            return (int) child.population;
+        }
+    }
+}
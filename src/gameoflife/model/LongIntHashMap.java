@@ -0,0 +1,207 @@
+package gameoflife.model;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from <code>long</code> keys to <code>int</code> values without boxing.
+ * Entries are stored with open addressing and linear probing in two parallel arrays. A value of 0 means that no entry
+ * exists, so storing 0 removes the key.
+ */
+public class LongIntHashMap {
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Visitor which gets called for every entry of the map.
+     */
+    public interface EntryVisitor {
+
+        /**
+         * Gets called for an entry of the map.
+         *
+         * @param key   key of the entry
+         * @param value value of the entry, never 0
+         */
+        void visit(long key, int value);
+    }
+
+    /**
+     * Creates an empty map with room for a few entries.
+     */
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map which can hold the given amount of entries without growing.
+     *
+     * @param expectedSize expected amount of entries
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the value stored for the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry, 0 if the key doesn't exist
+     */
+    public int get(long key) {
+        for (int slot = slot(key); ; slot = slot + 1 & mask) {
+            if (values[slot] == 0)
+                return 0;
+            if (keys[slot] == key)
+                return values[slot];
+        }
+    }
+
+    /**
+     * Stores a value for the given key, a value of 0 removes the key.
+     *
+     * @param key   key of the entry
+     * @param value new value of the entry
+     */
+    public void put(long key, int value) {
+        if (value == 0) {
+            remove(key);
+            return;
+        }
+
+        int slot = slot(key);
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = slot + 1 & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) >> 1)
+            resize((mask + 1) << 1);
+    }
+
+    /**
+     * Adds the given amount to the value of the given key, a missing key counts as 0.
+     *
+     * @param key    key of the entry
+     * @param amount amount to add, must not result in 0
+     * @return new value of the entry
+     */
+    public int add(long key, int amount) {
+        int slot = slot(key);
+        while (values[slot] != 0) {
+            if (keys[slot] == key)
+                return values[slot] += amount;
+            slot = slot + 1 & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = amount;
+        if (++size > (mask + 1) >> 1)
+            resize((mask + 1) << 1);
+        return amount;
+    }
+
+    /**
+     * Removes the given key, entries behind it get moved back so probing doesn't stop early.
+     *
+     * @param key key of the entry
+     */
+    public void remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != 0 && keys[slot] != key)
+            slot = slot + 1 & mask;
+        if (values[slot] == 0)
+            return;
+
+        size--;
+        int gap = slot;
+        for (slot = gap + 1 & mask; values[slot] != 0; slot = slot + 1 & mask) {
+            int home = slot(keys[slot]);
+            // the entry may only move to the gap if the gap lies between its home slot and its current slot
+            if ((slot - home & mask) >= (slot - gap & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = 0;
+    }
+
+    /**
+     * Removes all entries but keeps the allocated capacity.
+     */
+    public void clear() {
+        if (size == 0)
+            return;
+
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * Returns the amount of entries.
+     *
+     * @return amount of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calls the visitor for every entry. The map must not be changed while visiting.
+     *
+     * @param visitor visitor to call
+     */
+    public void forEach(EntryVisitor visitor) {
+        long[] keys = this.keys;
+        int[] values = this.values;
+
+        for (int slot = 0; slot < values.length; slot++)
+            if (values[slot] != 0)
+                visitor.visit(keys[slot], values[slot]);
+    }
+
+    /**
+     * Returns the preferred slot of a key.
+     *
+     * @param key key of an entry
+     * @return index in the arrays
+     */
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * Moves all entries into arrays of the given capacity.
+     *
+     * @param capacity new capacity, a power of two
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+
+        for (int slot = 0; slot < oldValues.length; slot++)
+            if (oldValues[slot] != 0) {
+                int newSlot = slot(oldKeys[slot]);
+                while (values[newSlot] != 0)
+                    newSlot = newSlot + 1 & mask;
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+    }
+}
@@ -0,0 +1,50 @@
+package gameoflife.model;
+
+/**
+ * Finds the most common type among the live neighbours of a cell which becomes alive.
+ * A cell has at most eight neighbours, so instead of a histogram over all types, every neighbour counts how many
+ * neighbours share its type. The cost therefore doesn't grow with the amount of types, and the comparisons compile
+ * to conditional moves instead of branches.
+ */
+final class MajorityVote {
+
+    private MajorityVote() {
+    }
+
+    /**
+     * Returns the most common type of the given neighbours. If several types are equally common, one of them is
+     * selected with the same chance for each, decided by the given random bits.
+     *
+     * @param types  types of the live neighbours, in a fixed order
+     * @param amount amount of live neighbours, between 1 and 8
+     * @param bits   random bits of the cell
+     * @return most common type
+     */
+    static int select(int[] types, int amount, long bits) {
+        // counts of up to 8 neighbours fit into 4 bits each
+        long counts = 0;
+        int maxCount = 0;
+        for (int i = 0; i < amount; i++) {
+            int count = 0;
+            for (int j = 0; j < amount; j++)
+                count += types[i] == types[j] ? 1 : 0;
+            counts |= (long) count << (i * 4);
+            maxCount = Math.max(maxCount, count);
+        }
+
+        // every tied type has maxCount neighbours, so picking one of these neighbours is uniform across types
+        int tied = 0;
+        for (int i = 0; i < amount; i++)
+            tied += (counts >>> (i * 4) & 0xF) == maxCount ? 1 : 0;
+        int selectedIndex = (int) ((bits & 0xFFFFFFFFL) * tied >>> 32);
+
+        int selected = types[0];
+        int seen = 0;
+        for (int i = 0; i < amount; i++) {
+            boolean isMax = (counts >>> (i * 4) & 0xF) == maxCount;
+            selected = isMax && seen == selectedIndex ? types[i] : selected;
+            seen += isMax ? 1 : 0;
+        }
+        return selected;
+    }
+}
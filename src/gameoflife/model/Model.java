@@ -1,17 +1,46 @@
 package gameoflife.model;
 
-import gameoflife.controller.Controller;
-
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * Calls <code>Simulation</code> to generate a new board, sends the new board to listeners when finished.
+ * Calls the selected <code>Engine</code> to generate a new board, sends the new board to listeners when finished.
+ * By default <code>Simulation</code> is used.
+ * <p>
+ * All accesses to the engine are synchronized on the model, so boards can be changed while another thread computes
+ * generations. Boards computed by <code>tick()</code> can be sampled with <code>getLatestBoard()</code>.
+ * <p>
+ * Generations computed while listeners are registered wait in a bounded queue until a separate thread has sent them
+ * to the listeners. If the queue is full, generations are dropped, unless a lossless listener is registered. Then the
+ * computing thread waits for free space, so recordings don't miss generations.
  */
 public class Model {
-    private Controller controller;
-    private final Simulation simulation;
+    private final List<BoardListener> listeners;
+    private final List<BoardListener> losslessListeners;
+    private volatile Engine engine;
+    private EngineType engineType;
+    private RandomSource random;
+    private Rule rule;
+    private int cellTypes;
+    private int threads;
+    private int tileSize;
+    private boolean isVectorized;
+    private volatile BoardSnapshot latestBoard;
+    private volatile boolean isLatestBoardRequested;
+
+    private final Object pipelineLock;
+    private final ExecutorService deliveryExecutor;
+    private final ArrayDeque<BoardSnapshot> queue;
+    private int queueCapacity;
+    private boolean isDeliveryScheduled;
+    private long delivered;
+    private long dropped;
+    private int maxQueued;
 
     /**
      * Class constructor forwarding axis parameters of the board to Simulation-Class.
@@ -19,48 +48,443 @@ public class Model {
      * @param height y-axis of board
      * @param width  x-axis of board
      */
-    public Model(Controller controller, int width, int height) {
-        this.controller = controller;
-        simulation = new Simulation(width, height);
+    public Model(int width, int height) {
+        this(width, height, Simulation.DEFAULT_CELL_TYPES);
+    }
+
+    /**
+     * Creates a model with a <code>Simulation</code> of the given size and amount of live cell types.
+     *
+     * @param width     x-axis of board
+     * @param height    y-axis of board
+     * @param cellTypes amount of live cell types, kept for all engines created later
+     * @throws IllegalArgumentException if the amount of cell types is out of range
+     */
+    public Model(int width, int height, int cellTypes) {
+        listeners = new CopyOnWriteArrayList<>();
+        losslessListeners = new CopyOnWriteArrayList<>();
+        this.cellTypes = cellTypes;
+        engineType = EngineType.MULTI_TYPE;
+        random = new RandomSource();
+        rule = Rule.CONWAY;
+        threads = Runtime.getRuntime().availableProcessors();
+        tileSize = 64;
+        isVectorized = true;
+        engine = createEngine(engineType, width, height);
+        latestBoard = engine.getBoard();
+
+        pipelineLock = new Object();
+        deliveryExecutor = Executors.newSingleThreadExecutor(runnable -> createDaemon(runnable, "delivery"));
+        queue = new ArrayDeque<>();
+        queueCapacity = 8;
+    }
+
+    /**
+     * Creates a daemon thread, so the executor of the model doesn't keep the application alive.
+     *
+     * @param runnable task of the thread
+     * @param name     name of the thread
+     * @return new thread
+     */
+    private static Thread createDaemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
     }
 
     /**
-     * Starts a thread to generate new board, then sends it to listeners.
+     * Adds a listener which gets every generation computed while it is registered, unless the generation gets
+     * dropped because the queue is full. Listeners are called on a separate thread in the order of the generations.
+     *
+     * @param listener listener to add
      */
-    public void compute() {
-        CompletableFuture<int[][]> future = CompletableFuture.supplyAsync(simulation::compute);
-        future.thenAcceptAsync(result -> {
-            controller.updateBoard(result);
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds a listener which gets every generation computed while it is registered. While it is registered, the
+     * thread computing the generations waits if the queue is full instead of dropping generations.
+     *
+     * @param listener listener to add
+     */
+    public void addLosslessListener(BoardListener listener) {
+        losslessListeners.add(listener);
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener, generations which are already queued might still be sent to it.
+     *
+     * @param listener listener to remove
+     */
+    public void removeListener(BoardListener listener) {
+        listeners.remove(listener);
+        if (losslessListeners.remove(listener)) {
+            synchronized (pipelineLock) {
+                pipelineLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Sets how many computed generations may wait for delivery to listeners.
+     *
+     * @param queueCapacity maximum amount of queued generations, values below 1 are treated as 1
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        synchronized (pipelineLock) {
+            this.queueCapacity = Math.max(1, queueCapacity);
+            pipelineLock.notifyAll();
+        }
+    }
+
+    /**
+     * Adds a generation to the queue and makes sure the delivery thread sends it to the listeners.
+     * If the queue is full, waits for free space while lossless listeners are registered, otherwise the generation is
+     * dropped.
+     *
+     * @param board generation to send
+     */
+    private void enqueue(BoardSnapshot board) {
+        synchronized (pipelineLock) {
+            while (queue.size() >= queueCapacity && !losslessListeners.isEmpty()) {
+                try {
+                    pipelineLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            if (queue.size() >= queueCapacity) {
+                dropped++;
+                return;
+            }
+
+            queue.add(board);
+            maxQueued = Math.max(maxQueued, queue.size());
+            if (isDeliveryScheduled)
+                return;
+            isDeliveryScheduled = true;
+        }
+
+        deliveryExecutor.execute(this::deliver);
+    }
+
+    /**
+     * Sends all queued generations to the listeners.
+     */
+    private void deliver() {
+        while (true) {
+            BoardSnapshot board;
+            synchronized (pipelineLock) {
+                board = queue.poll();
+                if (board == null) {
+                    isDeliveryScheduled = false;
+                    return;
+                }
+                pipelineLock.notifyAll();
+            }
+
+            for (BoardListener listener : listeners)
+                listener.updateBoard(board);
+
+            synchronized (pipelineLock) {
+                delivered++;
+            }
+        }
+    }
+
+    /**
+     * Returns the current counters of the queue of computed generations.
+     *
+     * @return statistics of delivered, queued and dropped generations
+     */
+    public ComputeStats getComputeStats() {
+        synchronized (pipelineLock) {
+            return new ComputeStats(delivered, dropped, queue.size(), maxQueued);
+        }
+    }
+
+    /**
+     * Generates a new board on the calling thread.
+     * Is used when boards are computed as fast as possible and only some of them are needed. A snapshot is only taken
+     * if one was requested by <code>getLatestBoard()</code> since the last snapshot, or if listeners are registered.
+     */
+    public synchronized void tick() {
+        engine.tick();
+        takeSnapshot();
+    }
+
+    /**
+     * Takes a snapshot of the new generation if one was requested or listeners are registered, the listeners get it
+     * through the queue.
+     */
+    private void takeSnapshot() {
+        if (!listeners.isEmpty()) {
+            latestBoard = engine.getBoard();
+            isLatestBoardRequested = false;
+            enqueue(latestBoard);
+        } else if (isLatestBoardRequested) {
+            isLatestBoardRequested = false;
+            latestBoard = engine.getBoard();
+        }
+    }
+
+    /**
+     * Advances the board by 2^<code>exponent</code> generations on the calling thread.
+     * <code>HashLifeSimulation</code> jumps over all of them in a single step, so listeners only get the last one.
+     * Other engines compute every generation like <code>tick()</code>.
+     *
+     * @param exponent base 2 logarithm of the amount of generations, between 0 and 62
+     * @throws IllegalArgumentException if the exponent is out of range
+     */
+    public synchronized void advance(int exponent) {
+        if (exponent < 0 || exponent > 62)
+            throw new IllegalArgumentException("exponent must be between 0 and 62: " + exponent);
+
+        if (!(engine instanceof HashLifeSimulation)) {
+            for (long i = 0; i < 1L << exponent; i++)
+                tick();
+            return;
+        }
+
+        ((HashLifeSimulation) engine).advance(exponent);
+        takeSnapshot();
+    }
+
+    /**
+     * Returns the latest board taken by <code>tick()</code> and requests a new one, which gets taken after the next
+     * generation. Never blocks, so it can be called at the refresh rate of the display independent of the speed of
+     * the computation.
+     *
+     * @return latest snapshot of the board
+     */
+    public BoardSnapshot getLatestBoard() {
+        isLatestBoardRequested = true;
+        return latestBoard;
+    }
+
+    /**
+     * Returns the amount of generations computed by the engine.
+     *
+     * @return current generation
+     */
+    public long getGeneration() {
+        return engine.getGeneration();
+    }
+
+    /**
+     * Sets the rule which decides about births and survival of cells, it is kept when the engine gets replaced.
+     *
+     * @param rule new rule
+     * @throws IllegalArgumentException if the engine doesn't support the rule
+     */
+    public synchronized void setRule(Rule rule) {
+        engine.setRule(rule);
+        this.rule = rule;
+    }
+
+    /**
+     * Returns the rule which decides about births and survival of cells.
+     *
+     * @return current rule
+     */
+    public synchronized Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * Sets the seed of all random decisions, so populating and computing generations get repeatable. Runs with the
+     * same seed, engine and board compute the same generations, no matter how many threads are used.
+     *
+     * @param seed seed of the random numbers
+     */
+    public synchronized void setSeed(long seed) {
+        random = new RandomSource(seed);
+        engine.setRandom(random);
+    }
+
+    /**
+     * Creates a new engine with the rule, random source and settings of the model.
+     *
+     * @param type   type of the new engine
+     * @param width  length of x-axis of board
+     * @param height length of y-axis of board
+     * @return new engine
+     * @throws IllegalArgumentException if the new engine doesn't support the current rule
+     */
+    private Engine createEngine(EngineType type, int width, int height) {
+        Engine next = type.create(width, height, cellTypes);
+        next.setRule(rule);
+        next.setRandom(random);
+        if (next instanceof Simulation) {
+            Simulation simulation = (Simulation) next;
+            simulation.setThreads(threads);
+            simulation.setTileSize(tileSize);
+            simulation.setVectorized(isVectorized);
+        }
+
+        return next;
+    }
+
+    /**
+     * Replaces the current engine and shuts it down.
+     *
+     * @param next new engine
+     */
+    private void replaceEngine(Engine next) {
+        Engine current = engine;
+        engine = next;
+        current.shutdown();
+    }
+
+    /**
+     * Replaces the current engine by a new engine of the given type.
+     * The live cells of the current board are copied into the new engine, the rule, random source, amount of threads,
+     * tile size and use of the Vector API are kept.
+     *
+     * @param type type of the new engine
+     * @throws IllegalArgumentException if the new engine doesn't support the current rule
+     */
+    public synchronized void setEngine(EngineType type) {
+        Engine next = createEngine(type, engine.getWidth(), engine.getHeight());
+        BoardSnapshot board = engine.getBoard();
+
+        for (int y = 0; y < board.getHeight(); y++)
+            for (int x = 0; x < board.getWidth(); x++)
+                if (board.getCell(x, y) > 0)
+                    next.setCell(x, y, board.getCell(x, y));
+
+        replaceEngine(next);
+        engineType = type;
+    }
+
+    /**
+     * Replaces the board by a saved board. If the saved board has a different size or more live cell types, a new
+     * engine of the current type is created for it. <code>Simulation</code> takes over the cells of the file without
+     * copying them, so the file doesn't hold a board afterwards.
+     *
+     * @param file saved board
+     */
+    public synchronized void load(BoardFile file) {
+        BoardSnapshot board = file.getBoard();
+        if (board.getWidth() != engine.getWidth() || board.getHeight() != engine.getHeight()
+                || file.getCellTypes() > cellTypes) {
+            cellTypes = Math.max(cellTypes, Math.min(file.getCellTypes(), Simulation.MAX_CELL_TYPES));
+            replaceEngine(createEngine(engineType, board.getWidth(), board.getHeight()));
+        }
+
+        if (engine instanceof Simulation)
+            ((Simulation) engine).adoptBoard(file.release());
+        else
+            engine.setBoard(board, board.getGeneration());
+        latestBoard = engine.getBoard();
+    }
+
+    /**
+     * Stamps the live cells of a pattern file onto the board, the cells are set while the file is read.
+     * Types of the pattern above the amount of live cell types of the engine are reduced to the highest type.
+     * Cells beyond the borders wrap around the torus, so the negative coordinates of Life 1.06 patterns land on the
+     * other side of the board instead of getting lost.
+     *
+     * @param path    path of the pattern file
+     * @param offsetX x-coordinate of the top left corner of the pattern on the board, of its origin for Life 1.06
+     * @param offsetY y-coordinate of the top left corner of the pattern on the board, of its origin for Life 1.06
+     * @param type    type of all stamped cells, 0 to keep the types of the pattern
+     * @return amount of live cells placed on the board
+     * @throws IOException if the file can't be read or isn't a valid pattern
+     */
+    public synchronized long importPattern(Path path, int offsetX, int offsetY, int type) throws IOException {
+        int cellTypes = engine.getCellTypes();
+        int width = engine.getWidth();
+        int height = engine.getHeight();
+        long[] placed = new long[1];
+        PatternReader.read(path, (x, y, patternType) -> {
+            engine.setCell(Math.floorMod((long) offsetX + x, width), Math.floorMod((long) offsetY + y, height),
+                    type > 0 ? type : Math.min(patternType, cellTypes));
+            placed[0]++;
         });
+        latestBoard = engine.getBoard();
+        return placed[0];
+    }
+
+    /**
+     * Returns the amount of live cell types of the engine.
+     *
+     * @return amount of live cell types
+     */
+    public int getCellTypes() {
+        return engine.getCellTypes();
     }
 
     /**
-     * Gets the 2D-Array from <code>Simulation</code> and returns it.
+     * Gets a snapshot of the board from the engine and returns it.
      * Is used for paint mode, where computation isn't needed.
      *
-     * @return 2D-Array
+     * @return snapshot of the board
      */
-    public int[][] getBoard() {
-        return simulation.getBoard();
+    public synchronized BoardSnapshot getBoard() {
+        latestBoard = engine.getBoard();
+        return latestBoard;
     }
 
     /**
-     * Tells the <code>Simulation</code> to populate the board with a given amount of live cells.
+     * Tells the engine to populate the board with a given amount of live cells.
      *
      * @param amount
      */
-    public void populate(int amount) {
-        simulation.populate(amount);
+    public synchronized void populate(int amount) {
+        engine.populate(amount);
+    }
+
+    /**
+     * Tells <code>Simulation</code> how many threads and which tile size to use for computing a generation.
+     * Has no effect on other engines, but is kept for engines created later.
+     *
+     * @param threads  amount of worker threads
+     * @param tileSize edge length of a tile in cells
+     */
+    public synchronized void setParallelism(int threads, int tileSize) {
+        this.threads = threads;
+        this.tileSize = tileSize;
+        if (engine instanceof Simulation) {
+            Simulation simulation = (Simulation) engine;
+            simulation.setThreads(threads);
+            simulation.setTileSize(tileSize);
+        }
+    }
+
+    /**
+     * Tells <code>Simulation</code> whether to compute with the Vector API if it is available.
+     * Has no effect on other engines, but is kept for engines created later.
+     *
+     * @param vectorized true to use the Vector API
+     */
+    public synchronized void setVectorized(boolean vectorized) {
+        isVectorized = vectorized;
+        if (engine instanceof Simulation)
+            ((Simulation) engine).setVectorized(vectorized);
+    }
+
+    /**
+     * Returns if the engine computes with the Vector API.
+     *
+     * @return true if the engine is a <code>Simulation</code> which uses the Vector API
+     */
+    public synchronized boolean isVectorized() {
+        return engine instanceof Simulation && ((Simulation) engine).isVectorized();
     }
 
     /**
-     * Tells the <code>Simulation</code> to set a specific cell to a given type.
+     * Tells the engine to set a specific cell to a given type.
      *
      * @param x    x-coordinate of the cell
      * @param y    y-coordinate of the cell
      * @param type type of the cell
      */
-    public void setCell(int x, int y, int type) {
-        simulation.setCell(x, y, type);
+    public synchronized void setCell(int x, int y, int type) {
+        engine.setCell(x, y, type);
     }
 }
@@ -0,0 +1,40 @@
+package gameoflife.model;
+
+import java.util.Locale;
+
+/**
+ * File formats of patterns which can be read by <code>PatternReader</code>.
+ */
+public enum PatternFormat {
+    /**
+     * Run length encoded cells, including the multi-state extension with letters for cell types.
+     */
+    RLE,
+
+    /**
+     * Plaintext <code>.cells</code> files where each line is a row and <code>O</code> marks a live cell.
+     */
+    PLAINTEXT,
+
+    /**
+     * Life 1.06 files where each line holds the coordinates of a live cell.
+     */
+    LIFE_106;
+
+    /**
+     * Returns the format belonging to the extension of the given file name.
+     *
+     * @param fileName name of the file
+     * @return format of the file, null if the extension is unknown
+     */
+    public static PatternFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".rle"))
+            return RLE;
+        if (name.endsWith(".cells"))
+            return PLAINTEXT;
+        if (name.endsWith(".lif") || name.endsWith(".life"))
+            return LIFE_106;
+        return null;
+    }
+}
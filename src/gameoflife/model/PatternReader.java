@@ -0,0 +1,317 @@
+package gameoflife.model;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming parser of pattern files in the formats of <code>PatternFormat</code>.
+ * Characters are read in blocks into an own buffer and parsed one by one, the live cells are handed to a visitor as
+ * soon as they are read. Memory therefore doesn't depend on the size of the file.
+ */
+public final class PatternReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private int line;
+
+    /**
+     * Visitor which gets called for every live cell of a pattern.
+     */
+    public interface CellVisitor {
+
+        /**
+         * Gets called for a live cell, coordinates are relative to the top left corner of the pattern. Life 1.06 files
+         * have no top left corner, their coordinates are relative to the origin of the pattern and may be negative.
+         *
+         * @param x    x-coordinate of the cell
+         * @param y    y-coordinate of the cell
+         * @param type type of the cell, 1 unless the pattern has several states
+         */
+        void visit(int x, int y, int type);
+    }
+
+    /**
+     * Creates a new parser reading from the given reader.
+     *
+     * @param reader source of the characters
+     */
+    private PatternReader(Reader reader) {
+        this.reader = reader;
+        buffer = new char[BUFFER_SIZE];
+        line = 1;
+    }
+
+    /**
+     * Reads a pattern file. The format is taken from the extension of the file or, if it is unknown, guessed from the
+     * first characters.
+     *
+     * @param path    path of the file
+     * @param visitor visitor of the live cells
+     * @return amount of live cells
+     * @throws IOException if the file can't be read or isn't a valid pattern
+     */
+    public static long read(Path path, CellVisitor visitor) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.ISO_8859_1)) {
+            return read(reader, PatternFormat.fromFileName(path.getFileName().toString()), visitor);
+        }
+    }
+
+    /**
+     * Reads a pattern in the given format.
+     *
+     * @param reader  source of the pattern, isn't closed
+     * @param format  format of the pattern, null to guess it from the first characters
+     * @param visitor visitor of the live cells
+     * @return amount of live cells
+     * @throws IOException if the pattern can't be read or is invalid
+     */
+    public static long read(Reader reader, PatternFormat format, CellVisitor visitor) throws IOException {
+        PatternReader parser = new PatternReader(reader);
+        if (format == null)
+            format = parser.guessFormat();
+
+        return switch (format) {
+            case RLE -> parser.readRle(visitor);
+            case PLAINTEXT -> parser.readPlaintext(visitor);
+            case LIFE_106 -> parser.readLife106(visitor);
+        };
+    }
+
+    /**
+     * Guesses the format from the first characters without consuming them.
+     *
+     * @return guessed format
+     * @throws IOException if the characters can't be read
+     */
+    private PatternFormat guessFormat() throws IOException {
+        fill();
+        String start = new String(buffer, 0, Math.min(limit, 10));
+        if (start.startsWith("#Life 1.06"))
+            return PatternFormat.LIFE_106;
+        if (start.startsWith("!") || start.startsWith(".") || start.startsWith("O"))
+            return PatternFormat.PLAINTEXT;
+        return PatternFormat.RLE;
+    }
+
+    /**
+     * Reads characters until the buffer is full or the end is reached.
+     *
+     * @throws IOException if the characters can't be read
+     */
+    private void fill() throws IOException {
+        while (limit < buffer.length) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0)
+                return;
+            limit += read;
+        }
+    }
+
+    /**
+     * Returns the next character, -1 at the end of the pattern.
+     *
+     * @return next character
+     * @throws IOException if the characters can't be read
+     */
+    private int next() throws IOException {
+        if (position == limit) {
+            position = 0;
+            limit = Math.max(0, reader.read(buffer));
+            if (limit == 0)
+                return -1;
+        }
+
+        char current = buffer[position++];
+        if (current == '\n')
+            line++;
+        return current;
+    }
+
+    /**
+     * Skips all characters up to and including the end of the line.
+     *
+     * @throws IOException if the characters can't be read
+     */
+    private void skipLine() throws IOException {
+        int current;
+        do
+            current = next();
+        while (current != '\n' && current != -1);
+    }
+
+    /**
+     * Creates an exception pointing to the current line.
+     *
+     * @param message description of the problem
+     * @return exception to throw
+     */
+    private IOException invalid(String message) {
+        return new IOException(message + " in line " + line);
+    }
+
+    /**
+     * Reads a pattern in run length encoding. Lines starting with <code>#</code> and the header line starting with
+     * <code>x</code> in front of the cells are skipped, the pattern ends at <code>!</code>. <code>b</code> and
+     * <code>.</code> are dead cells, <code>A</code> to <code>X</code> are the types 1 to 24 and a preceding
+     * <code>p</code> to <code>y</code> adds multiples of 24. Every other letter is a live cell of type 1.
+     *
+     * @param visitor visitor of the live cells
+     * @return amount of live cells
+     * @throws IOException if the pattern can't be read or is invalid
+     */
+    private long readRle(CellVisitor visitor) throws IOException {
+        long cells = 0;
+        int x = 0;
+        int y = 0;
+        int count = 0;
+        boolean isLineStart = true;
+        boolean isBody = false;
+
+        for (int current = next(); current != -1 && current != '!'; current = next()) {
+            if (isLineStart && (current == '#' || current == 'x' && !isBody)) {
+                skipLine();
+                continue;
+            }
+            isLineStart = current == '\n';
+            isBody = true;
+
+            if (current >= '0' && current <= '9') {
+                count = count * 10 + current - '0';
+                if (count > 1 << 24)
+                    throw invalid("run too long");
+                continue;
+            }
+            if (current == ' ' || current == '\t' || current == '\r' || current == '\n')
+                continue;
+
+            int run = Math.max(1, count);
+            count = 0;
+            if (current == '$') {
+                x = 0;
+                y += run;
+            } else if (current == 'b' || current == '.')
+                x += run;
+            else {
+                int type = 1;
+                if (current >= 'p' && current <= 'y') {
+                    int letter = next();
+                    if (letter < 'A' || letter > 'X')
+                        throw invalid("invalid state");
+                    type = (current - 'p' + 1) * 24 + letter - 'A' + 1;
+                } else if (current >= 'A' && current <= 'X')
+                    type = current - 'A' + 1;
+                else if (!Character.isLetter(current))
+                    throw invalid("unexpected character '" + (char) current + "'");
+
+                for (int i = 0; i < run; i++)
+                    visitor.visit(x++, y, type);
+                cells += run;
+            }
+        }
+
+        return cells;
+    }
+
+    /**
+     * Reads a plaintext pattern. Lines starting with <code>!</code> are comments, <code>.</code> is a dead cell and
+     * every other visible character a live cell.
+     *
+     * @param visitor visitor of the live cells
+     * @return amount of live cells
+     * @throws IOException if the pattern can't be read
+     */
+    private long readPlaintext(CellVisitor visitor) throws IOException {
+        long cells = 0;
+        int x = 0;
+        int y = 0;
+
+        for (int current = next(); current != -1; current = next()) {
+            if (x == 0 && current == '!') {
+                skipLine();
+                continue;
+            }
+
+            if (current == '\n') {
+                x = 0;
+                y++;
+            } else if (current == '.' || current == ' ' || current == '\t')
+                x++;
+            else if (current != '\r') {
+                visitor.visit(x++, y, 1);
+                cells++;
+            }
+        }
+
+        return cells;
+    }
+
+    /**
+     * Reads a pattern in Life 1.06 format. Lines starting with <code>#</code> are skipped, every other line holds the
+     * x- and y-coordinate of a live cell.
+     *
+     * @param visitor visitor of the live cells
+     * @return amount of live cells
+     * @throws IOException if the pattern can't be read or is invalid
+     */
+    private long readLife106(CellVisitor visitor) throws IOException {
+        long cells = 0;
+        long[] coordinates = new long[2];
+        int found = 0;
+        boolean isLineStart = true;
+        boolean isNegative = false;
+        boolean isNumber = false;
+
+        for (int current = next(); ; current = next()) {
+            if (isLineStart && current == '#') {
+                skipLine();
+                continue;
+            }
+            isLineStart = false;
+
+            if (current >= '0' && current <= '9') {
+                if (found == 2)
+                    throw invalid("more than two coordinates");
+                coordinates[found] = coordinates[found] * 10 + current - '0';
+                if (coordinates[found] > Integer.MAX_VALUE)
+                    throw invalid("coordinate too large");
+                isNumber = true;
+                continue;
+            }
+            if (current == '-' && !isNumber) {
+                isNegative = true;
+                continue;
+            }
+
+            if (isNumber) {
+                if (isNegative)
+                    coordinates[found] = -coordinates[found];
+                found++;
+                isNumber = false;
+                isNegative = false;
+                if (found < 2)
+                    coordinates[found] = 0;
+            } else if (isNegative)
+                throw invalid("'-' without number");
+
+            if (current == '\n' || current == -1) {
+                if (found == 2) {
+                    visitor.visit((int) coordinates[0], (int) coordinates[1], 1);
+                    cells++;
+                } else if (found == 1)
+                    throw invalid("missing y-coordinate");
+                found = 0;
+                coordinates[0] = 0;
+                isLineStart = true;
+                if (current == -1)
+                    return cells;
+            } else if (current != ' ' && current != '\t' && current != '\r')
+                throw invalid("unexpected character '" + (char) current + "'");
+        }
+    }
+}
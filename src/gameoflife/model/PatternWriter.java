@@ -0,0 +1,149 @@
+package gameoflife.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes boards as patterns in run length encoding, which can be read by <code>PatternReader</code> and other Game of
+ * Life programs. Boards with only one live cell type use <code>b</code> and <code>o</code>, other boards use the
+ * multi-state letters <code>.</code> and <code>A</code> to <code>X</code>, types above 24 get a prefix from
+ * <code>p</code> to <code>y</code>.
+ */
+public final class PatternWriter {
+    private static final int LINE_LENGTH = 70;
+    private final Writer writer;
+    private int lineLength;
+    private int pendingRows;
+
+    /**
+     * Creates a new writer of run length encoded cells.
+     *
+     * @param writer destination of the characters
+     */
+    private PatternWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes the board into the given file, an existing file gets replaced.
+     *
+     * @param path  path of the file
+     * @param board board to write
+     * @param rule  rule of the board
+     * @throws IOException if the file can't be written
+     */
+    public static void writeRle(Path path, Board board, Rule rule) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path),
+                StandardCharsets.ISO_8859_1), 1 << 16)) {
+            writeRle(writer, board, rule);
+        }
+    }
+
+    /**
+     * Writes the board in run length encoding. The pattern covers the whole board, so it ends up at the same
+     * coordinates when it gets imported at (0, 0).
+     *
+     * @param writer destination of the pattern, isn't closed
+     * @param board  board to write
+     * @param rule   rule of the board
+     * @throws IOException if the pattern can't be written
+     */
+    public static void writeRle(Writer writer, Board board, Rule rule) throws IOException {
+        boolean isMultiState = false;
+        for (int y = 0; y < board.getHeight() && !isMultiState; y++)
+            for (int x = 0; x < board.getWidth() && !isMultiState; x++)
+                isMultiState = board.getCell(x, y) > 1;
+
+        writer.write("x = " + board.getWidth() + ", y = " + board.getHeight() + ", rule = " + rule + "\n");
+        new PatternWriter(writer).writeCells(board, isMultiState);
+    }
+
+    /**
+     * Writes the cells row by row. Dead cells at the end of a row and empty rows at the end of the board are left
+     * out, empty rows in between are merged into the end of the previous row.
+     *
+     * @param board        board to write
+     * @param isMultiState true if types are written as letters
+     * @throws IOException if the cells can't be written
+     */
+    private void writeCells(Board board, boolean isMultiState) throws IOException {
+        for (int y = 0; y < board.getHeight(); y++) {
+            int x = 0;
+            while (x < board.getWidth()) {
+                int type = board.getCell(x, y);
+                int end = x + 1;
+                while (end < board.getWidth() && board.getCell(end, y) == type)
+                    end++;
+
+                // dead cells at the end of the row are implied by the end of the row
+                if (type == 0 && end == board.getWidth())
+                    break;
+
+                flushRows();
+                writeRun(end - x, isMultiState ? getState(type) : type == 0 ? "b" : "o");
+                x = end;
+            }
+            pendingRows++;
+        }
+
+        writeToken("!");
+        writer.write('\n');
+    }
+
+    /**
+     * Writes the ends of the rows since the last written cells.
+     *
+     * @throws IOException if the characters can't be written
+     */
+    private void flushRows() throws IOException {
+        if (pendingRows > 0)
+            writeRun(pendingRows, "$");
+        pendingRows = 0;
+    }
+
+    /**
+     * Returns the multi-state symbol of a cell type.
+     *
+     * @param type type of the cell
+     * @return <code>.</code> for dead cells, otherwise a letter with a prefix for types above 24
+     */
+    private static String getState(int type) {
+        if (type == 0)
+            return ".";
+
+        char letter = (char) ('A' + (type - 1) % 24);
+        int prefix = (type - 1) / 24;
+        return prefix == 0 ? String.valueOf(letter) : (char) ('p' + prefix - 1) + String.valueOf(letter);
+    }
+
+    /**
+     * Writes a run of equal symbols, the count is left out for a single symbol.
+     *
+     * @param count  length of the run
+     * @param symbol symbol of the run
+     * @throws IOException if the characters can't be written
+     */
+    private void writeRun(int count, String symbol) throws IOException {
+        writeToken(count == 1 ? symbol : count + symbol);
+    }
+
+    /**
+     * Writes a token and starts a new line before it if the line would get too long.
+     *
+     * @param token characters which must not be split
+     * @throws IOException if the characters can't be written
+     */
+    private void writeToken(String token) throws IOException {
+        if (lineLength + token.length() > LINE_LENGTH) {
+            writer.write('\n');
+            lineLength = 0;
+        }
+        writer.write(token);
+        lineLength += token.length();
+    }
+}
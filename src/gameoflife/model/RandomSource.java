@@ -0,0 +1,109 @@
+package gameoflife.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seedable source of random numbers for engines, so runs with the same seed compute the same generations.
+ * <p>
+ * Sequential numbers, for example for populating the board, come from a <code>SplittableRandom</code> which can be
+ * split into independent generators for parallel work. Random decisions while computing a generation use
+ * <code>getCellBits()</code> instead, which hashes the seed, the generation and the coordinates of a cell. The result
+ * doesn't depend on the order in which cells are computed, so it is the same no matter how the board is split
+ * between threads, and no state is shared between them.
+ */
+public final class RandomSource {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private final long seed;
+    private final SplittableRandom random;
+
+    /**
+     * Creates a new source with a random seed.
+     */
+    public RandomSource() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a new source with the given seed.
+     *
+     * @param seed seed of all random numbers
+     */
+    public RandomSource(long seed) {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns the seed of this source.
+     *
+     * @return seed of all random numbers
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the next random number between 0 (inclusive) and the given bound (exclusive).
+     *
+     * @param bound upper bound, has to be positive
+     * @return random number
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Returns the next random number between 0 (inclusive) and the given bound (exclusive).
+     *
+     * @param bound upper bound, has to be positive
+     * @return random number
+     */
+    public long nextLong(long bound) {
+        return random.nextLong(bound);
+    }
+
+    /**
+     * Returns the next random boolean.
+     *
+     * @return random boolean
+     */
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    /**
+     * Returns a new generator which is independent of this source, generators split off in the same order are the
+     * same for the same seed.
+     *
+     * @return new generator
+     */
+    public SplittableRandom split() {
+        return random.split();
+    }
+
+    /**
+     * Returns 64 random bits for a cell in a generation. The bits only depend on the seed, the generation and the
+     * coordinates, so every call with the same values returns the same bits.
+     *
+     * @param generation generation which gets computed
+     * @param x          x-coordinate of the cell
+     * @param y          y-coordinate of the cell
+     * @return random bits of the cell
+     */
+    public long getCellBits(long generation, int x, int y) {
+        long cell = (long) x << 32 | y & 0xFFFFFFFFL;
+        return mix(mix(seed + generation * GOLDEN_GAMMA) + cell * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Mixes the bits of the value, finalizer of SplitMix64.
+     *
+     * @param value value to mix
+     * @return mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ value >>> 30) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ value >>> 27) * 0x94D049BB133111EBL;
+        return value ^ value >>> 31;
+    }
+}
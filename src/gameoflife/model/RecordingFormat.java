@@ -0,0 +1,62 @@
+package gameoflife.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of recording files written by <code>RecordingWriter</code> and read by <code>RecordingReader</code>.
+ * <p>
+ * A file starts with a header of the magic number, the version, width and height of the board. Frames follow, each
+ * with a type, its generation and the length of its content. Keyframes store the whole board as runs of equal cells,
+ * each run as its length and the type of its cells. Deltas store the cells which changed since the previous frame, each
+ * as the distance to the previous changed cell and the new type. Lengths and distances are variable length integers
+ * with 7 bits per byte.
+ * <p>
+ * A closed file ends with an index, a frame whose generation field holds the amount of frames and whose content is
+ * the last generation followed by generation and position of each keyframe. Behind it follow the position of the
+ * index and a second magic number, so keyframes can be found without reading the whole file. Files without index, for
+ * example because the application ended while recording, are read by walking over the frame headers.
+ */
+final class RecordingFormat {
+    static final int MAGIC = 0x474F4C52;
+    static final int END_MAGIC = 0x474F4C45;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 13;
+    static final int TRAILER_SIZE = 12;
+    static final byte KEYFRAME = 0;
+    static final byte DELTA = 1;
+    static final byte INDEX = 2;
+
+    private RecordingFormat() {
+    }
+
+    /**
+     * Writes a positive value with 7 bits per byte, the highest bit marks that more bytes follow.
+     *
+     * @param buffer buffer to write to
+     * @param value  value to write, must not be negative
+     */
+    static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a value written by <code>putVarInt()</code>.
+     *
+     * @param buffer buffer to read from
+     * @return read value
+     */
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            if (current >= 0)
+                return value;
+        }
+    }
+}
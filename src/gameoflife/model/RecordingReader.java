@@ -0,0 +1,307 @@
+package gameoflife.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads recording files written by <code>RecordingWriter</code>, see <code>RecordingFormat</code> for the layout.
+ * Generations can be read one after another or by seeking to any generation, which decodes the closest keyframe
+ * before it and applies the following deltas.
+ * <p>
+ * The reader keeps the board of the current frame, so it must only be used by one thread at a time.
+ */
+public class RecordingReader implements Closeable {
+    private final FileChannel channel;
+    private final long size;
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private long[] keyframeGenerations;
+    private long[] keyframePositions;
+    private int keyframeCount;
+    private long frameCount;
+    private long lastGeneration;
+    private long endPosition;
+    private ByteBuffer frame;
+    private final ByteBuffer frameHeader;
+    private long position;
+    private long generation;
+
+    /**
+     * Opens a recording file and reads its index, files without index get scanned for their keyframes.
+     *
+     * @param path path of the file
+     * @throws IOException if the file can't be read or isn't a recording
+     */
+    public RecordingReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            ByteBuffer header = read(0, RecordingFormat.HEADER_SIZE);
+            if (header.getInt() != RecordingFormat.MAGIC || header.getInt() != RecordingFormat.VERSION)
+                throw new IOException("not a recording of a supported version: " + path);
+            width = header.getInt();
+            height = header.getInt();
+            cells = new byte[width * height];
+            frame = ByteBuffer.allocate(1 << 16);
+            frameHeader = ByteBuffer.allocate(RecordingFormat.FRAME_HEADER_SIZE);
+
+            if (!readIndex())
+                scanFrames();
+            if (keyframeCount == 0)
+                throw new IOException("recording doesn't contain any frames: " + path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        position = RecordingFormat.HEADER_SIZE;
+        generation = -1;
+    }
+
+    /**
+     * Reads the index at the end of the file.
+     *
+     * @return false if the file has no valid index
+     * @throws IOException if the file can't be read
+     */
+    private boolean readIndex() throws IOException {
+        if (size < RecordingFormat.HEADER_SIZE + RecordingFormat.FRAME_HEADER_SIZE + RecordingFormat.TRAILER_SIZE)
+            return false;
+
+        ByteBuffer trailer = read(size - RecordingFormat.TRAILER_SIZE, RecordingFormat.TRAILER_SIZE);
+        long indexPosition = trailer.getLong();
+        if (trailer.getInt() != RecordingFormat.END_MAGIC || indexPosition < RecordingFormat.HEADER_SIZE
+                || indexPosition > size - RecordingFormat.TRAILER_SIZE - RecordingFormat.FRAME_HEADER_SIZE)
+            return false;
+
+        ByteBuffer indexHeader = read(indexPosition, RecordingFormat.FRAME_HEADER_SIZE);
+        if (indexHeader.get() != RecordingFormat.INDEX)
+            return false;
+        frameCount = indexHeader.getLong();
+        int length = indexHeader.getInt();
+
+        ByteBuffer index = read(indexPosition + RecordingFormat.FRAME_HEADER_SIZE, length);
+        lastGeneration = index.getLong();
+        keyframeCount = (length - Long.BYTES) / (2 * Long.BYTES);
+        keyframeGenerations = new long[keyframeCount];
+        keyframePositions = new long[keyframeCount];
+        for (int i = 0; i < keyframeCount; i++) {
+            keyframeGenerations[i] = index.getLong();
+            keyframePositions[i] = index.getLong();
+        }
+        endPosition = indexPosition;
+        return true;
+    }
+
+    /**
+     * Walks over the frame headers to find the keyframes, a frame which isn't complete ends the recording.
+     *
+     * @throws IOException if the file can't be read
+     */
+    private void scanFrames() throws IOException {
+        keyframeGenerations = new long[16];
+        keyframePositions = new long[16];
+        keyframeCount = 0;
+        frameCount = 0;
+
+        long current = RecordingFormat.HEADER_SIZE;
+        while (current + RecordingFormat.FRAME_HEADER_SIZE <= size) {
+            ByteBuffer header = read(current, RecordingFormat.FRAME_HEADER_SIZE);
+            byte type = header.get();
+            long frameGeneration = header.getLong();
+            long next = current + RecordingFormat.FRAME_HEADER_SIZE + header.getInt();
+            if (type == RecordingFormat.INDEX || next > size)
+                break;
+
+            if (type == RecordingFormat.KEYFRAME) {
+                if (keyframeCount == keyframeGenerations.length) {
+                    keyframeGenerations = Arrays.copyOf(keyframeGenerations, keyframeCount * 2);
+                    keyframePositions = Arrays.copyOf(keyframePositions, keyframeCount * 2);
+                }
+                keyframeGenerations[keyframeCount] = frameGeneration;
+                keyframePositions[keyframeCount] = current;
+                keyframeCount++;
+            }
+            frameCount++;
+            lastGeneration = frameGeneration;
+            current = next;
+        }
+        endPosition = current;
+    }
+
+    /**
+     * Reads the given amount of bytes at the given position of the file into a new buffer.
+     *
+     * @param position position in the file
+     * @param length   amount of bytes
+     * @return buffer ready for reading
+     * @throws IOException if the bytes can't be read
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, position);
+        return buffer;
+    }
+
+    /**
+     * Fills the buffer with bytes of the file starting at the given position.
+     *
+     * @param buffer   buffer to fill, is flipped afterwards
+     * @param position position in the file
+     * @throws IOException if the end of the file is reached first
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0)
+                throw new IOException("unexpected end of recording");
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Reads the next frame and returns the board of its generation.
+     *
+     * @return board of the next frame, null if the end of the recording is reached
+     * @throws IOException if the frame can't be read
+     */
+    public BoardSnapshot next() throws IOException {
+        if (position >= endPosition)
+            return null;
+
+        readFrame(position);
+        return new BoardSnapshot(width, height, generation, cells.clone());
+    }
+
+    /**
+     * Returns the board of the given generation. If the generation wasn't recorded, the closest recorded generation
+     * before it is used, or the first one if the given generation lies before the recording.
+     * Following calls of <code>next()</code> continue behind the returned generation.
+     *
+     * @param target generation to seek to
+     * @return board of the found generation
+     * @throws IOException if the frames can't be read
+     */
+    public BoardSnapshot seek(long target) throws IOException {
+        // binary search for the last keyframe at or before the target
+        int low = 0;
+        int high = keyframeCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (keyframeGenerations[middle] <= target)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+
+        // deltas can only be applied to the current board if it lies between the keyframe and the target
+        if (generation < keyframeGenerations[low] || generation > target)
+            readFrame(keyframePositions[low]);
+
+        while (position < endPosition) {
+            frameHeader.clear();
+            readFully(frameHeader, position);
+            if (frameHeader.get() == RecordingFormat.INDEX || frameHeader.getLong() > target)
+                break;
+            readFrame(position);
+        }
+
+        return new BoardSnapshot(width, height, generation, cells.clone());
+    }
+
+    /**
+     * Reads the frame at the given position, applies it to the current board and moves behind it.
+     *
+     * @param framePosition position of the frame in the file
+     * @throws IOException if the frame can't be read
+     */
+    private void readFrame(long framePosition) throws IOException {
+        frameHeader.clear();
+        readFully(frameHeader, framePosition);
+        byte type = frameHeader.get();
+        long frameGeneration = frameHeader.getLong();
+        int length = frameHeader.getInt();
+
+        if (frame.capacity() < length)
+            frame = ByteBuffer.allocate(Math.max(length, frame.capacity() * 2));
+        frame.clear().limit(length);
+        readFully(frame, framePosition + RecordingFormat.FRAME_HEADER_SIZE);
+
+        if (type == RecordingFormat.KEYFRAME) {
+            int index = 0;
+            while (frame.hasRemaining()) {
+                int run = RecordingFormat.getVarInt(frame);
+                Arrays.fill(cells, index, index + run, frame.get());
+                index += run;
+            }
+        } else if (type == RecordingFormat.DELTA) {
+            int changed = frame.getInt();
+            int index = 0;
+            for (int i = 0; i < changed; i++) {
+                index += RecordingFormat.getVarInt(frame);
+                cells[index] = frame.get();
+            }
+        } else
+            throw new IOException("unknown frame type " + type);
+
+        generation = frameGeneration;
+        position = framePosition + RecordingFormat.FRAME_HEADER_SIZE + length;
+    }
+
+    /**
+     * Returns the length of the x-axis of the recorded board.
+     *
+     * @return width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the length of the y-axis of the recorded board.
+     *
+     * @return height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the generation of the first frame.
+     *
+     * @return first recorded generation
+     */
+    public long getFirstGeneration() {
+        return keyframeGenerations[0];
+    }
+
+    /**
+     * Returns the generation of the last frame.
+     *
+     * @return last recorded generation
+     */
+    public long getLastGeneration() {
+        return lastGeneration;
+    }
+
+    /**
+     * Returns the amount of recorded frames, skipped generations aren't included.
+     *
+     * @return amount of frames
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
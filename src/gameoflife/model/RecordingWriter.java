@@ -0,0 +1,279 @@
+package gameoflife.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes generations into a recording file, see <code>RecordingFormat</code> for the layout.
+ * Every few frames a keyframe with the whole board is written, other frames only store the changed cells. If the
+ * snapshots know their changed tiles, only those get compared.
+ * <p>
+ * Frames are collected in a buffer and written to the channel in large blocks. Generations have to be written in
+ * order, so the writer must only be used by one thread at a time.
+ */
+public class RecordingWriter implements FrameWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int keyframeInterval;
+    private ByteBuffer frame;
+    private long position;
+    private int width;
+    private int height;
+    private BoardSnapshot previous;
+    private int framesSinceKeyframe;
+    private long[] keyframeGenerations;
+    private long[] keyframePositions;
+    private int keyframeCount;
+    private long frameCount;
+
+    /**
+     * Creates a new recording file, an existing file gets replaced.
+     *
+     * @param path             path of the file
+     * @param keyframeInterval amount of frames between two keyframes
+     * @throws IOException if the file can't be created
+     */
+    public RecordingWriter(Path path, int keyframeInterval) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        frame = ByteBuffer.allocate(BUFFER_SIZE);
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        keyframeGenerations = new long[16];
+        keyframePositions = new long[16];
+    }
+
+    /**
+     * Writes a generation. The first generation also sets the size of the board, all further generations must have
+     * the same size.
+     *
+     * @param board snapshot of the generation
+     * @throws IOException if the generation can't be written
+     */
+    @Override
+    public void write(BoardSnapshot board) throws IOException {
+        if (previous == null) {
+            width = board.getWidth();
+            height = board.getHeight();
+            writeHeader();
+        } else if (board.getWidth() != width || board.getHeight() != height)
+            throw new IOException("size of the board changed while recording");
+
+        frame.clear();
+        byte type = RecordingFormat.DELTA;
+        if (previous == null || framesSinceKeyframe + 1 >= keyframeInterval || !encodeDelta(board)) {
+            frame.clear();
+            encodeKeyframe(board);
+            type = RecordingFormat.KEYFRAME;
+        }
+        frame.flip();
+
+        if (type == RecordingFormat.KEYFRAME) {
+            addKeyframe(board.getGeneration(), position);
+            framesSinceKeyframe = 0;
+        } else
+            framesSinceKeyframe++;
+
+        ensureRemaining(RecordingFormat.FRAME_HEADER_SIZE);
+        buffer.put(type).putLong(board.getGeneration()).putInt(frame.remaining());
+        position += RecordingFormat.FRAME_HEADER_SIZE;
+        put(frame);
+
+        previous = board;
+        frameCount++;
+    }
+
+    /**
+     * Writes the header of the file.
+     *
+     * @throws IOException if the header can't be written
+     */
+    private void writeHeader() throws IOException {
+        ensureRemaining(RecordingFormat.HEADER_SIZE);
+        buffer.putInt(RecordingFormat.MAGIC).putInt(RecordingFormat.VERSION).putInt(width).putInt(height);
+        position += RecordingFormat.HEADER_SIZE;
+    }
+
+    /**
+     * Stores the whole board as runs of equal cells in the frame buffer.
+     *
+     * @param board board to store
+     */
+    private void encodeKeyframe(BoardSnapshot board) {
+        byte[] cells = board.getCells();
+        int start = 0;
+        while (start < cells.length) {
+            int end = start + 1;
+            while (end < cells.length && cells[end] == cells[start])
+                end++;
+
+            ensureFrameRemaining(6);
+            RecordingFormat.putVarInt(frame, end - start);
+            frame.put(cells[start]);
+            start = end;
+        }
+    }
+
+    /**
+     * Stores the cells which changed since the previous frame in the frame buffer. Gives up if the delta would get
+     * larger than a quarter of the board, a keyframe is cheaper to read in this case.
+     *
+     * @param board board to store
+     * @return false if a keyframe should be written instead
+     */
+    private boolean encodeDelta(BoardSnapshot board) {
+        byte[] cells = board.getCells();
+        byte[] previousCells = previous.getCells();
+        int tileSize = board.getTileSize();
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int limit = cells.length / 4;
+        boolean[] changedTiles = new boolean[tilesX];
+
+        // count placeholder, gets replaced when the amount is known
+        frame.putInt(0);
+        int changed = 0;
+        int lastIndex = 0;
+        for (int tileY = 0; tileY * tileSize < height; tileY++) {
+            boolean isRowChanged = false;
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                changedTiles[tileX] = board.isTileChanged(tileX, tileY, previous);
+                isRowChanged |= changedTiles[tileX];
+            }
+            if (!isRowChanged)
+                continue;
+
+            // rows inside the tiles are visited from left to right, so the indices keep increasing
+            for (int y = tileY * tileSize; y < Math.min(height, (tileY + 1) * tileSize); y++)
+                for (int tileX = 0; tileX < tilesX; tileX++) {
+                    if (!changedTiles[tileX])
+                        continue;
+
+                    int offset = y * width;
+                    for (int x = tileX * tileSize; x < Math.min(width, (tileX + 1) * tileSize); x++)
+                        if (cells[offset + x] != previousCells[offset + x]) {
+                            if (++changed > limit)
+                                return false;
+
+                            ensureFrameRemaining(6);
+                            RecordingFormat.putVarInt(frame, offset + x - lastIndex);
+                            frame.put(cells[offset + x]);
+                            lastIndex = offset + x;
+                        }
+                }
+        }
+
+        frame.putInt(0, changed);
+        return true;
+    }
+
+    /**
+     * Makes sure the frame buffer has room for the given amount of bytes, grows it otherwise.
+     *
+     * @param bytes amount of bytes which get added
+     */
+    private void ensureFrameRemaining(int bytes) {
+        if (frame.remaining() >= bytes)
+            return;
+
+        ByteBuffer larger = ByteBuffer.allocate(frame.capacity() * 2);
+        frame.flip();
+        larger.put(frame);
+        frame = larger;
+    }
+
+    /**
+     * Remembers the position of a keyframe for the index.
+     *
+     * @param generation generation of the keyframe
+     * @param position   position of the keyframe in the file
+     */
+    private void addKeyframe(long generation, long position) {
+        if (keyframeCount == keyframeGenerations.length) {
+            keyframeGenerations = Arrays.copyOf(keyframeGenerations, keyframeCount * 2);
+            keyframePositions = Arrays.copyOf(keyframePositions, keyframeCount * 2);
+        }
+
+        keyframeGenerations[keyframeCount] = generation;
+        keyframePositions[keyframeCount] = position;
+        keyframeCount++;
+    }
+
+    /**
+     * Copies the given bytes into the buffer, full buffers get written to the channel.
+     *
+     * @param source bytes to write
+     * @throws IOException if the buffer can't be written
+     */
+    private void put(ByteBuffer source) throws IOException {
+        position += source.remaining();
+        while (source.hasRemaining()) {
+            if (!buffer.hasRemaining())
+                flush();
+
+            int length = Math.min(source.remaining(), buffer.remaining());
+            ByteBuffer part = source.duplicate();
+            part.limit(part.position() + length);
+            buffer.put(part);
+            source.position(source.position() + length);
+        }
+    }
+
+    /**
+     * Makes sure the buffer has room for the given amount of bytes, writes it to the channel otherwise.
+     *
+     * @param bytes amount of bytes which get added, at most the size of the buffer
+     * @throws IOException if the buffer can't be written
+     */
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush();
+    }
+
+    /**
+     * Writes the content of the buffer to the channel.
+     *
+     * @throws IOException if the buffer can't be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the index of the keyframes and closes the file.
+     *
+     * @throws IOException if the index can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (previous != null) {
+                long indexPosition = position;
+                ensureRemaining(RecordingFormat.FRAME_HEADER_SIZE);
+                buffer.put(RecordingFormat.INDEX).putLong(frameCount)
+                        .putInt(keyframeCount * 2 * Long.BYTES + Long.BYTES);
+                position += RecordingFormat.FRAME_HEADER_SIZE;
+
+                ensureRemaining(Long.BYTES);
+                buffer.putLong(previous.getGeneration());
+                for (int i = 0; i < keyframeCount; i++) {
+                    ensureRemaining(2 * Long.BYTES);
+                    buffer.putLong(keyframeGenerations[i]).putLong(keyframePositions[i]);
+                }
+
+                ensureRemaining(RecordingFormat.TRAILER_SIZE);
+                buffer.putLong(indexPosition).putInt(RecordingFormat.END_MAGIC);
+                flush();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
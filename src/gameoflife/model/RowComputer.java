@@ -0,0 +1,223 @@
+package gameoflife.model;
+
+/**
+ * Computes the next generation of a row segment of a board with a rule and an amount of live cell types, shared by
+ * <code>Simulation</code> and the strips of a distributed simulation, so both compute the same generations.
+ * The rows above and below are passed as indices into the cell array, so the caller decides how they wrap: through
+ * the borders of a board or into halo rows. Only the first and the last column of a row need wrapped neighbours, all
+ * other cells read their neighbours at fixed offsets, with the <code>RowKernel</code> if one is set.
+ * <p>
+ * The rule is turned into a lookup table, which is indexed by the amount of live neighbours, plus 9 if the cell is
+ * alive. The <code>RowKernel</code> gets the same rule as bit masks. Instances are immutable, so every setting change
+ * creates a new one.
+ */
+final class RowComputer {
+    private final boolean[] nextAlive;
+    private final int bornMask;
+    private final int survivingMask;
+    private final int cellTypes;
+    private final RowKernel kernel;
+    private final RandomSource random;
+
+    /**
+     * Creates the computation of a rule.
+     *
+     * @param rule      rule of the simulation
+     * @param cellTypes amount of live cell types
+     * @param kernel    kernel for the interior of the rows, null to compute every cell on its own
+     * @param random    random source deciding between equally common types of new cells
+     */
+    RowComputer(Rule rule, int cellTypes, RowKernel kernel, RandomSource random) {
+        nextAlive = new boolean[18];
+        for (int neighbours = 0; neighbours <= 8; neighbours++) {
+            nextAlive[neighbours] = rule.isBorn(neighbours);
+            nextAlive[9 + neighbours] = rule.isSurviving(neighbours);
+        }
+        bornMask = rule.getBirthMask();
+        survivingMask = rule.getSurvivalMask();
+        this.cellTypes = cellTypes;
+        this.kernel = kernel;
+        this.random = random;
+    }
+
+    /**
+     * Returns the kernel used for the interior of the rows.
+     *
+     * @return kernel, null if every cell is computed on its own
+     */
+    RowKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Computes the next generation of the cells from <code>from</code> to <code>to</code> of a row and writes it into
+     * the second buffer. The first and the last column of the row wrap around to the other side.
+     *
+     * @param cells          cells of the current generation
+     * @param nextCells      cells of the next generation
+     * @param width          length of the rows
+     * @param above          index of the first cell of the row above
+     * @param row            index of the first cell of the row
+     * @param below          index of the first cell of the row below
+     * @param from           x-coordinate of the first cell
+     * @param to             x-coordinate behind the last cell
+     * @param generation     generation of the cells, selects the random bits of new cells
+     * @param y              y-coordinate of the row on the whole board, selects the random bits of new cells
+     * @param neighbourTypes reused array for the types of the live neighbours
+     * @return               true if any cell changed
+     */
+    boolean computeRow(byte[] cells, byte[] nextCells, int width, int above, int row, int below, int from, int to,
+                       long generation, int y, int[] neighbourTypes) {
+        int interiorEnd = Math.min(to, width - 1);
+        int x = from;
+        boolean changed = false;
+
+        if (x == 0)
+            changed |= computeCell(cells, nextCells, width - 1, 0, width == 1 ? 0 : 1, above, row, below,
+                    generation, y, neighbourTypes);
+        x = Math.max(x, 1);
+
+        if (kernel != null && x < interiorEnd) {
+            if (kernel.computeSegment(cells, nextCells, above, row, below, x, interiorEnd, bornMask, survivingMask)) {
+                changed = true;
+                if (cellTypes > 1)
+                    setNewTypes(cells, nextCells, x, interiorEnd, above, row, below, generation, y, neighbourTypes);
+            }
+            x = interiorEnd;
+        }
+
+        for (; x < interiorEnd; x++)
+            changed |= computeCell(cells, nextCells, x - 1, x, x + 1, above, row, below, generation, y,
+                    neighbourTypes);
+
+        if (x < to)
+            changed |= computeCell(cells, nextCells, x - 1, x, 0, above, row, below, generation, y, neighbourTypes);
+
+        return changed;
+    }
+
+    /**
+     * Computes the next generation of a single cell and writes it into the second buffer. Whether the cell is alive
+     * in the next generation is looked up in the table of the rule by its state and amount of live neighbours.
+     * 1. Live cell with an amount of neighbours listed for survival keeps its type
+     * 2. Dead cell with an amount of neighbours listed for birth becomes a live cell of the most common type
+     * 3. If none of the above states, cell dies/stays dead.
+     * Neighbours are read from the given columns and rows, which are already wrapped through the borders.
+     *
+     * @param cells          cells of the current generation
+     * @param nextCells      cells of the next generation
+     * @param left           x-coordinate of the column left of the cell
+     * @param x              x-coordinate of the cell
+     * @param right          x-coordinate of the column right of the cell
+     * @param above          index of the first cell of the row above
+     * @param row            index of the first cell of the row of the cell
+     * @param below          index of the first cell of the row below
+     * @param generation     generation of the cells
+     * @param y              y-coordinate of the cell on the whole board
+     * @param neighbourTypes reused array for the types of the live neighbours
+     * @return               true if the cell changed
+     */
+    private boolean computeCell(byte[] cells, byte[] nextCells, int left, int x, int right, int above, int row,
+                                int below, long generation, int y, int[] neighbourTypes) {
+        byte current = cells[row + x];
+        int neighbours = isAlive(cells[above + left]) + isAlive(cells[above + x]) + isAlive(cells[above + right])
+                + isAlive(cells[row + left]) + isAlive(cells[row + right])
+                + isAlive(cells[below + left]) + isAlive(cells[below + x]) + isAlive(cells[below + right]);
+
+        byte next = current;
+        if (!nextAlive[(current != 0 ? 9 : 0) + neighbours])
+            next = 0;
+        else if (current == 0)
+            next = (byte) getNewType(cells, left, x, right, above, row, below, generation, y, neighbourTypes);
+
+        nextCells[row + x] = next;
+        return next != current;
+    }
+
+    /**
+     * Replaces the type 1 of cells born in a segment computed by the <code>RowKernel</code> by the type which
+     * surrounds them the most.
+     *
+     * @param cells          cells of the current generation
+     * @param nextCells      cells of the next generation
+     * @param from           x-coordinate of the first cell of the segment
+     * @param to             x-coordinate behind the last cell of the segment
+     * @param above          index of the first cell of the row above
+     * @param row            index of the first cell of the row
+     * @param below          index of the first cell of the row below
+     * @param generation     generation of the cells
+     * @param y              y-coordinate of the row on the whole board
+     * @param neighbourTypes reused array for the types of the live neighbours
+     */
+    private void setNewTypes(byte[] cells, byte[] nextCells, int from, int to, int above, int row, int below,
+                             long generation, int y, int[] neighbourTypes) {
+        for (int x = from; x < to; x++)
+            if (cells[row + x] == 0 && nextCells[row + x] != 0)
+                nextCells[row + x] = (byte) getNewType(cells, x - 1, x, x + 1, above, row, below, generation, y,
+                        neighbourTypes);
+    }
+
+    /**
+     * Returns 1 for a live cell and 0 for a dead cell.
+     *
+     * @param cell type of the cell
+     * @return 1 if the cell is alive
+     */
+    private static int isAlive(byte cell) {
+        return cell != 0 ? 1 : 0;
+    }
+
+    /**
+     * Determines the type of a cell which is born. If there are more than one type of cells, the new cell becomes the
+     * type which surrounds it the most. Equally common types have the same chance, the selection only depends on the
+     * seed, the generation and the coordinates of the cell.
+     * The live neighbours are collected row by row from left to right, the same order as in
+     * <code>SparseSimulation</code>.
+     *
+     * @param cells          cells of the current generation
+     * @param left           x-coordinate of the column left of the cell
+     * @param x              x-coordinate of the cell
+     * @param right          x-coordinate of the column right of the cell
+     * @param above          index of the first cell of the row above
+     * @param row            index of the first cell of the row of the cell
+     * @param below          index of the first cell of the row below
+     * @param generation     generation of the cells
+     * @param y              y-coordinate of the cell on the whole board
+     * @param neighbourTypes reused array for the types of the live neighbours
+     * @return               type of the new cell
+     */
+    private int getNewType(byte[] cells, int left, int x, int right, int above, int row, int below, long generation,
+                           int y, int[] neighbourTypes) {
+        if (cellTypes == 1)
+            return 1;
+
+        int found = 0;
+        found = addType(neighbourTypes, found, cells[above + left]);
+        found = addType(neighbourTypes, found, cells[above + x]);
+        found = addType(neighbourTypes, found, cells[above + right]);
+        found = addType(neighbourTypes, found, cells[row + left]);
+        found = addType(neighbourTypes, found, cells[row + right]);
+        found = addType(neighbourTypes, found, cells[below + left]);
+        found = addType(neighbourTypes, found, cells[below + x]);
+        found = addType(neighbourTypes, found, cells[below + right]);
+
+        // a birth without neighbours, only possible with B0, gets the first type
+        if (found == 0)
+            return 1;
+        return MajorityVote.select(neighbourTypes, found, random.getCellBits(generation, x, y));
+    }
+
+    /**
+     * Adds the type of a neighbour to the array if it is alive. The type is always written, but only kept if the
+     * neighbour is alive, so no branch is needed.
+     *
+     * @param neighbourTypes array for the types of the live neighbours
+     * @param found          amount of live neighbours found so far
+     * @param cell           type of the neighbour
+     * @return               amount of live neighbours found including this one
+     */
+    private static int addType(int[] neighbourTypes, int found, byte cell) {
+        neighbourTypes[found & 7] = cell & 0xFF;
+        return found + isAlive(cell);
+    }
+}
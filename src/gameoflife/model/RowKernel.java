@@ -0,0 +1,53 @@
+package gameoflife.model;
+
+/**
+ * Computes the next generation of a segment of a row of <code>Simulation</code> at once.
+ * Only used for interior segments, where the left and right neighbours of every cell lie inside the row, so
+ * neighbours can be read at fixed offsets. Cells which are born get type 1, <code>Simulation</code> replaces it by
+ * the most common type of the neighbours if there are more than one type.
+ * <p>
+ * The only implementation uses the incubating Vector API. It is compiled from <code>src-vector</code> on JDK 16 or
+ * newer and only works if the module <code>jdk.incubator.vector</code> is added at runtime, otherwise
+ * <code>Simulation</code> computes all cells on its scalar path.
+ */
+interface RowKernel {
+
+    /**
+     * Computes the next generation of the cells from <code>from</code> to <code>to</code> of a row and writes it into
+     * the second buffer.
+     *
+     * @param cells         cells of the current generation
+     * @param nextCells     cells of the next generation
+     * @param above         index of the first cell of the row above
+     * @param row           index of the first cell of the row
+     * @param below         index of the first cell of the row below
+     * @param from          x-coordinate of the first cell, at least 1
+     * @param to            x-coordinate behind the last cell, at most the width of the board minus 1
+     * @param bornMask      bit n is set if a dead cell with n live neighbours is born
+     * @param survivingMask bit n is set if a live cell with n live neighbours survives
+     * @return true if any cell of the segment changed
+     */
+    boolean computeSegment(byte[] cells, byte[] nextCells, int above, int row, int below, int from, int to,
+                           int bornMask, int survivingMask);
+
+    /**
+     * Returns the amount of cells computed with one instruction.
+     *
+     * @return amount of cells per vector
+     */
+    int getLanes();
+
+    /**
+     * Loads the kernel based on the Vector API.
+     *
+     * @return kernel, null if it wasn't compiled or the module <code>jdk.incubator.vector</code> isn't available
+     */
+    static RowKernel loadVectorKernel() {
+        try {
+            return (RowKernel) Class.forName("gameoflife.model.VectorRowKernel").getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
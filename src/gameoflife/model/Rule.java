@@ -0,0 +1,215 @@
+package gameoflife.model;
+
+import java.util.Locale;
+
+/**
+ * Rule of a life-like cellular automaton in birth/survival notation, for example <code>B3/S23</code> for Game of Life.
+ * A dead cell becomes alive if its amount of live neighbours is listed after <code>B</code>, a live cell survives if
+ * its amount is listed after <code>S</code>.
+ * <p>
+ * The rule is stored as bit masks where bit n is set if n neighbours lead to a live cell, engines turn them into
+ * lookup tables of their own layout.
+ */
+public final class Rule {
+    /**
+     * Game of Life, B3/S23.
+     */
+    public static final Rule CONWAY = parse("Conway", "B3/S23");
+    /**
+     * HighLife, B36/S23, which contains a replicator.
+     */
+    public static final Rule HIGHLIFE = parse("HighLife", "B36/S23");
+    /**
+     * Day &amp; Night, B3678/S34678, where live and dead cells behave the same.
+     */
+    public static final Rule DAY_AND_NIGHT = parse("Day & Night", "B3678/S34678");
+    /**
+     * Seeds, B2/S, where every live cell dies.
+     */
+    public static final Rule SEEDS = parse("Seeds", "B2/S");
+    /**
+     * Life without Death, B3/S012345678, where live cells never die.
+     */
+    public static final Rule LIFE_WITHOUT_DEATH = parse("Life without Death", "B3/S012345678");
+    /**
+     * Maze, B3/S12345, which grows maze-like structures.
+     */
+    public static final Rule MAZE = parse("Maze", "B3/S12345");
+    /**
+     * Replicator, B1357/S1357, where every pattern gets copied.
+     */
+    public static final Rule REPLICATOR = parse("Replicator", "B1357/S1357");
+    private static final Rule[] PRESETS = {CONWAY, HIGHLIFE, DAY_AND_NIGHT, SEEDS, LIFE_WITHOUT_DEATH, MAZE,
+            REPLICATOR};
+    private final String name;
+    private final int birth;
+    private final int survival;
+
+    /**
+     * Creates a new rule.
+     *
+     * @param name     name of the rule, null if it has none
+     * @param birth    bit n is set if a dead cell with n neighbours becomes alive
+     * @param survival bit n is set if a live cell with n neighbours survives
+     */
+    private Rule(String name, int birth, int survival) {
+        this.name = name;
+        this.birth = birth;
+        this.survival = survival;
+    }
+
+    /**
+     * Returns the rules which are known by name.
+     *
+     * @return known rules
+     */
+    public static Rule[] getPresets() {
+        return PRESETS.clone();
+    }
+
+    /**
+     * Parses a rulestring. Accepted are the name of a preset, <code>B3/S23</code> in any order and case and the older
+     * notation <code>23/3</code> with survival before birth.
+     *
+     * @param rule rulestring or name
+     * @return parsed rule
+     * @throws IllegalArgumentException if the rulestring is invalid
+     */
+    public static Rule parse(String rule) {
+        String trimmed = rule.trim();
+        for (Rule preset : PRESETS)
+            if (preset.name.equalsIgnoreCase(trimmed))
+                return preset;
+
+        Rule parsed = parse(null, trimmed);
+        for (Rule preset : PRESETS)
+            if (preset.equals(parsed))
+                return preset;
+        return parsed;
+    }
+
+    /**
+     * Parses a rulestring and names the rule.
+     *
+     * @param name name of the rule, null if it has none
+     * @param rule rulestring
+     * @return parsed rule
+     * @throws IllegalArgumentException if the rulestring is invalid
+     */
+    private static Rule parse(String name, String rule) {
+        String[] parts = rule.toUpperCase(Locale.ROOT).split("/", -1);
+        if (parts.length != 2)
+            throw new IllegalArgumentException("rule needs two parts separated by '/': " + rule);
+
+        int birth;
+        int survival;
+        if (parts[0].startsWith("B") && parts[1].startsWith("S")) {
+            birth = parseCounts(parts[0].substring(1), rule);
+            survival = parseCounts(parts[1].substring(1), rule);
+        } else if (parts[0].startsWith("S") && parts[1].startsWith("B")) {
+            survival = parseCounts(parts[0].substring(1), rule);
+            birth = parseCounts(parts[1].substring(1), rule);
+        } else {
+            survival = parseCounts(parts[0], rule);
+            birth = parseCounts(parts[1], rule);
+        }
+
+        return new Rule(name, birth, survival);
+    }
+
+    /**
+     * Parses a list of neighbour counts into a bit mask.
+     *
+     * @param counts digits between 0 and 8
+     * @param rule   whole rulestring for the error message
+     * @return bit mask of the counts
+     * @throws IllegalArgumentException if a character isn't a digit between 0 and 8
+     */
+    private static int parseCounts(String counts, String rule) {
+        int mask = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            char digit = counts.charAt(i);
+            if (digit < '0' || digit > '8')
+                throw new IllegalArgumentException("invalid neighbour count '" + digit + "' in rule " + rule);
+            mask |= 1 << (digit - '0');
+        }
+        return mask;
+    }
+
+    /**
+     * Returns if a dead cell with the given amount of live neighbours becomes alive.
+     *
+     * @param neighbours amount of live neighbours between 0 and 8
+     * @return true if the cell becomes alive
+     */
+    public boolean isBorn(int neighbours) {
+        return (birth >>> neighbours & 1) != 0;
+    }
+
+    /**
+     * Returns if a live cell with the given amount of live neighbours stays alive.
+     *
+     * @param neighbours amount of live neighbours between 0 and 8
+     * @return true if the cell survives
+     */
+    public boolean isSurviving(int neighbours) {
+        return (survival >>> neighbours & 1) != 0;
+    }
+
+    /**
+     * Returns the neighbour counts of births as bit mask, bit n is set if n neighbours lead to a birth.
+     *
+     * @return bit mask of births
+     */
+    public int getBirthMask() {
+        return birth;
+    }
+
+    /**
+     * Returns the neighbour counts of survival as bit mask, bit n is set if a cell with n neighbours survives.
+     *
+     * @return bit mask of survival
+     */
+    public int getSurvivalMask() {
+        return survival;
+    }
+
+    /**
+     * Returns the name of the rule, or the rulestring if it has no name.
+     *
+     * @return name of the rule
+     */
+    public String getName() {
+        return name != null ? name : toString();
+    }
+
+    /**
+     * Returns the rulestring in <code>B/S</code> notation.
+     *
+     * @return rulestring
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("B");
+        for (int neighbours = 0; neighbours <= 8; neighbours++)
+            if (isBorn(neighbours))
+                rule.append(neighbours);
+        rule.append("/S");
+        for (int neighbours = 0; neighbours <= 8; neighbours++)
+            if (isSurviving(neighbours))
+                rule.append(neighbours);
+        return rule.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Rule))
+            return false;
+        return birth == ((Rule) other).birth && survival == ((Rule) other).survival;
+    }
+
+    @Override
+    public int hashCode() {
+        return birth * 512 + survival;
+    }
+}
@@ -1,190 +1,515 @@
 package gameoflife.model;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
 /**
- * The Logic of Game of Life. Different cell types are possible, the amount is set in the constructor.
+ * The Logic of Game of Life. Up to 255 different cell types are possible, the amount is set in the constructor.
+ * The board is stored in two preallocated <code>CellGrid</code>s, one holds the current generation while the next one
+ * gets computed into the other, afterwards they are swapped.
+ * The board is split into square tiles. Only tiles which changed in the previous generation and their neighbours are
+ * computed, all other tiles can't change and are skipped.
+ * <p>
+ * If the Vector API is available, the interior of each row is computed by a <code>RowKernel</code> with many cells per
+ * instruction, see <code>setVectorized(boolean)</code>.
  */
-public class Simulation {
+public class Simulation implements Engine {
+    /**
+     * Amount of live cell types if none is given.
+     */
+    public static final int DEFAULT_CELL_TYPES = 5;
+    /**
+     * Highest amount of live cell types, a cell is stored in one byte.
+     */
+    public static final int MAX_CELL_TYPES = 255;
+    static final RowKernel VECTOR_KERNEL = RowKernel.loadVectorKernel();
     private final int width;
     private final int height;
-    private int[][] board;
+    private CellGrid board;
+    private CellGrid nextBoard;
+    private long generation;
     final private int cellTypes;
+    private int threads;
+    private int tileSize;
+    private int tilesX;
+    private int tilesY;
+    private boolean[] changedTiles;
+    private boolean[] activeTiles;
+    private long[] tileVersions;
+    private long version;
+    private ForkJoinPool pool;
+    private RandomSource random;
+    private Rule rule;
+    private RowKernel kernel;
+    private RowComputer rows;
 
     /**
-     * This constructor gets assigned the parameters which determine the size of the board, which is an 2D-Array.
-     * It sets the value for the available cell types and calls a method to populate the board with cells.
+     * This constructor gets assigned the parameters which determine the size of the board.
+     * The board starts empty with the default amount of live cell types.
      *
      * @param width  length of x-axis of board
      * @param height length of y-axis of board
      */
     public Simulation(int width, int height) {
+        this(width, height, DEFAULT_CELL_TYPES);
+    }
+
+    /**
+     * Creates an empty board with the given amount of live cell types.
+     *
+     * @param width     length of x-axis of board
+     * @param height    length of y-axis of board
+     * @param cellTypes amount of live cell types between 1 and <code>MAX_CELL_TYPES</code>
+     * @throws IllegalArgumentException if the amount of cell types is out of range
+     */
+    public Simulation(int width, int height, int cellTypes) {
+        if (cellTypes < 1 || cellTypes > MAX_CELL_TYPES)
+            throw new IllegalArgumentException("cell types must be between 1 and " + MAX_CELL_TYPES + ": " + cellTypes);
+
         this.width = width;
         this.height = height;
-        cellTypes = 5;
-        board = new int[height][width];
+        this.cellTypes = cellTypes;
+        random = new RandomSource();
+        board = new CellGrid(width, height);
+        nextBoard = new CellGrid(width, height);
+        setTileSize(64);
+        setThreads(Runtime.getRuntime().availableProcessors());
+        kernel = VECTOR_KERNEL;
+        setRule(Rule.CONWAY);
     }
 
     /**
-     * Populates the 2D-Array with live cells.
-     * If given amount exceeds the amount of dead cells, latter is used.
+     * Returns if the kernel based on the Vector API can be used. It needs the classes compiled from
+     * <code>src-vector</code> and the module <code>jdk.incubator.vector</code>, which has to be added with
+     * <code>--add-modules jdk.incubator.vector</code>.
      *
-     * @param amount
+     * @return true if the Vector API is available
      */
-    public void populate(int amount) {
-        int freeSpace = countDeadCells();
+    public static boolean isVectorAvailable() {
+        return VECTOR_KERNEL != null;
+    }
+
+    /**
+     * Switches between the kernel based on the Vector API and the scalar computation of every cell. Both compute the
+     * same generations. The Vector API is used by default if it is available.
+     *
+     * @param vectorized true to use the Vector API if it is available
+     */
+    public void setVectorized(boolean vectorized) {
+        kernel = vectorized ? VECTOR_KERNEL : null;
+        rows = new RowComputer(rule, cellTypes, kernel, random);
+    }
+
+    /**
+     * Returns if the interior of the rows is computed with the Vector API.
+     *
+     * @return true if the Vector API is used
+     */
+    public boolean isVectorized() {
+        return kernel != null;
+    }
 
-        // can't create more life than free space exists
-        int toCreate = Math.min(amount, freeSpace);
+    /**
+     * Returns the amount of cells computed at once by the Vector API.
+     *
+     * @return cells per vector, 1 if the Vector API isn't used
+     */
+    public int getVectorLanes() {
+        return kernel != null ? kernel.getLanes() : 1;
+    }
 
-        while (toCreate > 0) {
-            int x = (int) (Math.random() * width);
-            int y = (int) (Math.random() * height);
+    /**
+     * Sets the amount of threads used to compute a new generation.
+     * With one thread the board is computed on the calling thread, otherwise the tiles are distributed on a
+     * <code>ForkJoinPool</code> of the given size.
+     *
+     * @param threads amount of worker threads, values below 1 are treated as 1
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
 
-            if (board[y][x] == 0) {
-                board[y][x] = (int) (Math.random() * (cellTypes + 1));
-                toCreate--;
+        if (pool != null)
+            pool.shutdown();
+        pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+    }
+
+    /**
+     * Shuts down the thread pool, tiles are computed on the calling thread afterwards.
+     */
+    @Override
+    public void shutdown() {
+        setThreads(1);
+    }
+
+    /**
+     * Sets the edge length of the square tiles the board gets split into for parallel computation and for tracking
+     * changes. All tiles are treated as changed afterwards.
+     *
+     * @param tileSize edge length of a tile in cells, values below 1 are treated as 1
+     */
+    public void setTileSize(int tileSize) {
+        this.tileSize = Math.max(1, tileSize);
+        tilesX = (width + this.tileSize - 1) / this.tileSize;
+        tilesY = (height + this.tileSize - 1) / this.tileSize;
+        changedTiles = new boolean[tilesX * tilesY];
+        activeTiles = new boolean[tilesX * tilesY];
+        tileVersions = new long[tilesX * tilesY];
+        markAllChanged();
+    }
+
+    /**
+     * Returns the amount of threads used to compute a new generation.
+     *
+     * @return amount of worker threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the edge length of the tiles used for parallel computation and for tracking changes.
+     *
+     * @return edge length of a tile in cells
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Populates the board with live cells of random types, every dead cell has the same chance to become alive.
+     * If given amount exceeds the amount of dead cells, latter is used.
+     * <p>
+     * The dead cells of each tile are counted in parallel, then every tile gets a share of the amount in proportion
+     * to its dead cells, rounded up or down at random, so the chance of each dead cell stays the same and the shares
+     * add up exactly. Each tile picks its cells with a partial shuffle of its dead cells, so random numbers are only
+     * drawn for placed cells. Every tile gets its own generator split off in tile order, the result only depends on
+     * the seed of the random source and the tile size, not on the amount of threads.
+     *
+     * @param amount amount of cells to populate
+     */
+    @Override
+    public void populate(int amount) {
+        int tiles = tilesX * tilesY;
+        int[] deadCells = new int[tiles];
+        forEachTile(tile -> deadCells[tile] = countDeadCells(tile));
+
+        int[] shares = DeadCellSampler.getShares(deadCells, amount, random);
+        SplittableRandom[] randoms = new SplittableRandom[tiles];
+        version++;
+        for (int tile = 0; tile < tiles; tile++)
+            if (shares[tile] > 0) {
+                randoms[tile] = random.split();
+                changedTiles[tile] = true;
+                tileVersions[tile] = version;
             }
-        }
+
+        forEachTile(tile -> {
+            if (shares[tile] > 0)
+                populateTile(tile, shares[tile], randoms[tile]);
+        });
     }
 
     /**
-     * Counts the amount of dead cells and returns the value.
+     * Counts the amount of dead cells of the given tile and returns the value.
      *
+     * @param tile index of the tile, tiles are numbered row by row
      * @return amount of dead cells
      */
-    private int countDeadCells() {
+    private int countDeadCells(int tile) {
+        int startX = tile % tilesX * tileSize;
+        int startY = tile / tilesX * tileSize;
+        int endX = Math.min(startX + tileSize, width);
+        int endY = Math.min(startY + tileSize, height);
+        byte[] cells = board.cells;
         int counter = 0;
 
-        for (int y = 0; y < height; y++)
-            for (int x = 0; x < width; x++)
-                if (board[y][x] == 0)
+        for (int y = startY; y < endY; y++)
+            for (int x = startX; x < endX; x++)
+                if (cells[y * width + x] == 0)
                     counter++;
 
         return counter;
     }
 
     /**
-     * Creates new board and fills it with the next generation of board.
-     * Calls method for each cell to determine its future generation.
+     * Turns the given amount of random dead cells of the tile into live cells of random types.
+     *
+     * @param tile   index of the tile, tiles are numbered row by row
+     * @param amount amount of cells to populate, at most the amount of dead cells of the tile
+     * @param random generator of the tile
      */
-    public void tick() {
-        int[][] newBoard = new int[height][width];
-
-        for (int y = 0; y < height; y++)
-            for (int x = 0; x < width; x++)
-                newBoard[y][x] = getNextGeneration(board[y][x], x, y);
-
-        board = newBoard;
-    }
-
-    /**
-     * Checks neighbouring cells of cell, creates next generation of cell according to rules of Game Of Life.
-     * 1. Live cell with two or three live neighbour cells survives
-     * 2. Dead cell with three live neighbours becomes a live cell. If there are more than one type of cells, the new
-     *    cell becomes the type which surrounds it the most. Equal amount results in a random selection.
-     * 3. If none of the above states, cell dies/stays dead.
-     *
-     * @param type  0 means empty, everything above is a living cell type
-     * @param x     x-coordinate of cell
-     * @param y     y-coordinate of cell
-     * @return      next generation of cell
-     */
-    private int getNextGeneration(int type, int x, int y) {
-        //determine amount of neighbours
-        int neighbours = 0;
-        int[] neighbourType = new int[cellTypes + 1];
-        int mostCommonNeighbour = 0;
-        for (int checkY =  0; checkY < 3; checkY++)
-            for (int checkX = 0; checkX < 3; checkX++) {
-                int currentX = coordinateWithoutBorder(checkX + x - 1, width);
-                int currentY = coordinateWithoutBorder(checkY + y - 1, height);
-                int current = board[currentY][currentX];
-
-                // if the cell is alive, count neighbours of the same type
-                // if the cell dead (type 0), count all types of cells as neighbours
-                if (type > 0 && current != 0 || type == 0 && current > 0)
-                    //ignore itself
-                    if (checkX != 1 || checkY != 1) {
-                        neighbours++;
-                        neighbourType[current]++;
-                        if (neighbourType[current] > neighbourType[mostCommonNeighbour]
-                            || neighbourType[current] == neighbourType[mostCommonNeighbour] && isLucky())
-                            mostCommonNeighbour = current;
+    private void populateTile(int tile, int amount, SplittableRandom random) {
+        int startX = tile % tilesX * tileSize;
+        int startY = tile / tilesX * tileSize;
+        int endX = Math.min(startX + tileSize, width);
+        int endY = Math.min(startY + tileSize, height);
+        byte[] cells = board.cells;
+        int[] deadCells = new int[(endX - startX) * (endY - startY)];
+        int dead = 0;
+
+        for (int y = startY; y < endY; y++)
+            for (int x = startX; x < endX; x++)
+                if (cells[y * width + x] == 0)
+                    deadCells[dead++] = y * width + x;
+
+        DeadCellSampler.select(deadCells, dead, amount, random,
+                index -> cells[index] = (byte) (1 + random.nextInt(cellTypes)));
+    }
+
+    /**
+     * Marks every tile as changed, so all of them get computed in the next generation.
+     */
+    private void markAllChanged() {
+        version++;
+        Arrays.fill(changedTiles, true);
+        Arrays.fill(tileVersions, version);
+    }
+
+    /**
+     * Marks the tile containing the given cell as changed.
+     *
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     */
+    private void markChanged(int x, int y) {
+        int tile = y / tileSize * tilesX + x / tileSize;
+        version++;
+        changedTiles[tile] = true;
+        tileVersions[tile] = version;
+    }
+
+    /**
+     * Marks all tiles as active which changed in the previous generation or have a changed neighbour tile.
+     * Neighbours are searched through the borders of the board as well.
+     */
+    private void markActiveTiles() {
+        Arrays.fill(activeTiles, false);
+
+        for (int tileY = 0; tileY < tilesY; tileY++)
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                if (!changedTiles[tileY * tilesX + tileX])
+                    continue;
+
+                for (int checkY = -1; checkY <= 1; checkY++)
+                    for (int checkX = -1; checkX <= 1; checkX++) {
+                        int neighbourX = (tileX + checkX + tilesX) % tilesX;
+                        int neighbourY = (tileY + checkY + tilesY) % tilesY;
+                        activeTiles[neighbourY * tilesX + neighbourX] = true;
                     }
             }
+    }
+
+    /**
+     * Fills the second buffer with the next generation of board and swaps both buffers afterwards.
+     * The board is split into tiles which are computed in parallel if more than one thread is set, every tile is
+     * written by exactly one worker. Calls method for each cell to determine its future generation.
+     * <p>
+     * A skipped tile didn't change in the previous generation, so it already contains the same cells in both buffers.
+     */
+    @Override
+    public void tick() {
+        markActiveTiles();
+
+        forEachTile(this::computeTile);
 
-        //determine next generation
-        int nextGeneration;
-        if (board[y][x] == 0 && neighbours == 3) {
-            //new life
-            nextGeneration = mostCommonNeighbour;
-        } else if (board[y][x] > 0 && neighbours != 2 && neighbours != 3) {
-            //dead
-            nextGeneration = 0;
-        } else
-            //no change
-            nextGeneration = board[y][x];
+        CellGrid swap = board;
+        board = nextBoard;
+        nextBoard = swap;
+        generation++;
+        version++;
 
-        return nextGeneration;
+        for (int tile = 0; tile < changedTiles.length; tile++)
+            if (changedTiles[tile])
+                tileVersions[tile] = version;
     }
 
     /**
-     * 50% chance to return yes.
+     * Computes the next generation of all cells of the given tile if it is active and writes it into the second
+     * buffer. Remembers if any cell of the tile changed.
+     * The rows above and below are wrapped once per row, the rows themselves are computed by the
+     * <code>RowComputer</code>.
+     * The array for the types of the neighbours is shared by all cells of the tile.
      *
-     * @return boolean of chance creation
+     * @param tile index of the tile, tiles are numbered row by row
      */
-    private boolean isLucky() {
-       return Math.random() < 0.5;
+    private void computeTile(int tile) {
+        if (!activeTiles[tile]) {
+            changedTiles[tile] = false;
+            return;
+        }
+
+        int startX = tile % tilesX * tileSize;
+        int startY = tile / tilesX * tileSize;
+        int endX = Math.min(startX + tileSize, width);
+        int endY = Math.min(startY + tileSize, height);
+        int[] neighbourTypes = new int[8];
+        RowComputer rows = this.rows;
+        boolean changed = false;
+
+        for (int y = startY; y < endY; y++) {
+            int above = (y == 0 ? height - 1 : y - 1) * width;
+            int row = y * width;
+            int below = (y == height - 1 ? 0 : y + 1) * width;
+            changed |= rows.computeRow(board.cells, nextBoard.cells, width, above, row, below, startX, endX,
+                    generation, y, neighbourTypes);
+        }
+
+        changedTiles[tile] = changed;
     }
 
     /**
-     * If <code>coordinate</code> is smaller than zero or equal/bigger than <code>boardSize</code> it needs to be
-     * transformed to a value on the opposite site of the 2D-Array.
-     * This makes it possible for cells to travel as well as checking for neighbours through the borders.
+     * Calls the given action for every tile, in parallel if more than one thread is set.
      *
-     * @param coordinate current coordinate
-     * @param boardSize  either represents height or width of the 2D-Array
-     * @return           transformed coordinate
+     * @param action action which gets the index of a tile, tiles are numbered row by row
      */
-    private int coordinateWithoutBorder(int coordinate, int boardSize) {
-        if (coordinate < 0) coordinate = boardSize + coordinate % boardSize;
-        if (coordinate >= boardSize) coordinate %= boardSize;
-  
-        return coordinate;
+    private void forEachTile(IntConsumer action) {
+        if (pool == null)
+            for (int tile = 0; tile < changedTiles.length; tile++)
+                action.accept(tile);
+        else
+            pool.invoke(new TileTask(0, changedTiles.length, action));
     }
 
     /**
-     * Calls method to generate next generation of board and returns it.
+     * Returns a snapshot of the current generation, which isn't affected by following generations.
      *
-     * @return next generation of 2D-Array, each value represents a cell
+     * @return snapshot of the board
      */
-    public int[][] compute() {
-        tick();
-        return board;
+    @Override
+    public BoardSnapshot getBoard() {
+        return new BoardSnapshot(width, height, generation, board.copyCells(), this, version, tileSize,
+                tileVersions.clone());
     }
 
+    /**
+     * Returns the amount of generations computed so far.
+     *
+     * @return current generation
+     */
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public int getCellTypes() {
+        return cellTypes;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets the rule and turns it into a lookup table of the <code>RowComputer</code>, all tiles get computed in the
+     * next generation.
+     *
+     * @param rule new rule
+     */
+    @Override
+    public void setRule(Rule rule) {
+        this.rule = rule;
+        rows = new RowComputer(rule, cellTypes, kernel, random);
+        markAllChanged();
+    }
+
+    @Override
+    public void setRandom(RandomSource random) {
+        this.random = random;
+        rows = new RowComputer(rule, cellTypes, kernel, random);
+    }
 
     /**
-     * Returns 2D-Array that contains the cells.
+     * Replaces all cells by the cells of the given board, snapshots are copied as a whole.
+     * Types don't get checked for validity.
      *
-     * @return 2D-Array
+     * @param board      board to copy, has to be of the same size
+     * @param generation generation of the board
      */
-    public int[][] getBoard() {
-        return board;
+    @Override
+    public void setBoard(Board board, long generation) {
+        if (board.getWidth() != width || board.getHeight() != height)
+            throw new IllegalArgumentException("board has a different size");
+
+        if (board instanceof BoardSnapshot)
+            System.arraycopy(((BoardSnapshot) board).getCells(), 0, this.board.cells, 0, width * height);
+        else
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    this.board.setCell(x, y, board.getCell(x, y));
+
+        this.generation = generation;
+        markAllChanged();
+    }
+
+    /**
+     * Replaces all cells by the cells of the given board without copying them, the cell array of the snapshot becomes
+     * the current board. The snapshot must not be used afterwards.
+     * Types don't get checked for validity.
+     *
+     * @param board board to use, has to be of the same size
+     */
+    void adoptBoard(BoardSnapshot board) {
+        if (board.getWidth() != width || board.getHeight() != height)
+            throw new IllegalArgumentException("board has a different size");
+
+        this.board = new CellGrid(width, height, board.getCells());
+        generation = board.getGeneration();
+        markAllChanged();
     }
 
     /**
      * Sets cell at given coordinates to given type.
-     * Coordinates get checked if they fit in the 2D-Array.
+     * Coordinates get checked if they fit in the board.
      * Type doesn't get checked for validity.
      *
      * @param x    x-coordinate of the cell
      * @param y    y-coordinate of the cell
      * @param type type of the cell
      */
+    @Override
     public void setCell(int x, int y, int type) {
         if (x < 0 || y < 0 || x >= width || y >= height)
             return;
 
-        board[y][x] = type;
+        board.setCell(x, y, type);
+        markChanged(x, y);
+    }
+
+    /**
+     * Calls an action for a range of tiles, splits itself in halves until only a single tile is left.
+     * Tiles are numbered row by row.
+     */
+    @SuppressWarnings("serial")
+    private static class TileTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        TileTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(from, middle, action), new TileTask(middle, to, action));
+                return;
+            }
+
+            action.accept(from);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,286 @@
+package gameoflife.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The Logic of Game of Life on an unbounded plane. Different cell types are possible like in <code>Simulation</code>.
+ * Only live cells are stored, in a <code>LongIntHashMap</code> from packed coordinates to their type, so memory
+ * depends on the amount of live cells instead of the size of the board.
+ * <p>
+ * Coordinates are 32 bit integers, the board handed out by <code>getBoard()</code> is the window between (0, 0) and
+ * (width, height).
+ */
+public class SparseSimulation implements Engine {
+    private final int width;
+    private final int height;
+    private final int cellTypes;
+    private LongIntHashMap cells;
+    private LongIntHashMap nextCells;
+    private final LongIntHashMap neighbourCounts;
+    private final int[] neighbourTypes;
+    private long generation;
+    private RandomSource random;
+    private Rule rule;
+
+    /**
+     * Creates a new engine with an empty plane and the default amount of live cell types.
+     *
+     * @param width  length of x-axis of the displayed window
+     * @param height length of y-axis of the displayed window
+     */
+    public SparseSimulation(int width, int height) {
+        this(width, height, Simulation.DEFAULT_CELL_TYPES);
+    }
+
+    /**
+     * Creates a new engine with an empty plane and the given amount of live cell types.
+     *
+     * @param width     length of x-axis of the displayed window
+     * @param height    length of y-axis of the displayed window
+     * @param cellTypes amount of live cell types between 1 and <code>Simulation.MAX_CELL_TYPES</code>
+     * @throws IllegalArgumentException if the amount of cell types is out of range
+     */
+    public SparseSimulation(int width, int height, int cellTypes) {
+        if (cellTypes < 1 || cellTypes > Simulation.MAX_CELL_TYPES)
+            throw new IllegalArgumentException("cell types must be between 1 and " + Simulation.MAX_CELL_TYPES + ": "
+                    + cellTypes);
+
+        this.width = width;
+        this.height = height;
+        this.cellTypes = cellTypes;
+        cells = new LongIntHashMap();
+        nextCells = new LongIntHashMap();
+        neighbourCounts = new LongIntHashMap();
+        neighbourTypes = new int[8];
+        random = new RandomSource();
+        rule = Rule.CONWAY;
+    }
+
+    /**
+     * Packs coordinates into a key of the hash map.
+     *
+     * @param x x-coordinate of the cell
+     * @param y y-coordinate of the cell
+     * @return key of the cell
+     */
+    private static long key(int x, int y) {
+        return (long) x << 32 | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns the x-coordinate of a key.
+     *
+     * @param key key of the cell
+     * @return x-coordinate of the cell
+     */
+    private static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Returns the y-coordinate of a key.
+     *
+     * @param key key of the cell
+     * @return y-coordinate of the cell
+     */
+    private static int keyY(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Computes the next generation. Every live cell adds itself to the neighbour count of its eight neighbours, then
+     * the rule decides which live cells survive and which dead cells with neighbours become live cells.
+     */
+    @Override
+    public void tick() {
+        neighbourCounts.clear();
+        cells.forEach((key, type) -> {
+            int x = keyX(key);
+            int y = keyY(key);
+            for (int checkY = -1; checkY <= 1; checkY++)
+                for (int checkX = -1; checkX <= 1; checkX++)
+                    if (checkX != 0 || checkY != 0)
+                        neighbourCounts.add(key(x + checkX, y + checkY), 1);
+        });
+
+        nextCells.clear();
+        cells.forEach((key, type) -> {
+            if (rule.isSurviving(neighbourCounts.get(key)))
+                nextCells.put(key, type);
+        });
+        neighbourCounts.forEach((key, neighbours) -> {
+            if (rule.isBorn(neighbours) && cells.get(key) == 0)
+                nextCells.put(key, getMostCommonNeighbour(keyX(key), keyY(key)));
+        });
+
+        LongIntHashMap swap = cells;
+        cells = nextCells;
+        nextCells = swap;
+        generation++;
+    }
+
+    /**
+     * Determines the type of a new cell like <code>Simulation</code>: the type which surrounds it the most, equally
+     * common types have the same chance. The random bits of a cell are the same as in <code>Simulation</code>, so
+     * both engines compute the same generations from the same seed as long as nothing crosses the borders.
+     *
+     * @param x x-coordinate of the new cell
+     * @param y y-coordinate of the new cell
+     * @return type of the new cell
+     */
+    private int getMostCommonNeighbour(int x, int y) {
+        int neighbours = 0;
+        for (int checkY = -1; checkY <= 1; checkY++)
+            for (int checkX = -1; checkX <= 1; checkX++) {
+                if (checkX == 0 && checkY == 0)
+                    continue;
+
+                int current = cells.get(key(x + checkX, y + checkY));
+                if (current > 0)
+                    neighbourTypes[neighbours++] = current;
+            }
+
+        return MajorityVote.select(neighbourTypes, neighbours, random.getCellBits(generation, x, y));
+    }
+
+    /**
+     * Returns a snapshot of the window between (0, 0) and (width, height).
+     *
+     * @return snapshot of the board
+     */
+    @Override
+    public BoardSnapshot getBoard() {
+        byte[] window = new byte[width * height];
+        cells.forEach((key, type) -> {
+            int x = keyX(key);
+            int y = keyY(key);
+            if (x >= 0 && y >= 0 && x < width && y < height)
+                window[y * width + x] = (byte) type;
+        });
+
+        return new BoardSnapshot(width, height, generation, window);
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the amount of live cells on the whole plane.
+     *
+     * @return amount of live cells
+     */
+    public int getPopulation() {
+        return cells.size();
+    }
+
+    /**
+     * Populates the window with live cells of random types, every dead cell in the window has the same chance to
+     * become alive. If given amount exceeds the amount of dead cells in the window, latter is used.
+     * <p>
+     * Like <code>Simulation</code>, every row gets a share of the amount in proportion to its dead cells and picks its
+     * cells with a partial shuffle of its dead cells, see <code>DeadCellSampler</code>.
+     *
+     * @param amount amount of cells to populate
+     */
+    @Override
+    public void populate(int amount) {
+        int[] deadCells = new int[height];
+        Arrays.fill(deadCells, width);
+        cells.forEach((key, type) -> {
+            if (keyX(key) >= 0 && keyY(key) >= 0 && keyX(key) < width && keyY(key) < height)
+                deadCells[keyY(key)]--;
+        });
+
+        int[] shares = DeadCellSampler.getShares(deadCells, amount, random);
+        SplittableRandom rowRandom = null;
+        int[] candidates = new int[width];
+        for (int y = 0; y < height; y++) {
+            if (shares[y] == 0)
+                continue;
+            if (rowRandom == null)
+                rowRandom = random.split();
+
+            int dead = 0;
+            for (int x = 0; x < width; x++)
+                if (cells.get(key(x, y)) == 0)
+                    candidates[dead++] = x;
+
+            int row = y;
+            SplittableRandom typeRandom = rowRandom;
+            DeadCellSampler.select(candidates, dead, shares[y], rowRandom,
+                    x -> cells.put(key(x, row), 1 + typeRandom.nextInt(cellTypes)));
+        }
+    }
+
+    /**
+     * Sets the rule. Rules with births from 0 neighbours aren't supported, they would fill the unbounded plane.
+     *
+     * @param rule new rule
+     * @throws IllegalArgumentException if the rule contains B0
+     */
+    @Override
+    public void setRule(Rule rule) {
+        if (rule.isBorn(0))
+            throw new IllegalArgumentException("rules with B0 aren't supported on an unbounded plane: " + rule);
+
+        this.rule = rule;
+    }
+
+    @Override
+    public void setRandom(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Removes all live cells of the plane and copies the live cells of the given board into the window.
+     *
+     * @param board      board to copy, has to be of the same size as the window
+     * @param generation generation of the board
+     */
+    @Override
+    public void setBoard(Board board, long generation) {
+        if (board.getWidth() != width || board.getHeight() != height)
+            throw new IllegalArgumentException("board has a different size");
+
+        cells.clear();
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                if (board.getCell(x, y) > 0)
+                    cells.put(key(x, y), board.getCell(x, y));
+
+        this.generation = generation;
+    }
+
+    /**
+     * Sets cell at given coordinates to given type. Coordinates get checked if they fit in the window.
+     *
+     * @param x    x-coordinate of the cell
+     * @param y    y-coordinate of the cell
+     * @param type type of the cell
+     */
+    @Override
+    public void setCell(int x, int y, int type) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return;
+
+        cells.put(key(x, y), type);
+    }
+
+    @Override
+    public int getCellTypes() {
+        return cellTypes;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,387 @@
+package gameoflife.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributes the torus of <code>Simulation</code> in horizontal strips across several <code>StripWorker</code>
+ * processes, so the board doesn't have to fit into the heap of a single JVM.
+ * Workers connect over TCP, get their strip assigned in the order they connected and exchange the halo rows directly
+ * with each other, the coordinator only starts batches of generations and gathers downsampled frames and latencies.
+ * <p>
+ * The board starts randomly populated from a seed. Every cell only depends on the seed and its coordinates, so the
+ * same seed gives the same generations for any amount of workers. A saved or imported board given with
+ * <code>setBoard(BoardSnapshot)</code> is split into strips instead and sent to the workers when they connect.
+ * <p>
+ * Reads from the workers time out after <code>setReadTimeout(int)</code>, so a worker which hangs, for example because
+ * its machine stopped answering, ends the simulation with an error instead of blocking the coordinator forever.
+ */
+public class StripCoordinator implements Closeable {
+    private final int width;
+    private final int height;
+    private final int cellTypes;
+    private final Rule rule;
+    private final int workers;
+    private final int downsample;
+    private final int[] firstRows;
+    private final List<BoardListener> listeners;
+    private BoardSnapshot board;
+    private int readTimeoutMillis;
+    private ServerSocketChannel server;
+    private DataInputStream[] inputs;
+    private DataOutputStream[] outputs;
+    private long generation;
+    private long liveCells;
+    private final long[] ticks;
+    private final long[] tickNanos;
+    private final long[] maxTickNanos;
+    private final long[] exchangeNanos;
+    private final long[] maxExchangeNanos;
+
+    /**
+     * Creates a new coordinator and splits the board into strips of about the same height.
+     * Strips start at multiples of the downsample factor, so every cell of a frame belongs to a single strip.
+     *
+     * @param width      length of x-axis of board
+     * @param height     length of y-axis of board
+     * @param cellTypes  amount of live cell types between 1 and <code>Simulation.MAX_CELL_TYPES</code>
+     * @param rule       rule of the simulation
+     * @param workers    amount of worker processes
+     * @param downsample edge length of the squares of cells combined into one cell of a frame
+     * @throws IllegalArgumentException if a value is out of range or the board is too small for the workers
+     */
+    public StripCoordinator(int width, int height, int cellTypes, Rule rule, int workers, int downsample) {
+        if (cellTypes < 1 || cellTypes > Simulation.MAX_CELL_TYPES || workers < 1 || downsample < 1)
+            throw new IllegalArgumentException("cell types, workers or downsample factor out of range");
+        if (height / downsample < workers)
+            throw new IllegalArgumentException("board needs at least " + workers * downsample + " rows for "
+                    + workers + " workers");
+
+        this.width = width;
+        this.height = height;
+        this.cellTypes = cellTypes;
+        this.rule = rule;
+        this.workers = workers;
+        this.downsample = downsample;
+        listeners = new CopyOnWriteArrayList<>();
+        readTimeoutMillis = (int) TimeUnit.MINUTES.toMillis(10);
+
+        firstRows = new int[workers + 1];
+        for (int worker = 0; worker < workers; worker++)
+            firstRows[worker] = (int) ((long) worker * (height / downsample) / workers) * downsample;
+        firstRows[workers] = height;
+
+        ticks = new long[workers];
+        tickNanos = new long[workers];
+        maxTickNanos = new long[workers];
+        exchangeNanos = new long[workers];
+        maxExchangeNanos = new long[workers];
+    }
+
+    /**
+     * Sets the time to wait for an answer of a worker, which includes computing a whole batch of generations. Has to
+     * be set before the workers are connected.
+     *
+     * @param readTimeoutMillis time to wait in milliseconds, 0 waits forever
+     */
+    public void setReadTimeout(int readTimeoutMillis) {
+        this.readTimeoutMillis = Math.max(0, readTimeoutMillis);
+    }
+
+    /**
+     * Starts the workers from the given board instead of a random one, they continue at its generation. The board has
+     * to fit into the heap of the coordinator once, the workers only get their rows of it.
+     *
+     * @param board board to split into strips, has to be of the same size
+     * @throws IllegalArgumentException if the board has a different size
+     */
+    public void setBoard(BoardSnapshot board) {
+        if (board.getWidth() != width || board.getHeight() != height)
+            throw new IllegalArgumentException("board has a different size");
+
+        this.board = board;
+        generation = board.getGeneration();
+    }
+
+    /**
+     * Starts listening for workers on the loopback interface.
+     *
+     * @param port port to listen on, 0 chooses a free port
+     * @return address the workers have to connect to
+     * @throws IOException if the port can't be opened
+     */
+    public InetSocketAddress listen(int port) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    /**
+     * Waits until all workers are connected and assigns their strips. Each worker populates its strip or gets its rows
+     * of the board and connects to its neighbours afterwards.
+     *
+     * @param seed          seed of all random numbers
+     * @param density       share of cells populated at the start, unused if a board is set
+     * @param timeoutMillis time to wait for all workers in milliseconds
+     * @throws IOException if not all workers connected in time, a worker doesn't answer in time or a connection
+     *                     fails
+     */
+    public void connectWorkers(long seed, double density, long timeoutMillis) throws IOException {
+        SocketChannel[] channels = accept(timeoutMillis);
+        inputs = new DataInputStream[workers];
+        outputs = new DataOutputStream[workers];
+        String[] hosts = new String[workers];
+        int[] haloPorts = new int[workers];
+
+        for (int worker = 0; worker < workers; worker++) {
+            // the streams of the socket honour the read timeout, the streams of Channels ignore it
+            Socket socket = channels[worker].socket();
+            socket.setSoTimeout(readTimeoutMillis);
+            inputs[worker] = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            outputs[worker] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            hosts[worker] = ((InetSocketAddress) channels[worker].getRemoteAddress()).getAddress().getHostAddress();
+            haloPorts[worker] = readInt(worker);
+        }
+
+        for (int worker = 0; worker < workers; worker++) {
+            int down = (worker + 1) % workers;
+            DataOutputStream out = outputs[worker];
+            out.writeInt(workers);
+            out.writeInt(width);
+            out.writeInt(firstRows[worker + 1] - firstRows[worker]);
+            out.writeInt(firstRows[worker]);
+            out.writeInt(cellTypes);
+            out.writeUTF(rule.toString());
+            out.writeLong(seed);
+            out.writeDouble(density);
+            out.writeInt(downsample);
+            out.writeUTF(hosts[down]);
+            out.writeInt(haloPorts[down]);
+            out.writeLong(generation);
+            out.writeBoolean(board != null);
+            if (board != null)
+                out.write(board.getCells(), firstRows[worker] * width,
+                        (firstRows[worker + 1] - firstRows[worker]) * width);
+            out.flush();
+        }
+    }
+
+    /**
+     * Accepts the given amount of workers.
+     *
+     * @param timeoutMillis time to wait for all workers in milliseconds
+     * @return connections of the workers in the order they connected
+     * @throws IOException if not all workers connected in time
+     */
+    private SocketChannel[] accept(long timeoutMillis) throws IOException {
+        SocketChannel[] channels = new SocketChannel[workers];
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        server.configureBlocking(false);
+        try (Selector selector = Selector.open()) {
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            for (int connected = 0; connected < workers; ) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0)
+                    throw new IOException("only " + connected + " of " + workers + " workers connected");
+
+                selector.select(remaining);
+                selector.selectedKeys().clear();
+                SocketChannel channel;
+                while (connected < workers && (channel = server.accept()) != null) {
+                    channel.configureBlocking(true);
+                    channels[connected++] = channel;
+                }
+            }
+        }
+
+        return channels;
+    }
+
+    /**
+     * Lets all workers compute the given amount of generations and waits until they are finished.
+     * If a frame is requested, the downsampled strips are combined into one board, which is also sent to all
+     * listeners.
+     *
+     * @param generations      amount of generations to compute, 0 to only gather a frame
+     * @param isFrameRequested true to gather a frame
+     * @return downsampled board, null if no frame was requested
+     * @throws IOException if a worker doesn't answer in time or a connection fails
+     */
+    public BoardSnapshot run(int generations, boolean isFrameRequested) throws IOException {
+        for (DataOutputStream out : outputs) {
+            out.writeInt(generations);
+            out.writeBoolean(isFrameRequested);
+            out.flush();
+        }
+
+        int frameWidth = getFrameWidth();
+        byte[] frame = isFrameRequested ? new byte[frameWidth * getFrameHeight()] : null;
+        long liveCells = 0;
+        for (int worker = 0; worker < workers; worker++) {
+            DataInputStream in = inputs[worker];
+            generation = readLong(worker);
+            ticks[worker] += generations;
+            tickNanos[worker] += in.readLong();
+            maxTickNanos[worker] = Math.max(maxTickNanos[worker], in.readLong());
+            exchangeNanos[worker] += in.readLong();
+            maxExchangeNanos[worker] = Math.max(maxExchangeNanos[worker], in.readLong());
+
+            if (isFrameRequested) {
+                liveCells += in.readLong();
+                int length = in.readInt();
+                in.readFully(frame, firstRows[worker] / downsample * frameWidth, length);
+            }
+        }
+
+        if (!isFrameRequested)
+            return null;
+
+        this.liveCells = liveCells;
+        BoardSnapshot board = new BoardSnapshot(frameWidth, getFrameHeight(), generation, frame);
+        for (BoardListener listener : listeners)
+            listener.updateBoard(board);
+        return board;
+    }
+
+    /**
+     * Reads the first value of an answer of a worker, the rest of the answer follows right after it.
+     *
+     * @param worker index of the worker
+     * @return value read
+     * @throws IOException if the worker doesn't answer in time or the connection fails
+     */
+    private long readLong(int worker) throws IOException {
+        try {
+            return inputs[worker].readLong();
+        } catch (SocketTimeoutException e) {
+            throw timedOut(worker, e);
+        }
+    }
+
+    /**
+     * Reads the first value of an answer of a worker, the rest of the answer follows right after it.
+     *
+     * @param worker index of the worker
+     * @return value read
+     * @throws IOException if the worker doesn't answer in time or the connection fails
+     */
+    private int readInt(int worker) throws IOException {
+        try {
+            return inputs[worker].readInt();
+        } catch (SocketTimeoutException e) {
+            throw timedOut(worker, e);
+        }
+    }
+
+    /**
+     * Creates the error of a worker which didn't answer in time.
+     *
+     * @param worker index of the worker
+     * @param cause  timeout of the socket
+     * @return error naming the worker
+     */
+    private SocketTimeoutException timedOut(int worker, SocketTimeoutException cause) {
+        SocketTimeoutException error = new SocketTimeoutException("worker " + worker + " didn't answer within "
+                + readTimeoutMillis + " ms");
+        error.initCause(cause);
+        return error;
+    }
+
+    /**
+     * Adds a listener which gets every gathered frame.
+     *
+     * @param listener listener to add
+     */
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the latencies of all workers, ordered from the top strip to the bottom strip.
+     *
+     * @return statistics of each worker
+     */
+    public List<WorkerStats> getWorkerStats() {
+        List<WorkerStats> stats = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++)
+            stats.add(new WorkerStats(worker, firstRows[worker], firstRows[worker + 1], ticks[worker],
+                    tickNanos[worker], maxTickNanos[worker], exchangeNanos[worker], maxExchangeNanos[worker]));
+
+        return stats;
+    }
+
+    /**
+     * Returns the amount of generations computed so far.
+     *
+     * @return current generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the amount of live cells at the time of the last frame.
+     *
+     * @return amount of live cells
+     */
+    public long getLiveCells() {
+        return liveCells;
+    }
+
+    /**
+     * Returns the length of x-axis of the frames.
+     *
+     * @return width of a frame in cells
+     */
+    public int getFrameWidth() {
+        return (width + downsample - 1) / downsample;
+    }
+
+    /**
+     * Returns the length of y-axis of the frames.
+     *
+     * @return height of a frame in cells
+     */
+    public int getFrameHeight() {
+        return (height + downsample - 1) / downsample;
+    }
+
+    /**
+     * Stops all workers and closes the connections.
+     *
+     * @throws IOException if a connection can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (outputs != null)
+            for (DataOutputStream out : outputs) {
+                try {
+                    out.writeInt(-1);
+                    out.flush();
+                } catch (IOException e) {
+                    // the worker is already gone
+                }
+                out.close();
+            }
+
+        if (server != null)
+            server.close();
+    }
+}
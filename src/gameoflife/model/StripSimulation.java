@@ -0,0 +1,208 @@
+package gameoflife.model;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A horizontal strip of the torus of <code>Simulation</code>, computed by one worker of a distributed simulation.
+ * The strip wraps around its left and right border like the torus. The rows above and below belong to the
+ * neighbouring strips, they are stored as halo rows in front of and behind the strip and have to be filled before
+ * every generation.
+ * The rows are computed by the <code>RowComputer</code> of <code>Simulation</code>, with the halo rows as rows above
+ * and below and the coordinates on the whole board for the random bits of new cells, so the strips together compute
+ * the same generations as a single <code>Simulation</code> from the same board and seed.
+ */
+final class StripSimulation {
+    /**
+     * Generation used for the random bits of <code>populate(double)</code>, computed generations are never negative.
+     */
+    private static final long POPULATE_GENERATION = -1;
+    private final int width;
+    private final int height;
+    private final int offsetY;
+    private final int cellTypes;
+    private final RandomSource random;
+    private final RowComputer rows;
+    private final int[] neighbourTypes;
+    private final int[] typeCounts;
+    private byte[] cells;
+    private byte[] nextCells;
+    private long generation;
+
+    /**
+     * Creates an empty strip.
+     *
+     * @param width     length of x-axis of the board
+     * @param height    amount of rows of the strip
+     * @param offsetY   y-coordinate of the first row of the strip on the board
+     * @param cellTypes amount of live cell types
+     * @param rule      rule of the simulation
+     * @param random    random source shared by all strips through its seed
+     */
+    StripSimulation(int width, int height, int offsetY, int cellTypes, Rule rule, RandomSource random) {
+        this.width = width;
+        this.height = height;
+        this.offsetY = offsetY;
+        this.cellTypes = cellTypes;
+        this.random = random;
+        rows = new RowComputer(rule, cellTypes, Simulation.VECTOR_KERNEL, random);
+        neighbourTypes = new int[8];
+        typeCounts = new int[256];
+        cells = new byte[(height + 2) * width];
+        nextCells = new byte[(height + 2) * width];
+    }
+
+    /**
+     * Populates the strip with live cells of random types, every cell becomes alive with the given chance.
+     * Whether a cell becomes alive only depends on the seed and its coordinates on the board, so the board is the
+     * same for every partition into strips.
+     *
+     * @param density chance of a cell to become alive, between 0 and 1
+     */
+    void populate(double density) {
+        long threshold = (long) (density * (1L << 53));
+
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++) {
+                long bits = random.getCellBits(POPULATE_GENERATION, x, offsetY + y);
+                if (bits >>> 11 < threshold)
+                    cells[(y + 1) * width + x] = (byte) (1 + ((bits & 0xFFFFFFFFL) * cellTypes >>> 32));
+            }
+    }
+
+    /**
+     * Replaces the cells of the strip by its rows of a board, read row by row from the stream. Types don't get checked
+     * for validity.
+     *
+     * @param in         stream of the rows
+     * @param generation generation of the board
+     * @throws IOException if the rows can't be read
+     */
+    void readCells(DataInput in, long generation) throws IOException {
+        in.readFully(cells, width, height * width);
+        this.generation = generation;
+    }
+
+    /**
+     * Computes the next generation of the strip from its cells and the halo rows. The halo rows have to be filled
+     * again before the next generation.
+     */
+    void tick() {
+        for (int y = 1; y <= height; y++)
+            rows.computeRow(cells, nextCells, width, (y - 1) * width, y * width, (y + 1) * width, 0, width, generation,
+                    offsetY + y - 1, neighbourTypes);
+
+        byte[] swap = cells;
+        cells = nextCells;
+        nextCells = swap;
+        generation++;
+    }
+
+    /**
+     * Returns the first row of the strip, which is the halo row below of the strip above.
+     *
+     * @return buffer wrapping the row
+     */
+    ByteBuffer getFirstRow() {
+        return ByteBuffer.wrap(cells, width, width);
+    }
+
+    /**
+     * Returns the last row of the strip, which is the halo row above of the strip below.
+     *
+     * @return buffer wrapping the row
+     */
+    ByteBuffer getLastRow() {
+        return ByteBuffer.wrap(cells, height * width, width);
+    }
+
+    /**
+     * Returns the halo row above the strip, which has to be filled with the last row of the strip above.
+     *
+     * @return buffer wrapping the row
+     */
+    ByteBuffer getHaloAbove() {
+        return ByteBuffer.wrap(cells, 0, width);
+    }
+
+    /**
+     * Returns the halo row below the strip, which has to be filled with the first row of the strip below.
+     *
+     * @return buffer wrapping the row
+     */
+    ByteBuffer getHaloBelow() {
+        return ByteBuffer.wrap(cells, (height + 1) * width, width);
+    }
+
+    /**
+     * Fills the halo rows with the own rows of the strip, for a strip which covers the whole board.
+     */
+    void wrapHalos() {
+        System.arraycopy(cells, height * width, cells, 0, width);
+        System.arraycopy(cells, width, cells, (height + 1) * width, width);
+    }
+
+    /**
+     * Combines each square of cells into one cell of the most common live type, an equal amount results in the lower
+     * type. The strip has to start at a multiple of the factor, so no square is shared with another strip.
+     *
+     * @param factor edge length of the squares
+     * @return combined rows of the strip
+     */
+    byte[] downsample(int factor) {
+        int frameWidth = (width + factor - 1) / factor;
+        int frameHeight = (height + factor - 1) / factor;
+        byte[] frame = new byte[frameWidth * frameHeight];
+
+        for (int frameY = 0; frameY < frameHeight; frameY++)
+            for (int frameX = 0; frameX < frameWidth; frameX++) {
+                int startX = frameX * factor;
+                int startY = frameY * factor + 1;
+                int endX = Math.min(width, startX + factor);
+                int endY = Math.min(height + 1, startY + factor);
+
+                int mostCommonType = 0;
+                for (int y = startY; y < endY; y++)
+                    for (int x = startX; x < endX; x++) {
+                        int cell = cells[y * width + x] & 0xFF;
+                        if (cell > 0 && (++typeCounts[cell] > typeCounts[mostCommonType]
+                                || typeCounts[cell] == typeCounts[mostCommonType] && cell < mostCommonType))
+                            mostCommonType = cell;
+                    }
+
+                // only the counted types get reset, so the cost doesn't depend on the amount of types
+                if (mostCommonType > 0)
+                    for (int y = startY; y < endY; y++)
+                        for (int x = startX; x < endX; x++)
+                            typeCounts[cells[y * width + x] & 0xFF] = 0;
+
+                frame[frameY * frameWidth + frameX] = (byte) mostCommonType;
+            }
+
+        return frame;
+    }
+
+    /**
+     * Returns the amount of live cells of the strip.
+     *
+     * @return amount of live cells
+     */
+    long getLiveCells() {
+        long liveCells = 0;
+        for (int index = width; index < (height + 1) * width; index++)
+            if (cells[index] != 0)
+                liveCells++;
+
+        return liveCells;
+    }
+
+    /**
+     * Returns the amount of generations computed so far.
+     *
+     * @return current generation
+     */
+    long getGeneration() {
+        return generation;
+    }
+}
@@ -0,0 +1,144 @@
+package gameoflife.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Worker process of a distributed simulation, computes one strip of the board for a <code>StripCoordinator</code>.
+ * The worker connects to the coordinator, gets its strip assigned, populates it or receives its rows of the board and
+ * connects to the workers of the strips above and below. Afterwards it computes the requested amount of generations,
+ * exchanging the halo rows with its neighbours before every generation, and reports its latencies and optionally a
+ * downsampled frame after each batch.
+ */
+public class StripWorker {
+    private final InetSocketAddress coordinator;
+
+    /**
+     * Creates a new worker for the coordinator at the given address.
+     *
+     * @param coordinator address of the coordinator
+     */
+    public StripWorker(InetSocketAddress coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * Connects to the coordinator and computes generations until the coordinator stops the simulation.
+     * The connections to the neighbours are accepted on the same address the coordinator is reached from.
+     *
+     * @throws IOException if a connection fails
+     */
+    public void run() throws IOException {
+        try (SocketChannel control = SocketChannel.open(coordinator);
+             ServerSocketChannel haloServer = ServerSocketChannel.open()) {
+            InetAddress localAddress = ((InetSocketAddress) control.getLocalAddress()).getAddress();
+            haloServer.bind(new InetSocketAddress(localAddress, 0));
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(control)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(control)));
+            out.writeInt(((InetSocketAddress) haloServer.getLocalAddress()).getPort());
+            out.flush();
+
+            int workers = in.readInt();
+            int width = in.readInt();
+            int height = in.readInt();
+            int offsetY = in.readInt();
+            int cellTypes = in.readInt();
+            Rule rule = Rule.parse(in.readUTF());
+            long seed = in.readLong();
+            double density = in.readDouble();
+            int downsample = in.readInt();
+            String downHost = in.readUTF();
+            int downPort = in.readInt();
+            long generation = in.readLong();
+            boolean hasCells = in.readBoolean();
+
+            RandomSource random = new RandomSource(seed);
+            StripSimulation strip = new StripSimulation(width, height, offsetY, cellTypes, rule, random);
+            if (hasCells)
+                strip.readCells(in, generation);
+            else
+                strip.populate(density);
+
+            HaloExchange exchange = null;
+            if (workers > 1) {
+                // the halo server of the neighbour is already listening, so connecting first can't block
+                SocketChannel down = SocketChannel.open(new InetSocketAddress(downHost, downPort));
+                SocketChannel up = haloServer.accept();
+                down.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                up.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                exchange = new HaloExchange(up, down);
+            }
+
+            try {
+                serve(strip, exchange, downsample, in, out);
+            } finally {
+                if (exchange != null)
+                    exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Computes batches of generations until the coordinator sends a negative amount of generations.
+     *
+     * @param strip      strip of the worker
+     * @param exchange   connections to the neighbours, null if the strip covers the whole board
+     * @param downsample edge length of the squares of cells combined into one cell of a frame
+     * @param in         commands of the coordinator
+     * @param out        reports to the coordinator
+     * @throws IOException if a connection fails
+     */
+    private static void serve(StripSimulation strip, HaloExchange exchange, int downsample, DataInputStream in,
+                              DataOutputStream out) throws IOException {
+        while (true) {
+            int generations = in.readInt();
+            if (generations < 0)
+                return;
+            boolean isFrameRequested = in.readBoolean();
+
+            long tickNanos = 0;
+            long maxTickNanos = 0;
+            long exchangeNanos = 0;
+            long maxExchangeNanos = 0;
+            for (int i = 0; i < generations; i++) {
+                long start = System.nanoTime();
+                if (exchange != null)
+                    exchange.exchange(strip.getFirstRow(), strip.getLastRow(), strip.getHaloAbove(),
+                            strip.getHaloBelow());
+                else
+                    strip.wrapHalos();
+                long exchanged = System.nanoTime();
+                strip.tick();
+                long ticked = System.nanoTime();
+
+                exchangeNanos += exchanged - start;
+                maxExchangeNanos = Math.max(maxExchangeNanos, exchanged - start);
+                tickNanos += ticked - exchanged;
+                maxTickNanos = Math.max(maxTickNanos, ticked - exchanged);
+            }
+
+            out.writeLong(strip.getGeneration());
+            out.writeLong(tickNanos);
+            out.writeLong(maxTickNanos);
+            out.writeLong(exchangeNanos);
+            out.writeLong(maxExchangeNanos);
+            if (isFrameRequested) {
+                byte[] frame = strip.downsample(downsample);
+                out.writeLong(strip.getLiveCells());
+                out.writeInt(frame.length);
+                out.write(frame);
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package gameoflife.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Computes generations of <code>Model</code> on its own thread, independent of how often the board gets displayed.
+ * Generations are computed at a target rate, or as fast as possible if the target rate is 0.
+ */
+public class TickScheduler {
+    private final Model model;
+    private final Thread thread;
+    private volatile int targetRate;
+    private volatile boolean paused;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new paused <code>TickScheduler</code> for the given model, the thread is started immediately.
+     *
+     * @param model      model to compute generations of
+     * @param targetRate generations per second, 0 means as fast as possible
+     */
+    public TickScheduler(Model model, int targetRate) {
+        this.model = model;
+        this.targetRate = Math.max(0, targetRate);
+        paused = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Computes generations until stopped. If the computation falls behind the target rate, the missed time isn't
+     * made up for later.
+     */
+    private void run() {
+        long deadline = System.nanoTime();
+
+        while (!stopped) {
+            if (paused) {
+                waitWhilePaused();
+                deadline = System.nanoTime();
+                continue;
+            }
+
+            model.tick();
+
+            int rate = targetRate;
+            if (rate > 0) {
+                long now = System.nanoTime();
+                deadline += TimeUnit.SECONDS.toNanos(1) / rate;
+                if (deadline < now)
+                    deadline = now;
+                else
+                    LockSupport.parkNanos(deadline - now);
+            } else
+                deadline = System.nanoTime();
+        }
+    }
+
+    /**
+     * Blocks the thread until the scheduler gets resumed or stopped.
+     */
+    private synchronized void waitWhilePaused() {
+        while (paused && !stopped) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets the amount of generations computed per second, 0 means as fast as possible.
+     * A running wait for the next generation ends early, so the new rate takes effect immediately.
+     *
+     * @param targetRate generations per second
+     */
+    public void setTargetRate(int targetRate) {
+        this.targetRate = Math.max(0, targetRate);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Returns the amount of generations computed per second, 0 means as fast as possible.
+     *
+     * @return target generations per second
+     */
+    public int getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Stops computing generations after the current one is finished.
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Continues computing generations.
+     */
+    public synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    /**
+     * Returns if the scheduler is currently paused.
+     *
+     * @return true if no generations are computed
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Ends the thread after the current generation is finished.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        notifyAll();
+        LockSupport.unpark(thread);
+    }
+}
@@ -0,0 +1,113 @@
+package gameoflife.model;
+
+/**
+ * Latencies of one worker of a <code>StripCoordinator</code>, summed up over all generations computed so far.
+ * The exchange time includes waiting for the neighbouring workers, so a slow worker shows up as long exchange times
+ * of its neighbours.
+ */
+public final class WorkerStats {
+    private final int index;
+    private final int firstRow;
+    private final int endRow;
+    private final long ticks;
+    private final long tickNanos;
+    private final long maxTickNanos;
+    private final long exchangeNanos;
+    private final long maxExchangeNanos;
+
+    /**
+     * Creates new statistics.
+     *
+     * @param index            index of the worker, strips are numbered from top to bottom
+     * @param firstRow         first row of the strip of the worker
+     * @param endRow           row behind the last row of the strip of the worker
+     * @param ticks            amount of computed generations
+     * @param tickNanos        time spent computing generations in nanoseconds
+     * @param maxTickNanos     longest time spent computing a single generation in nanoseconds
+     * @param exchangeNanos    time spent exchanging halo rows in nanoseconds
+     * @param maxExchangeNanos longest time spent exchanging the halo rows of a single generation in nanoseconds
+     */
+    WorkerStats(int index, int firstRow, int endRow, long ticks, long tickNanos, long maxTickNanos, long exchangeNanos,
+                long maxExchangeNanos) {
+        this.index = index;
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+        this.ticks = ticks;
+        this.tickNanos = tickNanos;
+        this.maxTickNanos = maxTickNanos;
+        this.exchangeNanos = exchangeNanos;
+        this.maxExchangeNanos = maxExchangeNanos;
+    }
+
+    /**
+     * Returns the index of the worker, strips are numbered from top to bottom.
+     *
+     * @return index of the worker
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the first row of the strip of the worker.
+     *
+     * @return y-coordinate of the first row
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Returns the row behind the last row of the strip of the worker.
+     *
+     * @return y-coordinate behind the last row
+     */
+    public int getEndRow() {
+        return endRow;
+    }
+
+    /**
+     * Returns the amount of generations computed by the worker.
+     *
+     * @return amount of computed generations
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the average time spent computing a generation.
+     *
+     * @return average time in nanoseconds, 0 if no generation was computed
+     */
+    public double getMeanTickNanos() {
+        return ticks > 0 ? (double) tickNanos / ticks : 0;
+    }
+
+    /**
+     * Returns the longest time spent computing a single generation.
+     *
+     * @return longest time in nanoseconds
+     */
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * Returns the average time spent exchanging the halo rows of a generation.
+     *
+     * @return average time in nanoseconds, 0 if no generation was computed
+     */
+    public double getMeanExchangeNanos() {
+        return ticks > 0 ? (double) exchangeNanos / ticks : 0;
+    }
+
+    /**
+     * Returns the longest time spent exchanging the halo rows of a single generation.
+     *
+     * @return longest time in nanoseconds
+     */
+    public long getMaxExchangeNanos() {
+        return maxExchangeNanos;
+    }
+}
@@ -0,0 +1,59 @@
+package gameoflife.view;
+
+import gameoflife.model.Board;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Renders boards into images without a visible window, using the colours of <code>ColorBox</code>.
+ */
+public class BoardImage {
+
+    private BoardImage() {
+    }
+
+    /**
+     * Creates an image of the board where each cell is a square of the given size.
+     *
+     * @param board           board to render
+     * @param cellDisplaySize size of a cell in pixels
+     * @return rendered image
+     */
+    public static BufferedImage render(Board board, int cellDisplaySize) {
+        int width = board.getWidth() * cellDisplaySize;
+        BufferedImage image = new BufferedImage(width, board.getHeight() * cellDisplaySize,
+                BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        int[] palette = createPalette();
+
+        for (int y = 0; y < board.getHeight(); y++)
+            for (int x = 0; x < board.getWidth(); x++) {
+                int cell = board.getCell(x, y);
+                int rgb = cell < palette.length ? palette[cell] : palette[0];
+
+                for (int pixelY = y * cellDisplaySize; pixelY < (y + 1) * cellDisplaySize; pixelY++) {
+                    int offset = pixelY * width + x * cellDisplaySize;
+                    for (int pixelX = 0; pixelX < cellDisplaySize; pixelX++)
+                        pixels[offset + pixelX] = rgb;
+                }
+            }
+
+        return image;
+    }
+
+    /**
+     * Returns the RGB values of the colours of <code>ColorBox</code> for all 256 possible types, the index is the type
+     * of the cell.
+     *
+     * @return palette of the cell types
+     */
+    static int[] createPalette() {
+        int[] palette = new int[256];
+        for (int i = 0; i < palette.length; i++)
+            palette[i] = ColorBox.getColor(i).getRGB() & 0xFFFFFF;
+
+        return palette;
+    }
+}
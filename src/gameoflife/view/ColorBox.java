@@ -3,27 +3,69 @@ package gameoflife.view;
 import javax.swing.*;
 import java.awt.*;
 
+/**
+ * Selection of the cell type used for painting, shown as the colour of the type. Type 0 is the dead cell.
+ * The first types have fixed colours, the colours of further types are generated.
+ */
 public class ColorBox extends JComboBox {
-    private final Icon[] COLOR_ICONS;
-    public final String LABELS[] = {
+    private Icon[] COLOR_ICONS;
+    public static final String LABELS[] = {
             "BLACK", "RED", "YELLOW", "GREEN", "MAGENTA", "CYAN"
     };
-    public final Color COLORS[] = {
+    public static final Color COLORS[] = {
             Color.BLACK, Color.RED, Color.YELLOW, Color.GREEN, Color.MAGENTA, Color.CYAN
     };
+    // fraction of the golden angle, consecutive hues are as far apart as possible
+    private static final float HUE_STEP = 0.381966f;
+    // the first generated hue is orange, between the fixed colours red and yellow
+    private static final float FIRST_HUE = 0.08f;
+
     public ColorBox(){
         super();
+        setCellTypes(COLORS.length - 1);
+        setRenderer(new ComboBoxRenderer());
+    }
+
+    /**
+     * Returns the colour of the given cell type. Types without a fixed colour get hues spread around the colour
+     * circle, every second type is darker, so neighbouring types are easy to tell apart.
+     *
+     * @param type type of the cell between 0 and 255
+     * @return colour of the type
+     */
+    public static Color getColor(int type) {
+        if (type < COLORS.length)
+            return COLORS[type];
+
+        float hue = (FIRST_HUE + (type - COLORS.length) * HUE_STEP) % 1;
+        return Color.getHSBColor(hue, 0.85f, type % 2 == 0 ? 1 : 0.65f);
+    }
 
-        COLOR_ICONS = new Icon[LABELS.length];
-        final Integer[] INT_ARRAY = new Integer[LABELS.length];
-        for (int i = 0; i < LABELS.length; i++) {
+    /**
+     * Returns the name of the given cell type.
+     *
+     * @param type type of the cell
+     * @return name of the colour, or the number of the type if it has no fixed colour
+     */
+    public static String getLabel(int type) {
+        return type < LABELS.length ? LABELS[type] : "TYPE " + type;
+    }
+
+    /**
+     * Offers the dead cell and the given amount of live cell types for selection.
+     *
+     * @param cellTypes amount of live cell types
+     */
+    public void setCellTypes(int cellTypes) {
+        COLOR_ICONS = new Icon[cellTypes + 1];
+        final Integer[] INT_ARRAY = new Integer[cellTypes + 1];
+        for (int i = 0; i <= cellTypes; i++) {
             INT_ARRAY[i] = i;
-            COLOR_ICONS[i] = new ColorIcon(COLORS[i], new Dimension(100, 20));
-        setModel(new DefaultComboBoxModel<>(INT_ARRAY));
+            COLOR_ICONS[i] = new ColorIcon(getColor(i), new Dimension(100, 20));
         }
         setModel(new DefaultComboBoxModel<>(INT_ARRAY));
-        setRenderer(new ComboBoxRenderer());
     }
+
     class ComboBoxRenderer extends JLabel implements ListCellRenderer {
         public ComboBoxRenderer() {setOpaque(true);}
         public Component getListCellRendererComponent(
@@ -38,7 +80,7 @@ public class ColorBox extends JComboBox {
 
             int selectedIndex = (Integer) value;
             setIcon(COLOR_ICONS[selectedIndex]);
-            setText(LABELS[selectedIndex]);
+            setText(getLabel(selectedIndex));
             return this;
         }
     }
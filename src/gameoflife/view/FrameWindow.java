@@ -0,0 +1,57 @@
+package gameoflife.view;
+
+import gameoflife.model.Board;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Window showing the downsampled frames of a distributed simulation. Frames arrive on the thread of the coordinator
+ * and are handed to <code>LifePanel</code> on the event dispatch thread.
+ */
+public class FrameWindow {
+    private final JFrame frame;
+    private final LifePanel lifePanel;
+    private final JLabel statusLabel;
+
+    /**
+     * Creates a new window for frames of the given size, it is shown immediately.
+     *
+     * @param windowTitle     title of the window
+     * @param width           length of x-axis of a frame
+     * @param height          length of y-axis of a frame
+     * @param cellDisplaySize size of a displayed cell in pixels
+     */
+    public FrameWindow(String windowTitle, int width, int height, int cellDisplaySize) {
+        lifePanel = new LifePanel(width, height, cellDisplaySize);
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+
+        frame = new JFrame(windowTitle);
+        frame.setLayout(new BorderLayout(0, 0));
+        frame.add(lifePanel, BorderLayout.CENTER);
+        frame.add(statusLabel, BorderLayout.SOUTH);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    /**
+     * Shows the given frame.
+     *
+     * @param board downsampled board
+     */
+    public void updateBoard(Board board) {
+        SwingUtilities.invokeLater(() -> lifePanel.updateBoard(board));
+    }
+
+    /**
+     * Shows the given text below the frame.
+     *
+     * @param text status text, for example the generation and latencies
+     */
+    public void setStatus(String text) {
+        SwingUtilities.invokeLater(() -> statusLabel.setText(text));
+    }
+}
@@ -1,18 +1,36 @@
 package gameoflife.view;
 
+import gameoflife.model.Board;
+import gameoflife.model.BoardSnapshot;
+
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 /**
  * Displays Game Of Life, requests new board via listener after current is displayed.
  * A timer is used to set the amount of displayed boards per second.
  * Different types of cells are displayed in different colours.
+ * <p>
+ * Cells are written as pixels into the <code>int</code> raster of an image with one pixel per cell, only pixels of
+ * cells which changed get rewritten. Painting draws this image once, scaled by the size of the displayed cells.
+ * <p>
+ * The shown part of the board is set by a <code>Viewport</code> which can be zoomed and panned, only visible cells
+ * get written. If a cell is smaller than a pixel, squares of cells are combined into one pixel of a smaller image,
+ * coloured by the most common type or additionally darkened by the share of live cells.
  */
 public class LifePanel extends JPanel {
-    private int[][] board;
+    private volatile Board board;
     private final int width;
     private final int height;
     private final int lifeDisplaySize;
+    private final int[] palette;
+    private final Viewport viewport;
+    private Layer detailLayer;
+    private Layer overviewLayer;
+    private boolean isDensityShown;
 
     /**
      * Creates new LifePanel.
@@ -23,26 +41,55 @@ public class LifePanel extends JPanel {
      * @param lifeDisplaySize size of the displayed cell in pixels
      */
     public LifePanel(int width, int height, int lifeDisplaySize) {
-        this.board = new int[height][width];
+        this.board = new BoardSnapshot(width, height);
         this.width = width;
         this.height = height;
         this.lifeDisplaySize = lifeDisplaySize;
+        palette = BoardImage.createPalette();
+        viewport = new Viewport(lifeDisplaySize);
 
         this.setPreferredSize(new Dimension(width * lifeDisplaySize, height * lifeDisplaySize));
         this.setBackground(Color.BLACK);
     }
 
     /**
-     * Receives 2D-Array
+     * Receives a read-only board and repaints the regions which changed since the previously displayed board.
+     * If the changes aren't known, the whole panel gets repainted.
      *
-     * @param board 2D-Array which gets displayed
+     * @param board board which gets displayed
      */
-    public void updateBoard(int[][] board) {
+    public void updateBoard(Board board) {
+        Board previous = this.board;
         this.board = board;
+
+        if (!(board instanceof BoardSnapshot) || !(previous instanceof BoardSnapshot)) {
+            repaint();
+            return;
+        }
+
+        BoardSnapshot snapshot = (BoardSnapshot) board;
+        int tileSize = snapshot.getTileSize();
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        int cellsPerPixel = viewport.getCellsPerPixel();
+
+        for (int tileY = 0; tileY < tilesY; tileY++)
+            for (int tileX = 0; tileX < tilesX; tileX++)
+                if (snapshot.isTileChanged(tileX, tileY, (BoardSnapshot) previous)) {
+                    // combined pixels may reach into the neighbouring tiles
+                    int startX = tileX * tileSize / cellsPerPixel * cellsPerPixel;
+                    int startY = tileY * tileSize / cellsPerPixel * cellsPerPixel;
+                    int endX = ceilDiv((tileX + 1) * tileSize, cellsPerPixel) * cellsPerPixel;
+                    int endY = ceilDiv((tileY + 1) * tileSize, cellsPerPixel) * cellsPerPixel;
+                    int pixelX = (int) Math.floor(viewport.toPixelX(startX));
+                    int pixelY = (int) Math.floor(viewport.toPixelY(startY));
+                    repaint(pixelX, pixelY, (int) Math.ceil(viewport.toPixelX(endX)) - pixelX,
+                            (int) Math.ceil(viewport.toPixelY(endY)) - pixelY);
+                }
     }
 
     /**
-     * Displays cells in the size provided by field, display colour depends on the value in the 2D-Array, where a value
+     * Displays cells in the size provided by field, display colour depends on the value in the board, where a value
      * of 0 equals a dead cell and gets the colour black, every value above means a live cell and gets assigned a
      * different colour according to the value.
      *
@@ -52,22 +99,133 @@ public class LifePanel extends JPanel {
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        Graphics2D g2D = (Graphics2D) g;
-
-        for (int y = 0; y < height; y++)
-            for (int x = 0; x < width; x++) {
-                Color color = switch (board[y][x]) {
-                    case 1 -> Color.RED;
-                    case 2 -> Color.YELLOW;
-                    case 3 -> Color.GREEN;
-                    case 4 -> Color.MAGENTA;
-                    case 5 -> Color.CYAN;
-                    default -> Color.BLACK;
-                };
-
-                g2D.setColor(color);
-                g2D.fillRect(x * lifeDisplaySize, y * lifeDisplaySize, lifeDisplaySize, lifeDisplaySize);
-            }
+        paintBoard((Graphics2D) g, board);
+    }
+
+    /**
+     * Paints the part of the given board which is visible through the viewport and inside the clip of the
+     * <code>Graphics2D</code> object. The image is brought up to date with the visible cells first.
+     *
+     * @param g2D   the <code>Graphics2D</code> object to paint on
+     * @param board board which gets painted
+     */
+    public void paintBoard(Graphics2D g2D, Board board) {
+        Rectangle area = g2D.getClipBounds();
+        if (area == null)
+            area = getWidth() > 0 ? new Rectangle(getSize()) : new Rectangle(getPreferredSize());
+
+        int cellsPerPixel = viewport.getCellsPerPixel();
+        int startX = Math.max(0, (int) Math.floor(viewport.toCellX(area.x)));
+        int startY = Math.max(0, (int) Math.floor(viewport.toCellY(area.y)));
+        int endX = Math.min(width, (int) Math.ceil(viewport.toCellX(area.x + area.width)));
+        int endY = Math.min(height, (int) Math.ceil(viewport.toCellY(area.y + area.height)));
+        if (startX >= endX || startY >= endY)
+            return;
+
+        Layer layer;
+        if (cellsPerPixel > 1) {
+            if (overviewLayer == null || overviewLayer.cellsPerPixel != cellsPerPixel)
+                overviewLayer = new Layer(cellsPerPixel);
+            layer = overviewLayer;
+        } else {
+            if (detailLayer == null)
+                detailLayer = new Layer(1);
+            layer = detailLayer;
+        }
+
+        startX = startX / cellsPerPixel;
+        startY = startY / cellsPerPixel;
+        endX = ceilDiv(endX, cellsPerPixel);
+        endY = ceilDiv(endY, cellsPerPixel);
+        layer.update(board, startX, startY, endX, endY);
+
+        g2D.drawImage(layer.image,
+                (int) Math.round(viewport.toPixelX(startX * cellsPerPixel)),
+                (int) Math.round(viewport.toPixelY(startY * cellsPerPixel)),
+                (int) Math.round(viewport.toPixelX(endX * cellsPerPixel)),
+                (int) Math.round(viewport.toPixelY(endY * cellsPerPixel)),
+                startX, startY, endX, endY, null);
+    }
+
+    /**
+     * Divides and rounds up, both values have to be positive.
+     *
+     * @param dividend value to divide
+     * @param divisor  value to divide by
+     * @return rounded up quotient
+     */
+    private static int ceilDiv(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Zooms in for positive and out for negative steps, the cell under the given pixel stays in place.
+     *
+     * @param steps  amount of zoom steps, each doubles or halves the size of a cell
+     * @param pixelX x-coordinate in the panel
+     * @param pixelY y-coordinate in the panel
+     */
+    public void zoom(int steps, int pixelX, int pixelY) {
+        if (viewport.zoom(steps, pixelX, pixelY))
+            repaint();
+    }
+
+    /**
+     * Moves the shown part of the board by the given amount of pixels.
+     *
+     * @param deltaX pixels along the x-axis
+     * @param deltaY pixels along the y-axis
+     */
+    public void pan(int deltaX, int deltaY) {
+        viewport.pan(deltaX, deltaY);
+        repaint();
+    }
+
+    /**
+     * Shows the board from its top left corner in the configured cell size.
+     */
+    public void resetViewport() {
+        viewport.reset();
+        repaint();
+    }
+
+    /**
+     * Sets if combined pixels get darkened by the share of live cells, otherwise only the most common type is shown.
+     *
+     * @param isDensityShown true to show the share of live cells
+     */
+    public void setDensityShown(boolean isDensityShown) {
+        this.isDensityShown = isDensityShown;
+        repaint();
+    }
+
+    /**
+     * Returns the x-coordinate of the cell shown at the given pixel, may be outside the board.
+     *
+     * @param pixelX x-coordinate in the panel
+     * @return x-coordinate on the board
+     */
+    public int getCellX(int pixelX) {
+        return (int) Math.floor(viewport.toCellX(pixelX));
+    }
+
+    /**
+     * Returns the y-coordinate of the cell shown at the given pixel, may be outside the board.
+     *
+     * @param pixelY y-coordinate in the panel
+     * @return y-coordinate on the board
+     */
+    public int getCellY(int pixelY) {
+        return (int) Math.floor(viewport.toCellY(pixelY));
+    }
+
+    /**
+     * Returns the board which is currently displayed.
+     *
+     * @return displayed board
+     */
+    public Board getBoard() {
+        return board;
     }
 
     /**
@@ -87,4 +245,176 @@ public class LifePanel extends JPanel {
     public int getBoardHeight() {
         return height;
     }
+
+    /**
+     * Image of the board where each pixel stands for a square of cells. The image is split into blocks of pixels,
+     * each block remembers if it still shows the latest board. Blocks outside of the painted region are only marked as
+     * dirty when tiles inside them change, so they get written when they become visible again.
+     */
+    private final class Layer {
+        private static final int BLOCK_SIZE = 32;
+        private final int cellsPerPixel;
+        private final BufferedImage image;
+        private final int[] pixels;
+        private final int imageWidth;
+        private final int imageHeight;
+        private final int[] typeCounts;
+        private final int blocksX;
+        private final int blocksY;
+        private final boolean[] dirtyBlocks;
+        private Board renderedBoard;
+        private boolean isDensityRendered;
+
+        /**
+         * Creates an image for the whole board, all blocks start dirty.
+         *
+         * @param cellsPerPixel length of the square of cells combined into one pixel
+         */
+        private Layer(int cellsPerPixel) {
+            this.cellsPerPixel = cellsPerPixel;
+            imageWidth = ceilDiv(width, cellsPerPixel);
+            imageHeight = ceilDiv(height, cellsPerPixel);
+            image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            typeCounts = new int[palette.length];
+            blocksX = ceilDiv(imageWidth, BLOCK_SIZE);
+            blocksY = ceilDiv(imageHeight, BLOCK_SIZE);
+            dirtyBlocks = new boolean[blocksX * blocksY];
+            Arrays.fill(dirtyBlocks, true);
+        }
+
+        /**
+         * Makes sure the pixels between the given start (inclusive) and end (exclusive) coordinates show the given
+         * board. Only dirty blocks inside the region get written.
+         *
+         * @param board  board to show
+         * @param startX first pixel column
+         * @param startY first pixel row
+         * @param endX   pixel column behind the last column
+         * @param endY   pixel row behind the last row
+         */
+        private void update(Board board, int startX, int startY, int endX, int endY) {
+            if (isDensityRendered != isDensityShown) {
+                Arrays.fill(dirtyBlocks, true);
+                isDensityRendered = isDensityShown;
+            }
+            if (board != renderedBoard) {
+                markChangedBlocks(board, renderedBoard);
+                renderedBoard = board;
+            }
+
+            for (int blockY = startY / BLOCK_SIZE; blockY * BLOCK_SIZE < endY; blockY++)
+                for (int blockX = startX / BLOCK_SIZE; blockX * BLOCK_SIZE < endX; blockX++)
+                    if (dirtyBlocks[blockY * blocksX + blockX]) {
+                        renderRegion(board, blockX * BLOCK_SIZE, blockY * BLOCK_SIZE,
+                                Math.min(imageWidth, (blockX + 1) * BLOCK_SIZE),
+                                Math.min(imageHeight, (blockY + 1) * BLOCK_SIZE));
+                        dirtyBlocks[blockY * blocksX + blockX] = false;
+                    }
+        }
+
+        /**
+         * Marks all blocks as dirty which contain a tile that changed since the previous board. If the boards don't
+         * carry tile versions, all blocks are marked.
+         *
+         * @param board    board to show
+         * @param previous board the clean blocks currently show
+         */
+        private void markChangedBlocks(Board board, Board previous) {
+            if (!(board instanceof BoardSnapshot) || !(previous instanceof BoardSnapshot)) {
+                Arrays.fill(dirtyBlocks, true);
+                return;
+            }
+
+            BoardSnapshot snapshot = (BoardSnapshot) board;
+            int tileSize = snapshot.getTileSize();
+            int blockCells = BLOCK_SIZE * cellsPerPixel;
+            for (int blockY = 0; blockY < blocksY; blockY++)
+                for (int blockX = 0; blockX < blocksX; blockX++) {
+                    int block = blockY * blocksX + blockX;
+                    if (dirtyBlocks[block])
+                        continue;
+
+                    int lastTileX = (Math.min(width, (blockX + 1) * blockCells) - 1) / tileSize;
+                    int lastTileY = (Math.min(height, (blockY + 1) * blockCells) - 1) / tileSize;
+                    for (int tileY = blockY * blockCells / tileSize; tileY <= lastTileY && !dirtyBlocks[block]; tileY++)
+                        for (int tileX = blockX * blockCells / tileSize; tileX <= lastTileX; tileX++)
+                            if (snapshot.isTileChanged(tileX, tileY, (BoardSnapshot) previous)) {
+                                dirtyBlocks[block] = true;
+                                break;
+                            }
+                }
+        }
+
+        /**
+         * Writes the pixels between the given start (inclusive) and end (exclusive) coordinates, skipping pixels which
+         * already have the correct colour.
+         *
+         * @param board  board to write
+         * @param startX first pixel column
+         * @param startY first pixel row
+         * @param endX   pixel column behind the last column
+         * @param endY   pixel row behind the last row
+         */
+        private void renderRegion(Board board, int startX, int startY, int endX, int endY) {
+            for (int y = startY; y < endY; y++) {
+                int offset = y * imageWidth;
+                for (int x = startX; x < endX; x++) {
+                    int rgb;
+                    if (cellsPerPixel == 1) {
+                        int cell = board.getCell(x, y);
+                        rgb = cell < palette.length ? palette[cell] : palette[0];
+                    } else
+                        rgb = combineCells(board, x * cellsPerPixel, y * cellsPerPixel);
+
+                    if (pixels[offset + x] != rgb)
+                        pixels[offset + x] = rgb;
+                }
+            }
+        }
+
+        /**
+         * Returns the colour of the most common type of live cells in the square starting at the given cell, an equal
+         * amount results in the lower type. If density is shown, the colour is darkened by the share of live cells.
+         *
+         * @param board  board to read
+         * @param startX x-coordinate of the top left cell of the square
+         * @param startY y-coordinate of the top left cell of the square
+         * @return colour of the square
+         */
+        private int combineCells(Board board, int startX, int startY) {
+            int endX = Math.min(width, startX + cellsPerPixel);
+            int endY = Math.min(height, startY + cellsPerPixel);
+
+            int liveCells = 0;
+            int mostCommonType = 0;
+            for (int y = startY; y < endY; y++)
+                for (int x = startX; x < endX; x++) {
+                    int cell = board.getCell(x, y);
+                    if (cell > 0 && cell < typeCounts.length) {
+                        liveCells++;
+                        if (++typeCounts[cell] > typeCounts[mostCommonType]
+                                || typeCounts[cell] == typeCounts[mostCommonType] && cell < mostCommonType)
+                            mostCommonType = cell;
+                    }
+                }
+
+            // only the counted types get reset, so the cost doesn't depend on the amount of types
+            if (liveCells > 0)
+                for (int y = startY; y < endY; y++)
+                    for (int x = startX; x < endX; x++)
+                        typeCounts[board.getCell(x, y)] = 0;
+
+            int rgb = palette[mostCommonType];
+            if (!isDensityShown || liveCells == 0)
+                return rgb;
+
+            // square root makes sparse regions visible
+            double brightness = Math.sqrt((double) liveCells / ((endX - startX) * (endY - startY)));
+            int red = (int) ((rgb >> 16 & 0xFF) * brightness);
+            int green = (int) ((rgb >> 8 & 0xFF) * brightness);
+            int blue = (int) ((rgb & 0xFF) * brightness);
+            return red << 16 | green << 8 | blue;
+        }
+    }
 }
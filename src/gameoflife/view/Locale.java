@@ -11,7 +11,21 @@ public class Locale {
     private String startRecording;
     private String stopRecording;
     private String setFPS;
+    private String fpsHint;
     private String current;
+    private String density;
+    private String recorded;
+    private String skipped;
+    private String replay;
+    private String stopReplay;
+    private String recordings;
+    private String save;
+    private String load;
+    private String savedBoards;
+    private String importPattern;
+    private String exportPattern;
+    private String patterns;
+    private String ruleHint;
 
     /**
      * Ininitalizes new <code>Locale</code> object.
@@ -24,7 +38,21 @@ public class Locale {
         startRecording = "Start recording";
         stopRecording = "Stop recording";
         setFPS = "Set FPS";
+        fpsHint = "0 = as fast as possible";
         current = "currently";
+        density = "Density";
+        recorded = "recorded per second";
+        skipped = "skipped";
+        replay = "Replay";
+        stopReplay = "Stop replay";
+        recordings = "Recordings";
+        save = "Save";
+        load = "Load";
+        savedBoards = "Saved boards";
+        importPattern = "Import";
+        exportPattern = "Export";
+        patterns = "Patterns";
+        ruleHint = "Rule as name or B/S rulestring, for example B36/S23";
     }
 
 
@@ -82,6 +110,15 @@ public class Locale {
     }
 
 
+    /**
+     * Returns the set text for the hint of the FPS spinner
+     *
+     * @return string for "0 = as fast as possible"
+     */
+    public String getFPSHint() {
+        return fpsHint;
+    }
+
     /**
      * Returns the set text for "current"
      *
@@ -90,4 +127,121 @@ public class Locale {
     public String getCurrent() {
         return current;
     }
+
+    /**
+     * Returns the set text for "density"
+     *
+     * @return string for "density"
+     */
+    public String getDensity() {
+        return density;
+    }
+
+    /**
+     * Returns the set text for "recorded per second"
+     *
+     * @return string for "recorded per second"
+     */
+    public String getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Returns the set text for "skipped"
+     *
+     * @return string for "skipped"
+     */
+    public String getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the set text for "replay"
+     *
+     * @return string for "replay"
+     */
+    public String getReplay() {
+        return replay;
+    }
+
+    /**
+     * Returns the set text for "stop replay"
+     *
+     * @return string for "stop replay"
+     */
+    public String getStopReplay() {
+        return stopReplay;
+    }
+
+    /**
+     * Returns the set text for "recordings"
+     *
+     * @return string for "recordings"
+     */
+    public String getRecordings() {
+        return recordings;
+    }
+
+    /**
+     * Returns the set text for "save"
+     *
+     * @return string for "save"
+     */
+    public String getSave() {
+        return save;
+    }
+
+    /**
+     * Returns the set text for "load"
+     *
+     * @return string for "load"
+     */
+    public String getLoad() {
+        return load;
+    }
+
+    /**
+     * Returns the set text for "saved boards"
+     *
+     * @return string for "saved boards"
+     */
+    public String getSavedBoards() {
+        return savedBoards;
+    }
+
+    /**
+     * Returns the set text for "import"
+     *
+     * @return string for "import"
+     */
+    public String getImportPattern() {
+        return importPattern;
+    }
+
+    /**
+     * Returns the set text for "export"
+     *
+     * @return string for "export"
+     */
+    public String getExportPattern() {
+        return exportPattern;
+    }
+
+    /**
+     * Returns the set text for "patterns"
+     *
+     * @return string for "patterns"
+     */
+    public String getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns the set text for "rule hint"
+     *
+     * @return string for "rule hint"
+     */
+    public String getRuleHint() {
+        return ruleHint;
+    }
 }
@@ -1,5 +1,8 @@
 package gameoflife.view;
 
+import gameoflife.controller.OutputFormat;
+import gameoflife.model.Rule;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -14,6 +17,16 @@ public class UIPanel extends JPanel {
     JButton paintButton;
     ColorBox colorBox;
     JButton recordButton;
+    JCheckBox densityBox;
+    JLabel recordingLabel;
+    JComboBox<OutputFormat> formatBox;
+    JButton replayButton;
+    JButton saveButton;
+    JButton loadButton;
+    JButton importButton;
+    JButton exportButton;
+    JSlider replaySlider;
+    JComboBox<String> ruleBox;
 
     /**
      * Initializes new <code>UIPanel</code>.
@@ -21,13 +34,27 @@ public class UIPanel extends JPanel {
     public UIPanel() {
         setLayout(new FlowLayout());
         populateButton = new JButton();
-        SpinnerNumberModel fpsModel = new SpinnerNumberModel(8, 1, 90, 1);
+        // 0 computes generations as fast as possible
+        SpinnerNumberModel fpsModel = new SpinnerNumberModel(8, 0, 100000, 1);
         setFPSLabel = new JLabel();
         fpsSpinner = new JSpinner(fpsModel);
         realFPSLabel = new JLabel();
         colorBox = new ColorBox();
         paintButton = new JButton();
         recordButton = new JButton();
+        densityBox = new JCheckBox();
+        recordingLabel = new JLabel();
+        formatBox = new JComboBox<>(OutputFormat.values());
+        replayButton = new JButton();
+        saveButton = new JButton();
+        loadButton = new JButton();
+        importButton = new JButton();
+        exportButton = new JButton();
+        replaySlider = new JSlider(0, 0, 0);
+        ruleBox = new JComboBox<>();
+        for (Rule rule : Rule.getPresets())
+            ruleBox.addItem(rule.getName());
+        ruleBox.setEditable(true);
 
         this.add(populateButton);
         this.add(setFPSLabel);
@@ -35,6 +62,16 @@ public class UIPanel extends JPanel {
         this.add(realFPSLabel);
         this.add(colorBox);
         this.add(paintButton);
+        this.add(formatBox);
         this.add(recordButton);
+        this.add(recordingLabel);
+        this.add(saveButton);
+        this.add(loadButton);
+        this.add(importButton);
+        this.add(exportButton);
+        this.add(replayButton);
+        this.add(replaySlider);
+        this.add(ruleBox);
+        this.add(densityBox);
     }
 }
@@ -1,22 +1,25 @@
 package gameoflife.view;
 
 import gameoflife.controller.Controller;
+import gameoflife.controller.OutputFormat;
+import gameoflife.model.Board;
+import gameoflife.model.Rule;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
 
 /**
  * Creates JFrame and <code>lifePanel</code>.
  * Sends relevant user actions to <code>Controller</code>.
  * Receives orders from <code>Controller</code>.
+ * Zooming with the mouse wheel and panning with the right or middle mouse button are handled by the view itself.
  */
-public class View implements MouseListener, MouseMotionListener {
+public class View implements MouseListener, MouseMotionListener, MouseWheelListener {
     private final Controller controller;
     private Locale locale;
     private final String windowTitle;
@@ -27,6 +30,10 @@ public class View implements MouseListener, MouseMotionListener {
     private final int height;
     private final int cellDisplaySize;
     private Timer timer;
+    private int panX;
+    private int panY;
+    private boolean isReplaySliderUpdating;
+    private boolean isRuleBoxUpdating;
 
     /**
      * Creates a new View.
@@ -40,7 +47,7 @@ public class View implements MouseListener, MouseMotionListener {
      * Creates a new <code>View</code>.
      * Calls method to create frame.
      * Initializes <code>UIPanel</code> and <code>LifePanel</code> and adds mouse listeners.
-     * Starts updating of <code>LifePanel</code> based on timer.
+     * Starts updating of <code>LifePanel</code> based on timer, which runs at the paint FPS.
      *
      * @param controller      <code>Controller</code> object
      * @param windowTitle     title of the Window
@@ -59,6 +66,7 @@ public class View implements MouseListener, MouseMotionListener {
         lifePanel = new LifePanel(width, height, cellDisplaySize);
         lifePanel.addMouseListener(this);
         lifePanel.addMouseMotionListener(this);
+        lifePanel.addMouseWheelListener(this);
 
         uiPanel = new UIPanel();
         frame.add(lifePanel, BorderLayout.CENTER);
@@ -67,10 +75,8 @@ public class View implements MouseListener, MouseMotionListener {
 
         setupListeners();
 
-        timer = new Timer(1000 / controller.getSimulationFPS(), e -> {
-            lifePanel.repaint();
-           controller.requestBoard();
-        });
+        // LifePanel repaints the changed regions itself when it receives a new board
+        timer = new Timer(1000 / controller.getPaintFPS(), e -> controller.requestBoard());
         timer.start();
     }
 
@@ -103,14 +109,72 @@ public class View implements MouseListener, MouseMotionListener {
                 controller.recordButtonPressed();
             }
         });
+
+        uiPanel.saveButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                controller.saveButtonPressed();
+            }
+        });
+
+        uiPanel.loadButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                controller.loadButtonPressed();
+            }
+        });
+
+        uiPanel.importButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                controller.importButtonPressed();
+            }
+        });
+
+        uiPanel.exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                controller.exportButtonPressed();
+            }
+        });
+
+        uiPanel.replayButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                controller.replayButtonPressed();
+            }
+        });
+
+        uiPanel.replaySlider.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                if (!isReplaySliderUpdating)
+                    controller.replaySliderMoved(uiPanel.replaySlider.getValue());
+            }
+        });
+
+        uiPanel.densityBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                lifePanel.setDensityShown(uiPanel.densityBox.isSelected());
+            }
+        });
+
+        uiPanel.ruleBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (!isRuleBoxUpdating && uiPanel.ruleBox.getSelectedItem() != null)
+                    controller.ruleChanged(uiPanel.ruleBox.getSelectedItem().toString());
+            }
+        });
     }
 
     /**
      * Forwards board to Panel.
      *
-     * @param board 2D-Array containing the state of the Game Of Life
+     * @param board snapshot containing the state of the Game Of Life
      */
-    public void updateBoard(int[][] board) {
+    public void updateBoard(Board board) {
         lifePanel.updateBoard(board);
     }
 
@@ -133,7 +197,7 @@ public class View implements MouseListener, MouseMotionListener {
         f.setTitle(windowTitle);
         f.setSize(width * cellDisplaySize, height * cellDisplaySize);
         f.setLocationRelativeTo(null);
-        f.setResizable(false);
+        f.setResizable(true);
         f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         return f;
@@ -146,9 +210,17 @@ public class View implements MouseListener, MouseMotionListener {
     public void setText() {
         setRecordButtonText();
         uiPanel.populateButton.setText(locale.getPopulate());
+        uiPanel.fpsSpinner.setToolTipText(locale.getFPSHint());
+        uiPanel.densityBox.setText(locale.getDensity());
+        uiPanel.ruleBox.setToolTipText(locale.getRuleHint());
+        uiPanel.saveButton.setText(locale.getSave());
+        uiPanel.loadButton.setText(locale.getLoad());
+        uiPanel.importButton.setText(locale.getImportPattern());
+        uiPanel.exportButton.setText(locale.getExportPattern());
+        uiPanel.replayButton.setText(controller.isReplayMode() ? locale.getStopReplay() : locale.getReplay());
+        uiPanel.replaySlider.setVisible(controller.isReplayMode());
 
         if (controller.isPaintMode()) {
-            timer.setDelay(1000 / controller.getPaintFPS());
             uiPanel.paintButton.setText(locale.getContinueSimulation());
             uiPanel.setFPSLabel.setText(String.valueOf(locale.getSetFPS()));
             uiPanel.fpsSpinner.setVisible(false);
@@ -156,7 +228,6 @@ public class View implements MouseListener, MouseMotionListener {
             uiPanel.realFPSLabel.setVisible(false);
             uiPanel.colorBox.setVisible(true);
         } else {
-            timer.setDelay(1000 / controller.getSimulationFPS());
             uiPanel.paintButton.setText(locale.getStartPainting());
             uiPanel.setFPSLabel.setText(String.valueOf(locale.getSetFPS()));
             uiPanel.setFPSLabel.setVisible(true);
@@ -174,13 +245,20 @@ public class View implements MouseListener, MouseMotionListener {
             uiPanel.recordButton.setText(locale.getStopRecording());
         else
             uiPanel.recordButton.setText(locale.getStartRecording());
+
+        uiPanel.recordingLabel.setText("");
+        uiPanel.recordingLabel.setVisible(controller.isRecording());
     }
 
     /**
-     * Changes the timer to display frames.
+     * Sets the text of the recording label based on <code>Locale</code>.
+     *
+     * @param framesPerSecond average amount of written generations per second
+     * @param skipped         amount of generations which weren't recorded
      */
-    public void updateSimulationFPS() {
-        timer.setDelay(1000 / controller.getSimulationFPS());
+    public void setRecordingLabel(double framesPerSecond, long skipped) {
+        uiPanel.recordingLabel.setText("(" + locale.getRecorded() + " " + Math.round(framesPerSecond) + ", "
+                + locale.getSkipped() + " " + skipped + ")");
     }
 
     /**
@@ -191,42 +269,130 @@ public class View implements MouseListener, MouseMotionListener {
     }
 
     /**
-     * Calls <code>UIPanel</code> to get the selected cell type.
+     * Calls <code>UIPanel</code> to get the selected format of recordings.
      *
-     * @return index of the selected cell type
+     * @return selected format
      */
-    public int getSelectedPaintType() {
-        return uiPanel.colorBox.getSelectedIndex();
+    public OutputFormat getSelectedOutputFormat() {
+        return (OutputFormat) uiPanel.formatBox.getSelectedItem();
     }
 
+    /**
+     * Lets the user choose a recording file.
+     *
+     * @param path directory shown first
+     * @return chosen file, null if the dialog was cancelled
+     */
+    public File chooseRecording(String path) {
+        JFileChooser chooser = new JFileChooser(path);
+        chooser.setFileFilter(new FileNameExtensionFilter(locale.getRecordings(), "golr"));
+        if (chooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION)
+            return null;
+        return chooser.getSelectedFile();
+    }
 
     /**
-     * Saves the current state of the displayed <code>LifePanel</code>.
+     * Lets the user choose a file of a saved board. When saving, the directory gets created if needed and the file
+     * extension gets added if it is missing.
      *
-     * @param format   format of the image
-     * @param path     path of the image
-     * @param filename name of the file
+     * @param path     directory shown first
+     * @param isSaving true to choose a file to write, false to choose an existing file
+     * @return chosen file, null if the dialog was cancelled
      */
-    public void saveImage(String format, String path, String filename){
-        BufferedImage img = null;
-        try {
-            img = new Robot().createScreenCapture(lifePanel.bounds());
-        } catch (AWTException e) {
-            e.printStackTrace();
-        }
-        if (img == null) return;
+    public File chooseBoardFile(String path, boolean isSaving) {
+        return chooseFile(path, isSaving, locale.getSavedBoards(), "gol");
+    }
+
+    /**
+     * Lets the user choose a pattern file. When saving, the directory gets created if needed and the extension of run
+     * length encoded patterns gets added if it is missing.
+     *
+     * @param path     directory shown first
+     * @param isSaving true to choose a file to write, false to choose an existing file
+     * @return chosen file, null if the dialog was cancelled
+     */
+    public File choosePatternFile(String path, boolean isSaving) {
+        return chooseFile(path, isSaving, locale.getPatterns(), "rle", "cells", "lif", "life");
+    }
 
+    /**
+     * Lets the user choose a file with one of the given extensions.
+     *
+     * @param path        directory shown first
+     * @param isSaving    true to choose a file to write, false to choose an existing file
+     * @param description description of the files
+     * @param extensions  extensions of the files, the first one gets added to written files without extension
+     * @return chosen file, null if the dialog was cancelled
+     */
+    private File chooseFile(String path, boolean isSaving, String description, String... extensions) {
         File directory = new File(path);
-        if (!directory.exists())
-            directory.mkdir();
-
-            Graphics2D graphics2D = img.createGraphics();
-        lifePanel.paint(graphics2D);
-        try {
-            ImageIO.write(img,format, new File(path + filename));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        if (isSaving && !directory.exists())
+            directory.mkdirs();
+
+        JFileChooser chooser = new JFileChooser(directory);
+        chooser.setFileFilter(new FileNameExtensionFilter(description, extensions));
+        int result = isSaving ? chooser.showSaveDialog(frame) : chooser.showOpenDialog(frame);
+        if (result != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        File file = chooser.getSelectedFile();
+        if (isSaving && !file.getName().contains("."))
+            file = new File(file.getPath() + "." + extensions[0]);
+        return file;
+    }
+
+    /**
+     * Offers the dead cell and the given amount of live cell types for painting.
+     *
+     * @param cellTypes amount of live cell types
+     */
+    public void setCellTypes(int cellTypes) {
+        uiPanel.colorBox.setCellTypes(cellTypes);
+    }
+
+    /**
+     * Shows the given rule in the rule selection without reporting it as change.
+     *
+     * @param rule rule to show
+     */
+    public void setRule(Rule rule) {
+        isRuleBoxUpdating = true;
+        uiPanel.ruleBox.setSelectedItem(rule.getName());
+        isRuleBoxUpdating = false;
+    }
+
+    /**
+     * Sets the generations which can be selected with the replay slider.
+     *
+     * @param first first recorded generation
+     * @param last  last recorded generation
+     */
+    public void setReplayRange(long first, long last) {
+        isReplaySliderUpdating = true;
+        uiPanel.replaySlider.setMinimum((int) Math.min(Integer.MAX_VALUE, first));
+        uiPanel.replaySlider.setMaximum((int) Math.min(Integer.MAX_VALUE, last));
+        uiPanel.replaySlider.setValue(uiPanel.replaySlider.getMinimum());
+        isReplaySliderUpdating = false;
+    }
+
+    /**
+     * Moves the replay slider to the displayed generation without seeking.
+     *
+     * @param generation displayed generation
+     */
+    public void setReplayPosition(long generation) {
+        isReplaySliderUpdating = true;
+        uiPanel.replaySlider.setValue((int) Math.min(Integer.MAX_VALUE, generation));
+        isReplaySliderUpdating = false;
+    }
+
+    /**
+     * Calls <code>UIPanel</code> to get the selected cell type.
+     *
+     * @return index of the selected cell type
+     */
+    public int getSelectedPaintType() {
+        return uiPanel.colorBox.getSelectedIndex();
     }
 
     @Override
@@ -234,23 +400,33 @@ public class View implements MouseListener, MouseMotionListener {
     }
 
     /**
-     * Tells <code>Controller</code> coordinates where mouse button was pressed.
+     * Tells <code>Controller</code> coordinates where the left mouse button was pressed, other buttons start panning.
+     * A double click with the middle mouse button resets zoom and position.
      *
      * @param e the event to be processed
      */
     @Override
     public void mousePressed(MouseEvent e) {
-        controller.mousePressed(e.getX(), e.getY());
+        if (SwingUtilities.isLeftMouseButton(e)) {
+            controller.mousePressed(e.getX(), e.getY());
+            return;
+        }
+
+        if (SwingUtilities.isMiddleMouseButton(e) && e.getClickCount() == 2)
+            lifePanel.resetViewport();
+        panX = e.getX();
+        panY = e.getY();
     }
 
     /**
-     * Tells <code>Controller</code> when mouse button was released.
+     * Tells <code>Controller</code> when the left mouse button was released.
      *
      * @param e the event to be processed
      */
     @Override
     public void mouseReleased(MouseEvent e) {
-        controller.mouseReleased();
+        if (SwingUtilities.isLeftMouseButton(e))
+            controller.mouseReleased();
     }
 
     @Override
@@ -264,13 +440,21 @@ public class View implements MouseListener, MouseMotionListener {
     }
 
     /**
-     * Tells <code>Controller</code> where mouse was dragged.
+     * Tells <code>Controller</code> where mouse was dragged with the left mouse button, otherwise the board is moved
+     * along with the mouse.
      *
      * @param e the event to be processed
      */
     @Override
     public void mouseDragged(MouseEvent e) {
-        controller.mouseDragged(e.getX(), e.getY());
+        if (SwingUtilities.isLeftMouseButton(e)) {
+            controller.mouseDragged(e.getX(), e.getY());
+            return;
+        }
+
+        lifePanel.pan(e.getX() - panX, e.getY() - panY);
+        panX = e.getX();
+        panY = e.getY();
     }
 
     @Override
@@ -278,6 +462,37 @@ public class View implements MouseListener, MouseMotionListener {
 
     }
 
+    /**
+     * Zooms in when the wheel is turned away from the user and out otherwise, the cell under the cursor stays in
+     * place.
+     *
+     * @param e the event to be processed
+     */
+    @Override
+    public void mouseWheelMoved(MouseWheelEvent e) {
+        lifePanel.zoom(-e.getWheelRotation(), e.getX(), e.getY());
+    }
+
+    /**
+     * Gets the x-coordinate of the cell shown at the given pixel of <code>LifePanel</code>.
+     *
+     * @param pixelX x-coordinate of the mouse cursor
+     * @return x-coordinate of the cell, may be outside the board
+     */
+    public int getCellX(int pixelX) {
+        return lifePanel.getCellX(pixelX);
+    }
+
+    /**
+     * Gets the y-coordinate of the cell shown at the given pixel of <code>LifePanel</code>.
+     *
+     * @param pixelY y-coordinate of the mouse cursor
+     * @return y-coordinate of the cell, may be outside the board
+     */
+    public int getCellY(int pixelY) {
+        return lifePanel.getCellY(pixelY);
+    }
+
     /**
      * Gets width of board used in <code>LifePanel</code>.
      *
@@ -0,0 +1,128 @@
+package gameoflife.view;
+
+/**
+ * Maps between pixels of <code>LifePanel</code> and cells of the board.
+ * The scale is the size of a cell in pixels, it starts at the configured size of the displayed cell and changes by a
+ * factor of two with each zoom step. The origin is the cell coordinate shown at the top left corner of the panel.
+ */
+public class Viewport {
+    private static final int MIN_ZOOM = -10;
+    private static final int MAX_ZOOM = 6;
+    private final double baseScale;
+    private int zoom;
+    private double originX;
+    private double originY;
+
+    /**
+     * Creates a new <code>Viewport</code> showing the board from its top left corner.
+     *
+     * @param baseScale size of a cell in pixels without zoom
+     */
+    public Viewport(double baseScale) {
+        this.baseScale = baseScale;
+    }
+
+    /**
+     * Returns the size of a cell in pixels, values below 1 mean that several cells share a pixel.
+     *
+     * @return pixels per cell
+     */
+    public double getScale() {
+        return Math.scalb(baseScale, zoom);
+    }
+
+    /**
+     * Returns the length of the square of cells which gets combined into one pixel, 1 if a cell covers at least one
+     * pixel.
+     *
+     * @return cells per pixel along each axis
+     */
+    public int getCellsPerPixel() {
+        double scale = getScale();
+        return scale >= 1 ? 1 : (int) Math.ceil(1 / scale);
+    }
+
+    /**
+     * Returns the x-coordinate of the cell shown at the given pixel, the fractional part is the position inside the
+     * cell.
+     *
+     * @param pixelX x-coordinate in the panel
+     * @return x-coordinate on the board
+     */
+    public double toCellX(double pixelX) {
+        return originX + pixelX / getScale();
+    }
+
+    /**
+     * Returns the y-coordinate of the cell shown at the given pixel, the fractional part is the position inside the
+     * cell.
+     *
+     * @param pixelY y-coordinate in the panel
+     * @return y-coordinate on the board
+     */
+    public double toCellY(double pixelY) {
+        return originY + pixelY / getScale();
+    }
+
+    /**
+     * Returns the x-coordinate of the pixel where the given cell coordinate is shown.
+     *
+     * @param cellX x-coordinate on the board
+     * @return x-coordinate in the panel
+     */
+    public double toPixelX(double cellX) {
+        return (cellX - originX) * getScale();
+    }
+
+    /**
+     * Returns the y-coordinate of the pixel where the given cell coordinate is shown.
+     *
+     * @param cellY y-coordinate on the board
+     * @return y-coordinate in the panel
+     */
+    public double toPixelY(double cellY) {
+        return (cellY - originY) * getScale();
+    }
+
+    /**
+     * Zooms in for positive and out for negative steps, the cell under the given pixel stays in place.
+     *
+     * @param steps  amount of zoom steps, each doubles or halves the scale
+     * @param pixelX x-coordinate in the panel which stays in place
+     * @param pixelY y-coordinate in the panel which stays in place
+     * @return true if the scale changed
+     */
+    public boolean zoom(int steps, int pixelX, int pixelY) {
+        int newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom + steps));
+        if (newZoom == zoom)
+            return false;
+
+        double cellX = toCellX(pixelX);
+        double cellY = toCellY(pixelY);
+        zoom = newZoom;
+        originX = cellX - pixelX / getScale();
+        originY = cellY - pixelY / getScale();
+        return true;
+    }
+
+    /**
+     * Moves the shown part of the board by the given amount of pixels, positive values move the board to the right and
+     * down.
+     *
+     * @param deltaX pixels along the x-axis
+     * @param deltaY pixels along the y-axis
+     */
+    public void pan(int deltaX, int deltaY) {
+        originX -= deltaX / getScale();
+        originY -= deltaY / getScale();
+    }
+
+    /**
+     * Resets zoom and position, so the board is shown from its top left corner in the configured cell size.
+     */
+    public void reset() {
+        zoom = 0;
+        originX = 0;
+        originY = 0;
+    }
+}
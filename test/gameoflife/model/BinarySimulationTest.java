@@ -0,0 +1,100 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the bit parallel computation of <code>BinarySimulation</code> with <code>Simulation</code> of one live cell
+ * type on random boards.
+ */
+class BinarySimulationTest {
+    private static final Rule[] RULES = {Rule.CONWAY, Rule.HIGHLIFE, Rule.DAY_AND_NIGHT, Rule.SEEDS, Rule.MAZE,
+            Rule.REPLICATOR, Rule.parse("B0/S8")};
+    private static final int GENERATIONS = 32;
+
+    /**
+     * Widths below, at and across word boundaries, so the last word of a row is partly used and wraps into the first.
+     *
+     * @return rule, width, height and seed of each test
+     */
+    static Stream<Arguments> boards() {
+        int[][] sizes = {{1, 1}, {3, 5}, {63, 17}, {64, 9}, {65, 23}, {100, 40}, {128, 3}, {191, 64}};
+        List<Arguments> arguments = new ArrayList<>();
+        for (Rule rule : RULES)
+            for (int[] size : sizes)
+                for (long seed = 1; seed <= 3; seed++)
+                    arguments.add(Arguments.of(rule, size[0], size[1], seed));
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0}, {1}x{2}, seed {3}")
+    @MethodSource("boards")
+    void computesSameGenerationsAsSimulation(Rule rule, int width, int height, long seed) {
+        Simulation simulation = new Simulation(width, height, 1);
+        simulation.setRule(rule);
+        simulation.setRandom(new RandomSource(seed));
+        simulation.populate(width * height * 3 / 10);
+
+        BinarySimulation binary = new BinarySimulation(width, height);
+        binary.setRule(rule);
+        binary.setBoard(simulation.getBoard(), 0);
+
+        for (int generation = 1; generation <= GENERATIONS; generation++) {
+            simulation.tick();
+            binary.tick();
+            assertSameCells(simulation.getBoard(), binary.getBoard(), "generation " + generation);
+        }
+        assertEquals(GENERATIONS, binary.getGeneration());
+    }
+
+    @Test
+    void populatesExactAmountOfDeadCells() {
+        BinarySimulation binary = new BinarySimulation(130, 50);
+        binary.setRandom(new RandomSource(7));
+        binary.populate(2000);
+        assertEquals(2000, countLiveCells(binary.getBoard()));
+
+        binary.populate(3000);
+        assertEquals(5000, countLiveCells(binary.getBoard()));
+
+        binary.populate(Integer.MAX_VALUE);
+        assertEquals(130 * 50, countLiveCells(binary.getBoard()));
+    }
+
+    /**
+     * Asserts that the same cells are alive on both boards, types above 0 count as live.
+     *
+     * @param expected board of <code>Simulation</code>
+     * @param actual   board of <code>BinarySimulation</code>
+     * @param message  message of a failure
+     */
+    private static void assertSameCells(Board expected, Board actual, String message) {
+        for (int y = 0; y < expected.getHeight(); y++)
+            for (int x = 0; x < expected.getWidth(); x++)
+                assertEquals(expected.getCell(x, y) > 0, actual.getCell(x, y) > 0,
+                        message + ", cell " + x + "," + y);
+    }
+
+    /**
+     * Counts the live cells of a board.
+     *
+     * @param board board to count
+     * @return amount of live cells
+     */
+    private static int countLiveCells(Board board) {
+        int liveCells = 0;
+        for (int y = 0; y < board.getHeight(); y++)
+            for (int x = 0; x < board.getWidth(); x++)
+                if (board.getCell(x, y) > 0)
+                    liveCells++;
+        return liveCells;
+    }
+}
@@ -0,0 +1,112 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes boards with <code>BoardFile</code>, reads them back and loads them into a <code>Model</code>.
+ */
+class BoardFileTest {
+
+    @Test
+    void readsBackWrittenBoard(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("board.golb");
+        BoardSnapshot board = createBoard(5, 1234567890123L);
+        BoardFile.write(path, board, 5);
+
+        BoardFile file = BoardFile.read(path);
+        assertEquals(5, file.getCellTypes());
+        assertEquals(board.getWidth(), file.getBoard().getWidth());
+        assertEquals(board.getHeight(), file.getBoard().getHeight());
+        assertEquals(board.getGeneration(), file.getBoard().getGeneration());
+        assertArrayEquals(board.getCells(), file.getBoard().getCells());
+    }
+
+    @ParameterizedTest(name = "int {1} at {0}")
+    @CsvSource({
+            "0,  1196379972, not a saved board of a supported version",
+            "4,  2,          not a saved board of a supported version",
+            "8,  0,          size of the saved board doesn't match the file",
+            "8,  -71,        size of the saved board doesn't match the file",
+            "12, 44,         size of the saved board doesn't match the file",
+            "12, 65536,      size of the saved board doesn't match the file"})
+    void rejectsCorruptHeader(int position, int value, String message, @TempDir Path directory) throws IOException {
+        Path path = directory.resolve("board.golb");
+        BoardFile.write(path, createBoard(1, 0), 1);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), position);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> BoardFile.read(path));
+        assertTrue(error.getMessage().startsWith(message), error.getMessage());
+    }
+
+    @ParameterizedTest(name = "{0} bytes")
+    @ValueSource(ints = {0, 31, 32, 1000, 32 + 45 * 30 - 1, 32 + 45 * 30 + 1})
+    void rejectsFileOfWrongSize(int size, @TempDir Path directory) throws IOException {
+        Path path = directory.resolve("board.golb");
+        BoardFile.write(path, createBoard(1, 0), 1);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, size));
+
+        assertThrows(IOException.class, () -> BoardFile.read(path));
+    }
+
+    @Test
+    void loadsBoardIntoModelAndComputesSameGenerations(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("board.golb");
+        BoardSnapshot board = createBoard(1, 77);
+        BoardFile.write(path, board, 1);
+
+        // an engine of the same size is kept, its tiles which didn't change must be computed again
+        Model model = new Model(45, 30, 1);
+        model.setParallelism(2, 8);
+        for (int generation = 0; generation < 100; generation++)
+            model.tick();
+        BoardFile file = BoardFile.read(path);
+        model.load(file);
+        assertThrows(IllegalStateException.class, file::getBoard);
+        assertEquals(77, model.getGeneration());
+        assertArrayEquals(board.getCells(), model.getBoard().getCells());
+
+        Simulation simulation = new Simulation(board.getWidth(), board.getHeight(), 1);
+        simulation.setBoard(board, board.getGeneration());
+        for (int generation = 1; generation <= 20; generation++) {
+            model.tick();
+            simulation.tick();
+            assertArrayEquals(simulation.getBoard().getCells(), model.getBoard().getCells(),
+                    "generation " + generation);
+        }
+    }
+
+    /**
+     * Creates a random board of 45 x 30 cells.
+     *
+     * @param cellTypes  amount of live cell types
+     * @param generation generation of the board
+     * @return snapshot of the board
+     */
+    private static BoardSnapshot createBoard(int cellTypes, long generation) {
+        Simulation simulation = new Simulation(45, 30, cellTypes);
+        simulation.setRandom(new RandomSource(cellTypes));
+        simulation.populate(45 * 30 / 3);
+        simulation.setBoard(simulation.getBoard(), generation);
+        return simulation.getBoard();
+    }
+}
@@ -0,0 +1,75 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Saves boards with a <code>Checkpointer</code> and checks that errors of the background thread reach the caller.
+ */
+class CheckpointerTest {
+
+    @Test
+    void writesLatestSubmittedBoard(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("checkpoint.golb");
+        Simulation simulation = new Simulation(60, 40, 3);
+        simulation.setRandom(new RandomSource(4));
+        simulation.populate(60 * 40 / 3);
+
+        Checkpointer checkpointer = new Checkpointer(path);
+        for (int generation = 0; generation < 50; generation++) {
+            simulation.tick();
+            checkpointer.submit(simulation.getBoard(), 3);
+        }
+        checkpointer.close();
+
+        assertEquals(50, checkpointer.getWritten() + checkpointer.getReplaced());
+        BoardFile file = BoardFile.read(path);
+        assertEquals(50, file.getBoard().getGeneration());
+        assertArrayEquals(simulation.getBoard().getCells(), file.getBoard().getCells());
+        assertFalse(Files.exists(directory.resolve("checkpoint.golb.tmp")));
+    }
+
+    @Test
+    void throwsErrorOfFailedCheckpointOnceOnClose(@TempDir Path directory) throws IOException {
+        Checkpointer checkpointer = new Checkpointer(directory.resolve("missing").resolve("checkpoint.golb"));
+        checkpointer.submit(new BoardSnapshot(8, 8), 1);
+
+        assertThrows(NoSuchFileException.class, checkpointer::close);
+        checkpointer.close();
+        assertEquals(0, checkpointer.getWritten());
+    }
+
+    @Test
+    void throwsErrorOfFailedCheckpointOnNextSubmit(@TempDir Path directory) throws Exception {
+        Checkpointer checkpointer = new Checkpointer(directory.resolve("missing").resolve("checkpoint.golb"));
+        BoardSnapshot board = new BoardSnapshot(8, 8);
+
+        // the error arrives once the background thread failed, every submit before hands over another board
+        IOException error = null;
+        for (int attempt = 0; attempt < 1000 && error == null; attempt++) {
+            try {
+                checkpointer.submit(board, 1);
+                Thread.sleep(10);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        assertEquals(NoSuchFileException.class, error == null ? null : error.getClass());
+
+        try {
+            checkpointer.close();
+        } catch (IOException e) {
+            // boards handed over before the error failed as well
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares <code>HashLifeSimulation</code> with <code>Simulation</code> of one live cell type. The random soup starts
+ * in the middle of the board and never reaches its borders, so the torus of <code>Simulation</code> behaves like the
+ * unbounded plane of <code>HashLifeSimulation</code>.
+ */
+class HashLifeSimulationTest {
+    private static final Rule[] RULES = {Rule.CONWAY, Rule.HIGHLIFE, Rule.SEEDS};
+    private static final int SIZE = 128;
+    private static final int SOUP = 24;
+    private static final int GENERATIONS = 40;
+
+    /**
+     * Every rule with a few seeds and a cache which is large enough or small enough to be collected on most steps.
+     *
+     * @return rule, seed and maximum amount of cached nodes of each test
+     */
+    static Stream<Arguments> soups() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (Rule rule : RULES)
+            for (long seed = 1; seed <= 3; seed++)
+                for (int maxNodes : new int[]{1024, 4_000_000})
+                    arguments.add(Arguments.of(rule, seed, maxNodes));
+        return arguments.stream();
+    }
+
+    /**
+     * Every rule with exponents from single generations to steps of 32 generations.
+     *
+     * @return rule, exponent and maximum amount of cached nodes of each test
+     */
+    static Stream<Arguments> exponents() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (Rule rule : RULES)
+            for (int exponent = 0; exponent <= 5; exponent++)
+                for (int maxNodes : new int[]{1024, 4_000_000})
+                    arguments.add(Arguments.of(rule, exponent, maxNodes));
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0}, seed {1}, {2} nodes")
+    @MethodSource("soups")
+    void computesSameGenerationsAsSimulation(Rule rule, long seed, int maxNodes) {
+        Simulation simulation = createSoup(rule, seed);
+        HashLifeSimulation hashLife = new HashLifeSimulation(simulation.getBoard());
+        hashLife.setRule(rule);
+        hashLife.setMaxNodes(maxNodes);
+
+        for (int generation = 1; generation <= GENERATIONS; generation++) {
+            simulation.tick();
+            hashLife.tick();
+            assertSameCells(simulation.getBoard(), hashLife.getBoard(), "generation " + generation);
+        }
+        assertEquals(GENERATIONS, hashLife.getGeneration());
+    }
+
+    @ParameterizedTest(name = "{0}, 2^{1} generations, {2} nodes")
+    @MethodSource("exponents")
+    void advancesSameGenerationsAsTicksOfSimulation(Rule rule, int exponent, int maxNodes) {
+        Simulation simulation = createSoup(rule, exponent + 11);
+        HashLifeSimulation hashLife = new HashLifeSimulation(SIZE, SIZE);
+        hashLife.setRule(rule);
+        hashLife.setMaxNodes(maxNodes);
+        hashLife.setBoard(simulation.getBoard(), 0);
+
+        int steps = Math.max(1, 32 >> exponent);
+        for (int step = 1; step <= steps; step++) {
+            for (int generation = 0; generation < 1 << exponent; generation++)
+                simulation.tick();
+            hashLife.advance(exponent);
+            assertSameCells(simulation.getBoard(), hashLife.getBoard(), "step " + step);
+        }
+        assertEquals((long) steps << exponent, hashLife.getGeneration());
+    }
+
+    @Test
+    void rejectsRulesWithBirthsFromNoNeighbours() {
+        HashLifeSimulation hashLife = new HashLifeSimulation(8, 8);
+        assertThrows(IllegalArgumentException.class, () -> hashLife.setRule(Rule.parse("B0/S8")));
+        assertThrows(IllegalArgumentException.class, () -> hashLife.advance(-1));
+    }
+
+    /**
+     * Creates a simulation with a random soup of one live cell type in the middle of the board.
+     *
+     * @param rule rule of the simulation
+     * @param seed seed of the soup
+     * @return simulation of the soup
+     */
+    private static Simulation createSoup(Rule rule, long seed) {
+        Simulation soup = new Simulation(SOUP, SOUP, 1);
+        soup.setRandom(new RandomSource(seed));
+        soup.populate(SOUP * SOUP * 2 / 5);
+        Board cells = soup.getBoard();
+
+        Simulation simulation = new Simulation(SIZE, SIZE, 1);
+        simulation.setRule(rule);
+        int offset = (SIZE - SOUP) / 2;
+        for (int y = 0; y < SOUP; y++)
+            for (int x = 0; x < SOUP; x++)
+                simulation.setCell(offset + x, offset + y, cells.getCell(x, y));
+        return simulation;
+    }
+
+    /**
+     * Asserts that the same cells are alive on both boards, types above 0 count as live.
+     *
+     * @param expected board of <code>Simulation</code>
+     * @param actual   board of <code>HashLifeSimulation</code>
+     * @param message  message of a failure
+     */
+    private static void assertSameCells(Board expected, Board actual, String message) {
+        for (int y = 0; y < expected.getHeight(); y++)
+            for (int x = 0; x < expected.getWidth(); x++)
+                assertEquals(expected.getCell(x, y) > 0, actual.getCell(x, y) > 0,
+                        message + ", cell " + x + "," + y);
+    }
+}
@@ -0,0 +1,71 @@
+package gameoflife.model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Changes a <code>LongIntHashMap</code> and a <code>HashMap</code> the same way and compares their entries.
+ */
+class LongIntHashMapTest {
+
+    @ParameterizedTest(name = "{0} keys")
+    @ValueSource(ints = {4, 50, 1000, 30_000})
+    void keepsSameEntriesAsHashMap(int keyRange) {
+        SplittableRandom random = new SplittableRandom(keyRange);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int operation = 0; operation < 200_000; operation++) {
+            // coordinates of neighbouring cells packed like in SparseSimulation, so probing runs into clusters
+            long key = (long) (random.nextInt(keyRange) - keyRange / 2) << 32 | random.nextInt(3) - 1 & 0xFFFFFFFFL;
+            int choice = random.nextInt(10);
+            if (choice < 4) {
+                int value = random.nextInt(5);
+                map.put(key, value);
+                if (value == 0)
+                    expected.remove(key);
+                else
+                    expected.put(key, value);
+            } else if (choice < 6) {
+                assertEquals(expected.merge(key, 1, Integer::sum), map.add(key, 1));
+            } else if (choice < 9) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                assertEquals(expected.getOrDefault(key, 0), map.get(key));
+            }
+
+            if (operation % 50_000 == 0)
+                assertSameEntries(expected, map);
+        }
+        assertSameEntries(expected, map);
+
+        map.clear();
+        assertEquals(0, map.size());
+        map.forEach((key, value) -> {
+            throw new AssertionError("no entries expected");
+        });
+    }
+
+    /**
+     * Asserts that both maps contain the same entries.
+     *
+     * @param expected entries of the <code>HashMap</code>
+     * @param map      map to check
+     */
+    private static void assertSameEntries(Map<Long, Integer> expected, LongIntHashMap map) {
+        assertEquals(expected.size(), map.size());
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value), "key " + key + " visited twice"));
+        assertEquals(expected, visited);
+        for (Map.Entry<Long, Integer> entry : expected.entrySet())
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+    }
+}
@@ -0,0 +1,61 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends generations of a <code>Model</code> to listeners which are slower than the computation.
+ */
+class ModelTest {
+    private static final int GENERATIONS = 100;
+
+    @Test
+    void waitsForLosslessListener() throws InterruptedException {
+        Model model = createModel();
+        List<Long> generations = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(GENERATIONS);
+        model.addLosslessListener(board -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            generations.add(((BoardSnapshot) board).getGeneration());
+            finished.countDown();
+        });
+
+        for (int generation = 0; generation < GENERATIONS; generation++)
+            model.tick();
+        assertTrue(finished.await(1, TimeUnit.MINUTES));
+
+        for (int generation = 0; generation < GENERATIONS; generation++)
+            assertEquals(generation + 1, generations.get(generation));
+        assertEquals(0, model.getComputeStats().getDropped());
+    }
+
+    @Test
+    void dropsGenerationsForSlowListener() {
+        Model model = createModel();
+        model.addListener(board -> LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5)));
+
+        for (int generation = 0; generation < GENERATIONS; generation++)
+            model.tick();
+        assertTrue(model.getComputeStats().getDropped() > 0);
+    }
+
+    /**
+     * Creates a model with a random board and room for a single queued generation.
+     *
+     * @return new model
+     */
+    private static Model createModel() {
+        Model model = new Model(40, 30, 1);
+        model.setQueueCapacity(1);
+        model.populate(40 * 30 / 3);
+        return model;
+    }
+}
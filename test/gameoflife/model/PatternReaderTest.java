@@ -0,0 +1,112 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Parses patterns of all formats of <code>PatternFormat</code> and compares the visited cells.
+ */
+class PatternReaderTest {
+
+    @Test
+    void readsRleRunsOfCellsAndRows() throws IOException {
+        String pattern = "#N Test\n#C comment with x and !\nx = 5, y = 6, rule = B3/S23\n2bo$3o2$\n5o3$bo!\nooo";
+        assertEquals(List.of("2,0,1", "0,1,1", "1,1,1", "2,1,1", "0,3,1", "1,3,1", "2,3,1", "3,3,1", "4,3,1",
+                "1,6,1"), read(pattern, PatternFormat.RLE));
+    }
+
+    @Test
+    void readsRleWithoutTrailingExclamationMark() throws IOException {
+        assertEquals(List.of("0,0,1", "1,0,1", "0,1,1"), read("x = 2, y = 2\n2o$o", PatternFormat.RLE));
+    }
+
+    @Test
+    void readsRleRunsSplitAcrossLines() throws IOException {
+        assertEquals(List.of("0,0,1", "1,0,1", "2,0,1", "0,2,1"), read("x = 3, y = 3\n3o$\n$o!", PatternFormat.RLE));
+    }
+
+    @Test
+    void readsMultiStateRle() throws IOException {
+        assertEquals(List.of("0,0,1", "2,0,24", "0,1,25", "1,1,25", "2,1,255"),
+                read("x = 3, y = 2, rule = B3/S23\nA.X$2pAyO!", PatternFormat.RLE));
+    }
+
+    @Test
+    void readsPlaintextWithComments() throws IOException {
+        String pattern = "!Name: Glider\n!\n.O.\r\n..O\r\nOOO\r\n";
+        assertEquals(List.of("1,0,1", "2,1,1", "0,2,1", "1,2,1", "2,2,1"), read(pattern, PatternFormat.PLAINTEXT));
+    }
+
+    @Test
+    void readsLife106WithNegativeCoordinates() throws IOException {
+        String pattern = "#Life 1.06\n#D centred glider\n0 -1\n1 0\n-1 1\n0 1\n1 1";
+        assertEquals(List.of("0,-1,1", "1,0,1", "-1,1,1", "0,1,1", "1,1,1"), read(pattern, PatternFormat.LIFE_106));
+    }
+
+    @Test
+    void guessesFormatFromFirstCharacters() throws IOException {
+        assertEquals(List.of("-1,0,1"), read("#Life 1.06\n-1 0\n", null));
+        assertEquals(List.of("1,0,1"), read(".O\n", null));
+        assertEquals(List.of("0,0,1"), read("x = 1, y = 1\no!", null));
+    }
+
+    @Test
+    void wrapsLife106CellsAroundBoardOnImport(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("glider.lif");
+        Files.writeString(path, "#Life 1.06\n0 -1\n1 0\n-1 1\n0 1\n1 1\n", StandardCharsets.ISO_8859_1);
+        Model model = new Model(10, 8, 1);
+
+        assertEquals(5, model.importPattern(path, 0, 0, 0));
+        Board board = model.getBoard();
+        List<String> cells = new ArrayList<>();
+        for (int y = 0; y < board.getHeight(); y++)
+            for (int x = 0; x < board.getWidth(); x++)
+                if (board.getCell(x, y) > 0)
+                    cells.add(x + "," + y);
+        assertEquals(List.of("1,0", "0,1", "1,1", "9,1", "0,7"), cells);
+    }
+
+    @ParameterizedTest(name = "{0}: {1}")
+    @CsvSource(delimiter = '|', value = {
+            "RLE      | x = 2, y = 2\\n2o$o?!          | unexpected character '?' in line 2",
+            "RLE      | x = 2, y = 1\\npZ!            | invalid state in line 2",
+            "RLE      | x = 1, y = 1\\n99999999o!     | run too long in line 2",
+            "LIFE_106 | #Life 1.06\\n1 2\\n3          | missing y-coordinate in line 3",
+            "LIFE_106 | #Life 1.06\\n1 2 3\\n         | more than two coordinates in line 2",
+            "LIFE_106 | #Life 1.06\\n- 2\\n           | '-' without number in line 2",
+            "LIFE_106 | #Life 1.06\\n1 x\\n           | unexpected character 'x' in line 2",
+            "LIFE_106 | #Life 1.06\\n9999999999 0\\n  | coordinate too large in line 2"})
+    void rejectsMalformedPatterns(PatternFormat format, String pattern, String message) {
+        IOException error = assertThrows(IOException.class, () -> read(pattern.replace("\\n", "\n"), format));
+        assertEquals(message, error.getMessage());
+    }
+
+    /**
+     * Parses a pattern and collects the visited cells.
+     *
+     * @param pattern characters of the pattern
+     * @param format  format of the pattern, null to guess it
+     * @return visited cells as <code>x,y,type</code> in visiting order
+     * @throws IOException if the pattern is invalid
+     */
+    private static List<String> read(String pattern, PatternFormat format) throws IOException {
+        List<String> cells = new ArrayList<>();
+        long count = PatternReader.read(new StringReader(pattern), format,
+                (x, y, type) -> cells.add(x + "," + y + "," + type));
+        assertEquals(cells.size(), count);
+        return cells;
+    }
+}
@@ -0,0 +1,89 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes random boards with <code>PatternWriter</code> and reads them back with <code>PatternReader</code>.
+ */
+class PatternWriterTest {
+
+    @ParameterizedTest(name = "{0} types")
+    @ValueSource(ints = {1, 2, 24, 25, 48, 49, 255})
+    void readsBackWrittenBoard(int cellTypes) throws IOException {
+        Simulation simulation = new Simulation(93, 41, cellTypes);
+        simulation.setRandom(new RandomSource(cellTypes));
+        simulation.populate(93 * 41 / 4);
+        BoardSnapshot board = simulation.getBoard();
+
+        StringWriter writer = new StringWriter();
+        PatternWriter.writeRle(writer, board, Rule.HIGHLIFE);
+        String pattern = writer.toString();
+        assertTrue(pattern.startsWith("x = 93, y = 41, rule = B36/S23\n"));
+        for (String line : pattern.split("\n"))
+            assertTrue(line.length() <= 70, line);
+
+        assertArrayEquals(board.getCells(), read(pattern, 93, 41));
+    }
+
+    @Test
+    void writesRunsOfRowsAndEndsWithExclamationMark() throws IOException {
+        Simulation simulation = new Simulation(6, 7, 1);
+        for (int x = 0; x < 3; x++)
+            simulation.setCell(x, 0, 1);
+        simulation.setCell(4, 4, 1);
+
+        StringWriter writer = new StringWriter();
+        PatternWriter.writeRle(writer, simulation.getBoard(), Rule.CONWAY);
+        assertEquals("x = 6, y = 7, rule = B3/S23\n3o4$4bo!\n", writer.toString());
+    }
+
+    @Test
+    void writesMultiStateLetters() throws IOException {
+        Simulation simulation = new Simulation(5, 1, 255);
+        simulation.setCell(0, 0, 2);
+        simulation.setCell(1, 0, 24);
+        simulation.setCell(2, 0, 25);
+        simulation.setCell(4, 0, 255);
+
+        StringWriter writer = new StringWriter();
+        PatternWriter.writeRle(writer, simulation.getBoard(), Rule.CONWAY);
+        assertEquals("x = 5, y = 1, rule = B3/S23\nBXpA.yO!\n", writer.toString());
+    }
+
+    @Test
+    void readsBackEmptyBoardFromFile(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("empty.rle");
+        PatternWriter.writeRle(path, new BoardSnapshot(4, 3), Rule.SEEDS);
+        assertEquals(0, PatternReader.read(path, (x, y, type) -> {
+            throw new AssertionError("no live cells expected");
+        }));
+    }
+
+    /**
+     * Reads a pattern into a board of the given size.
+     *
+     * @param pattern characters of the pattern
+     * @param width   length of x-axis of the board
+     * @param height  length of y-axis of the board
+     * @return cells of the board row by row
+     * @throws IOException if the pattern is invalid
+     */
+    private static byte[] read(String pattern, int width, int height) throws IOException {
+        byte[] cells = new byte[width * height];
+        PatternReader.read(new StringReader(pattern), PatternFormat.RLE,
+                (x, y, type) -> cells[y * width + x] = (byte) type);
+        return cells;
+    }
+}
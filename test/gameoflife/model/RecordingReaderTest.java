@@ -0,0 +1,146 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes generations of a <code>Simulation</code> with <code>RecordingWriter</code> and reads them back with
+ * <code>RecordingReader</code>, in order and by seeking.
+ */
+class RecordingReaderTest {
+    private static final int GENERATIONS = 350;
+    private static final int KEYFRAME_INTERVAL = 40;
+
+    @Test
+    void readsFramesInOrderAndBySeeking(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("recording.golr");
+        TreeMap<Long, BoardSnapshot> frames = record(path);
+
+        try (RecordingReader reader = new RecordingReader(path)) {
+            assertEquals(frames.size(), reader.getFrameCount());
+            assertEquals(frames.firstKey(), reader.getFirstGeneration());
+            assertEquals(frames.lastKey(), reader.getLastGeneration());
+
+            for (BoardSnapshot frame : frames.values())
+                assertSameBoard(frame, reader.next());
+            assertNull(reader.next());
+
+            seekRandomly(reader, frames);
+        }
+    }
+
+    @Test
+    void readsFramesOfTruncatedFileWithoutIndex(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("recording.golr");
+        TreeMap<Long, BoardSnapshot> frames = record(path);
+
+        // cut off the index and the end of a frame, like a recording ended by a crash
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() * 2 / 3);
+        }
+
+        try (RecordingReader reader = new RecordingReader(path)) {
+            long lastGeneration = reader.getLastGeneration();
+            assertTrue(lastGeneration > frames.firstKey() && lastGeneration < frames.lastKey());
+            Map<Long, BoardSnapshot> remaining = frames.headMap(lastGeneration, true);
+            assertEquals(remaining.size(), reader.getFrameCount());
+
+            for (BoardSnapshot frame : remaining.values())
+                assertSameBoard(frame, reader.next());
+            assertNull(reader.next());
+
+            seekRandomly(reader, new TreeMap<>(remaining));
+            assertSameBoard(frames.get(lastGeneration), reader.seek(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void rejectsFileWithoutFrames(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("empty.golr");
+        record(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(RecordingFormat.HEADER_SIZE + RecordingFormat.FRAME_HEADER_SIZE);
+        }
+
+        assertThrows(IOException.class, () -> new RecordingReader(path));
+    }
+
+    /**
+     * Records generations of a random board with several cell types. Every seventh generation is left out, so seeking
+     * has to find the generation before a gap.
+     *
+     * @param path path of the recording file
+     * @return recorded boards by their generation
+     * @throws IOException if the recording can't be written
+     */
+    private static TreeMap<Long, BoardSnapshot> record(Path path) throws IOException {
+        Simulation simulation = new Simulation(70, 45, 5);
+        simulation.setRule(Rule.HIGHLIFE);
+        simulation.setRandom(new RandomSource(5));
+        simulation.populate(70 * 45 / 3);
+
+        TreeMap<Long, BoardSnapshot> frames = new TreeMap<>();
+        RecordingWriter writer = new RecordingWriter(path, KEYFRAME_INTERVAL);
+        for (int generation = 1; generation <= GENERATIONS; generation++) {
+            simulation.tick();
+            if (generation % 7 == 0)
+                continue;
+
+            BoardSnapshot board = simulation.getBoard();
+            writer.write(board);
+            frames.put(board.getGeneration(), board);
+        }
+        writer.close();
+        return frames;
+    }
+
+    /**
+     * Seeks to random generations forwards and backwards, every seek has to return the closest recorded generation
+     * at or before the target and <code>next()</code> has to continue behind it.
+     *
+     * @param reader reader of the recording
+     * @param frames recorded boards by their generation
+     * @throws IOException if the recording can't be read
+     */
+    private static void seekRandomly(RecordingReader reader, TreeMap<Long, BoardSnapshot> frames) throws IOException {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int seek = 0; seek < 200; seek++) {
+            long target = random.nextLong(frames.lastKey() + 5);
+            Map.Entry<Long, BoardSnapshot> expected = frames.floorEntry(target);
+            if (expected == null)
+                expected = frames.firstEntry();
+            assertSameBoard(expected.getValue(), reader.seek(target));
+
+            Map.Entry<Long, BoardSnapshot> following = frames.higherEntry(expected.getKey());
+            if (following == null)
+                assertNull(reader.next());
+            else
+                assertSameBoard(following.getValue(), reader.next());
+        }
+    }
+
+    /**
+     * Asserts that both boards belong to the same generation and contain the same cells.
+     *
+     * @param expected recorded board
+     * @param actual   board read from the recording
+     */
+    private static void assertSameBoard(BoardSnapshot expected, BoardSnapshot actual) {
+        assertEquals(expected.getGeneration(), actual.getGeneration());
+        assertArrayEquals(expected.getCells(), actual.getCells(), "generation " + expected.getGeneration());
+    }
+}
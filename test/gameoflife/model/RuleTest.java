@@ -0,0 +1,92 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Parses rulestrings in all notations accepted by <code>Rule</code> and formats them again.
+ */
+class RuleTest {
+
+    /**
+     * Returns the rules which are known by name.
+     *
+     * @return presets of <code>Rule</code>
+     */
+    static Stream<Rule> presets() {
+        return Stream.of(Rule.getPresets());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("presets")
+    void parsesPresetsFromNameAndRulestring(Rule preset) {
+        assertSame(preset, Rule.parse(preset.toString()));
+        assertSame(preset, Rule.parse(preset.getName()));
+        assertSame(preset, Rule.parse(" " + preset.getName().toUpperCase() + " "));
+        assertSame(preset, Rule.parse(preset.toString().toLowerCase()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "B3/S23         | B3/S23",
+            "S23/B3         | B3/S23",
+            "23/3           | B3/S23",
+            "b36/s23        | B36/S23",
+            "s/b2           | B2/S",
+            "/2             | B2/S",
+            "B0/S8          | B0/S8",
+            "B3/S0123456788 | B3/S012345678",
+            "B63/S32        | B36/S23",
+            "/              | B/S"})
+    void parsesAllNotations(String rule, String expected) {
+        assertEquals(expected, Rule.parse(rule).toString());
+    }
+
+    @Test
+    void parsesBackFormattedRules() {
+        for (int birth = 0; birth < 1 << 9; birth++)
+            for (int survival = 0; survival < 1 << 9; survival += 7) {
+                String rulestring = format(birth, survival);
+                Rule rule = Rule.parse(rulestring);
+                assertEquals(birth, rule.getBirthMask());
+                assertEquals(survival, rule.getSurvivalMask());
+                assertEquals(rulestring, rule.toString());
+                assertEquals(rule, Rule.parse(rule.toString()));
+            }
+    }
+
+    @ParameterizedTest(name = "\"{0}\"")
+    @ValueSource(strings = {"", "B3S23", "B3/S23/", "B3/S2/3", "B9/S23", "B3/S-1", "Bx/S", "B3/T23", "B3/B3",
+            "S23/S3", "23/3B", "Conway's Life", "B 3/S23"})
+    void rejectsMalformedRules(String rule) {
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse(rule));
+    }
+
+    /**
+     * Writes bit masks as rulestring in <code>B/S</code> notation.
+     *
+     * @param birth    bit mask of births
+     * @param survival bit mask of survival
+     * @return rulestring
+     */
+    private static String format(int birth, int survival) {
+        StringBuilder rule = new StringBuilder("B");
+        for (int neighbours = 0; neighbours <= 8; neighbours++)
+            if ((birth >>> neighbours & 1) != 0)
+                rule.append(neighbours);
+        rule.append("/S");
+        for (int neighbours = 0; neighbours <= 8; neighbours++)
+            if ((survival >>> neighbours & 1) != 0)
+                rule.append(neighbours);
+        return rule.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares <code>SparseSimulation</code> with <code>Simulation</code> of the same seed. The random soup starts in the
+ * middle of the board and never reaches its borders, so the torus of <code>Simulation</code> behaves like the unbounded
+ * plane of <code>SparseSimulation</code> and new cells get the same types.
+ */
+class SparseSimulationTest {
+    private static final int SIZE = 100;
+    private static final int SOUP = 20;
+    private static final int GENERATIONS = 36;
+
+    /**
+     * Rules with different amounts of neighbours for births, so new cells choose between up to eight types.
+     *
+     * @return rule, amount of cell types and seed of each test
+     */
+    static Stream<Arguments> soups() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (Rule rule : new Rule[]{Rule.CONWAY, Rule.HIGHLIFE, Rule.SEEDS, Rule.DAY_AND_NIGHT, Rule.REPLICATOR})
+            for (int cellTypes : new int[]{1, 2, 5, 255})
+                for (long seed = 1; seed <= 2; seed++)
+                    arguments.add(Arguments.of(rule, cellTypes, seed));
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0}, {1} types, seed {2}")
+    @MethodSource("soups")
+    void computesSameGenerationsAsSimulation(Rule rule, int cellTypes, long seed) {
+        Simulation soup = new Simulation(SOUP, SOUP, cellTypes);
+        soup.setRandom(new RandomSource(seed));
+        soup.populate(SOUP * SOUP * 2 / 5);
+        Board cells = soup.getBoard();
+
+        Simulation simulation = new Simulation(SIZE, SIZE, cellTypes);
+        simulation.setRule(rule);
+        simulation.setRandom(new RandomSource(seed + 100));
+        SparseSimulation sparse = new SparseSimulation(SIZE, SIZE, cellTypes);
+        sparse.setRule(rule);
+        sparse.setRandom(new RandomSource(seed + 100));
+        int offset = (SIZE - SOUP) / 2;
+        for (int y = 0; y < SOUP; y++)
+            for (int x = 0; x < SOUP; x++) {
+                simulation.setCell(offset + x, offset + y, cells.getCell(x, y));
+                sparse.setCell(offset + x, offset + y, cells.getCell(x, y));
+            }
+
+        for (int generation = 1; generation <= GENERATIONS; generation++) {
+            simulation.tick();
+            sparse.tick();
+            BoardSnapshot expected = simulation.getBoard();
+            assertArrayEquals(expected.getCells(), sparse.getBoard().getCells(), "generation " + generation);
+            assertEquals(countLiveCells(expected), sparse.getPopulation(), "generation " + generation);
+        }
+        assertEquals(GENERATIONS, sparse.getGeneration());
+    }
+
+    @Test
+    void keepsCellsOutsideOfWindow() {
+        SparseSimulation sparse = new SparseSimulation(10, 10, 1);
+        sparse.setRule(Rule.CONWAY);
+        // glider moving down and right, it leaves the window after a few generations
+        sparse.setCell(7, 6, 1);
+        sparse.setCell(8, 7, 1);
+        for (int x = 6; x < 9; x++)
+            sparse.setCell(x, 8, 1);
+
+        for (int generation = 0; generation < 40; generation++)
+            sparse.tick();
+        assertEquals(0, countLiveCells(sparse.getBoard()));
+        assertEquals(5, sparse.getPopulation());
+    }
+
+    @Test
+    void rejectsRulesWithBirthsFromNoNeighbours() {
+        SparseSimulation sparse = new SparseSimulation(8, 8, 1);
+        assertThrows(IllegalArgumentException.class, () -> sparse.setRule(Rule.parse("B0/S8")));
+    }
+
+    /**
+     * Counts the live cells of a board.
+     *
+     * @param board board to count
+     * @return amount of live cells
+     */
+    private static int countLiveCells(Board board) {
+        int liveCells = 0;
+        for (int y = 0; y < board.getHeight(); y++)
+            for (int x = 0; x < board.getWidth(); x++)
+                if (board.getCell(x, y) > 0)
+                    liveCells++;
+        return liveCells;
+    }
+}
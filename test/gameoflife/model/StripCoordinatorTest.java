@@ -0,0 +1,96 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a <code>StripCoordinator</code> over loopback.
+ */
+class StripCoordinatorTest {
+
+    @ParameterizedTest(name = "{0} workers")
+    @ValueSource(ints = {1, 2, 3, 7})
+    void computesSameGenerationsAsSimulationFromBoard(int workers) throws Exception {
+        Simulation simulation = new Simulation(75, 60, 5);
+        simulation.setRule(Rule.HIGHLIFE);
+        simulation.setRandom(new RandomSource(3));
+        simulation.setThreads(1);
+        simulation.populate(75 * 60 / 3);
+        simulation.setBoard(simulation.getBoard(), 12);
+
+        List<Thread> threads = new ArrayList<>();
+        try (StripCoordinator coordinator = new StripCoordinator(75, 60, 5, Rule.HIGHLIFE, workers, 1)) {
+            coordinator.setBoard(simulation.getBoard());
+            InetSocketAddress address = coordinator.listen(0);
+            for (int worker = 0; worker < workers; worker++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        new StripWorker(address).run();
+                    } catch (IOException e) {
+                        // the test fails on the side of the coordinator
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            coordinator.connectWorkers(3, 0, 5000);
+
+            for (int batch = 0; batch < 4; batch++) {
+                BoardSnapshot frame = coordinator.run(10, true);
+                for (int generation = 0; generation < 10; generation++)
+                    simulation.tick();
+                assertEquals(simulation.getGeneration(), frame.getGeneration());
+                assertArrayEquals(simulation.getBoard().getCells(), frame.getCells(), "batch " + batch);
+            }
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+    }
+
+    @Test
+    void failsIfWorkerDoesNotAnswer() throws Exception {
+        CountDownLatch finished = new CountDownLatch(1);
+        try (StripCoordinator coordinator = new StripCoordinator(16, 16, 1, Rule.CONWAY, 1, 1)) {
+            coordinator.setReadTimeout(200);
+            InetSocketAddress address = coordinator.listen(0);
+
+            // a worker which takes its strip but never answers a batch
+            Thread worker = new Thread(() -> {
+                try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+                    new DataOutputStream(socket.getOutputStream()).writeInt(1);
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    while (in.read() >= 0)
+                        ;
+                } catch (IOException e) {
+                    // the coordinator closed the connection
+                } finally {
+                    finished.countDown();
+                }
+            });
+            worker.start();
+
+            coordinator.connectWorkers(1, 0.5, 5000);
+            SocketTimeoutException error = assertThrows(SocketTimeoutException.class,
+                    () -> coordinator.run(1, false));
+            assertTrue(error.getMessage().startsWith("worker 0"));
+        }
+        finished.await();
+    }
+}
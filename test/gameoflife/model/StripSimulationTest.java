@@ -0,0 +1,103 @@
+package gameoflife.model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Compares strips of a distributed simulation with a single <code>Simulation</code> of the same board and seed. The
+ * halo rows are copied between the strips in process, like <code>HaloExchange</code> does between the workers.
+ */
+class StripSimulationTest {
+    private static final int GENERATIONS = 40;
+
+    /**
+     * Amounts of strips the board is split into, with rules and widths around the lane count of the Vector API.
+     *
+     * @return amount of strips, rule, width and amount of cell types of each test
+     */
+    static Stream<Arguments> partitions() {
+        int lanes = new Simulation(1, 1).getVectorLanes();
+        List<Arguments> arguments = new ArrayList<>();
+        for (int strips : new int[]{1, 2, 3, 7})
+            for (Rule rule : new Rule[]{Rule.CONWAY, Rule.HIGHLIFE, Rule.parse("B0/S8")})
+                for (int width : new int[]{1, 3, lanes + 1, 2 * lanes + 3})
+                    for (int cellTypes : new int[]{1, 5})
+                        arguments.add(Arguments.of(strips, rule, width, cellTypes));
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0} strips, {1}, width {2}, {3} types")
+    @MethodSource("partitions")
+    void computesSameGenerationsAsSimulation(int strips, Rule rule, int width, int cellTypes) {
+        int height = 45;
+        long seed = 17L * strips + width;
+        StripSimulation[] parts = new StripSimulation[strips];
+        for (int strip = 0; strip < strips; strip++) {
+            int firstRow = strip * height / strips;
+            int endRow = (strip + 1) * height / strips;
+            parts[strip] = new StripSimulation(width, endRow - firstRow, firstRow, cellTypes, rule,
+                    new RandomSource(seed));
+            parts[strip].populate(0.35);
+        }
+
+        Simulation simulation = new Simulation(width, height, cellTypes);
+        simulation.setRule(rule);
+        simulation.setRandom(new RandomSource(seed));
+        simulation.setThreads(1);
+        simulation.setBoard(new BoardSnapshot(width, height, 0, join(parts, width, height)), 0);
+
+        for (int generation = 1; generation <= GENERATIONS; generation++) {
+            exchangeHalos(parts);
+            for (StripSimulation part : parts)
+                part.tick();
+            simulation.tick();
+            assertArrayEquals(simulation.getBoard().getCells(), join(parts, width, height),
+                    "generation " + generation);
+        }
+    }
+
+    /**
+     * Copies the first and last row of every strip into the halo rows of its neighbours, the board wraps around from
+     * the last strip to the first.
+     *
+     * @param parts strips from top to bottom
+     */
+    private static void exchangeHalos(StripSimulation[] parts) {
+        if (parts.length == 1) {
+            parts[0].wrapHalos();
+            return;
+        }
+
+        for (int strip = 0; strip < parts.length; strip++) {
+            StripSimulation below = parts[(strip + 1) % parts.length];
+            parts[strip].getHaloBelow().put(below.getFirstRow());
+            below.getHaloAbove().put(parts[strip].getLastRow());
+        }
+    }
+
+    /**
+     * Combines the cells of all strips into one board, a downsample factor of 1 returns the rows of a strip.
+     *
+     * @param parts  strips from top to bottom
+     * @param width  length of x-axis of the board
+     * @param height length of y-axis of the board
+     * @return cells of the board row by row
+     */
+    private static byte[] join(StripSimulation[] parts, int width, int height) {
+        byte[] cells = new byte[width * height];
+        int offset = 0;
+        for (StripSimulation part : parts) {
+            byte[] rows = part.downsample(1);
+            System.arraycopy(rows, 0, cells, offset, rows.length);
+            offset += rows.length;
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,105 @@
+package gameoflife.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the kernel based on the Vector API with the scalar computation of <code>Simulation</code>.
+ * The tests are skipped if the Vector API isn't available, which needs Java 16 or newer and
+ * <code>--add-modules jdk.incubator.vector</code>.
+ */
+class VectorRowKernelTest {
+    private static final Rule[] RULES = {Rule.CONWAY, Rule.HIGHLIFE, Rule.DAY_AND_NIGHT, Rule.SEEDS, Rule.REPLICATOR,
+            Rule.parse("B0/S8")};
+    private static final int GENERATIONS = 24;
+
+    @BeforeAll
+    static void requireVectorApi() {
+        assumeTrue(Simulation.isVectorAvailable(), "Vector API not available");
+    }
+
+    /**
+     * Widths around multiples of the lane count, so rows end with partial vectors, and widths without any interior.
+     *
+     * @return rule, width and amount of cell types of each test
+     */
+    static Stream<Arguments> boards() {
+        int lanes = new Simulation(1, 1).getVectorLanes();
+        int[] widths = {1, 2, 3, lanes - 1, lanes, lanes + 1, lanes + 2, 2 * lanes + 3, 3 * lanes - 1, 257};
+        List<Arguments> arguments = new ArrayList<>();
+        for (Rule rule : RULES)
+            for (int width : widths)
+                for (int cellTypes : new int[]{1, 5, Simulation.MAX_CELL_TYPES})
+                    arguments.add(Arguments.of(rule, width, cellTypes));
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0}, width {1}, {2} types")
+    @MethodSource("boards")
+    void computesSameGenerationsAsScalarKernel(Rule rule, int width, int cellTypes) {
+        long seed = 31L * width + cellTypes;
+        Simulation vector = createSimulation(rule, width, 37, cellTypes, seed, true);
+        Simulation scalar = createSimulation(rule, width, 37, cellTypes, seed, false);
+        assertTrue(vector.isVectorized());
+        assertFalse(scalar.isVectorized());
+
+        for (int generation = 1; generation <= GENERATIONS; generation++) {
+            vector.tick();
+            scalar.tick();
+            assertArrayEquals(scalar.getBoard().getCells(), vector.getBoard().getCells(),
+                    "generation " + generation);
+        }
+    }
+
+    @Test
+    void computesSameGenerationsWithSeveralThreadsAndTiles() {
+        int lanes = new Simulation(1, 1).getVectorLanes();
+        Simulation vector = createSimulation(Rule.CONWAY, 7 * lanes + 5, 150, 5, 11, true);
+        Simulation scalar = createSimulation(Rule.CONWAY, 7 * lanes + 5, 150, 5, 11, false);
+        vector.setThreads(4);
+        vector.setTileSize(lanes + 3);
+        scalar.setThreads(1);
+
+        for (int generation = 1; generation <= 100; generation++) {
+            vector.tick();
+            scalar.tick();
+        }
+        assertArrayEquals(scalar.getBoard().getCells(), vector.getBoard().getCells());
+        assertEquals(100, vector.getGeneration());
+    }
+
+    /**
+     * Creates a simulation populated with a third of its cells.
+     *
+     * @param rule       rule of the simulation
+     * @param width      length of x-axis of board
+     * @param height     length of y-axis of board
+     * @param cellTypes  amount of live cell types
+     * @param seed       seed of the random source
+     * @param vectorized true to use the Vector API
+     * @return populated simulation
+     */
+    private static Simulation createSimulation(Rule rule, int width, int height, int cellTypes, long seed,
+                                               boolean vectorized) {
+        Simulation simulation = new Simulation(width, height, cellTypes);
+        simulation.setRule(rule);
+        simulation.setRandom(new RandomSource(seed));
+        simulation.setThreads(1);
+        simulation.setVectorized(vectorized);
+        simulation.populate(width * height / 3);
+        return simulation;
+    }
+}